@@ -0,0 +1,151 @@
+#!/usr/bin/env bash
+#
+# Startup benchmark: time from launching the JVM to the first successful
+# GET /api/products (login included), and the resident memory at that point.
+#
+# Build the jar with the aot profile so every mode can run from it:
+#
+#   mvn -Paot clean package -DskipTests
+#   scripts/startup-benchmark.sh [runs]
+#
+# Modes (MODES, space separated, default all):
+#   jar        java -jar on the fat jar
+#   extracted  the jar extracted by the tools jar mode (the layout CDS needs)
+#   cds        extracted + a CDS archive from a training run
+#   aot        extracted + Spring AOT (-Dspring.aot.enabled=true)
+#   aot-cds    extracted + Spring AOT + a CDS archive trained with AOT on
+#
+# Runs against the database of the normal configuration; override it with the
+# usual SPRING_DATASOURCE_* variables. Each mode runs `runs` times (default 5)
+# after one unmeasured warm-up (file cache), and prints every run plus the median.
+#
+# Authentication: TOKEN, a JWT signed with the configured jwt.secret (tokens
+# survive restarts), or else POS_USERNAME / POS_PASSWORD (admin/admin) to log in
+# on every run. Other settings: JAR, PORT (8080), JAVA_OPTS (added to every
+# run), WORK_DIR (target/startup-benchmark), TIMEOUT_S (180).
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${1:-5}
+MODES=${MODES:-"jar extracted cds aot aot-cds"}
+JAR=${JAR:-$(ls target/pos-*.jar | grep -v '\.original$' | head -1)}
+PORT=${PORT:-8080}
+POS_USERNAME=${POS_USERNAME:-admin}
+POS_PASSWORD=${POS_PASSWORD:-admin}
+TOKEN=${TOKEN:-}
+JAVA_OPTS=${JAVA_OPTS:-}
+WORK_DIR=${WORK_DIR:-target/startup-benchmark}
+TIMEOUT_S=${TIMEOUT_S:-180}
+
+BASE_URL="http://localhost:${PORT}/api"
+
+if curl -s -o /dev/null "${BASE_URL}/auth/login"; then
+    echo "Port ${PORT} is already in use; stop the running backend first" >&2
+    exit 1
+fi
+
+# ---------------- PREPARE ----------------
+
+rm -rf "${WORK_DIR}"
+mkdir -p "${WORK_DIR}"
+java -Djarmode=tools -jar "${JAR}" extract --destination "${WORK_DIR}/extracted" >/dev/null
+EXTRACTED="${WORK_DIR}/extracted/$(basename "${JAR}")"
+
+has_aot() {
+    unzip -l "${JAR}" | grep '__BeanDefinitions.class' >/dev/null
+}
+
+# Starts the context, exits once it is refreshed and dumps the classes it loaded
+train() {
+    local archive=$1
+    shift
+    java ${JAVA_OPTS} "$@" -XX:ArchiveClassesAtExit="${archive}" -Dspring.context.exit=onRefresh \
+        -Dserver.port="${PORT}" -jar "${EXTRACTED}" >"${archive}.log" 2>&1
+    [[ -f "${archive}" ]] || { echo "Training run failed, see ${archive}.log" >&2; exit 1; }
+}
+
+command_for() {
+    case $1 in
+        jar)       echo "-jar ${JAR}" ;;
+        extracted) echo "-jar ${EXTRACTED}" ;;
+        cds)       echo "-XX:SharedArchiveFile=${WORK_DIR}/app.jsa -jar ${EXTRACTED}" ;;
+        aot)       echo "-Dspring.aot.enabled=true -jar ${EXTRACTED}" ;;
+        aot-cds)   echo "-Dspring.aot.enabled=true -XX:SharedArchiveFile=${WORK_DIR}/app-aot.jsa -jar ${EXTRACTED}" ;;
+        *)         echo "Unknown mode: $1" >&2; exit 1 ;;
+    esac
+}
+
+for mode in ${MODES}; do
+    case ${mode} in
+        aot | aot-cds) has_aot || { echo "${JAR} has no AOT classes; build with -Paot" >&2; exit 1; } ;;
+    esac
+    case ${mode} in
+        cds)     train "${WORK_DIR}/app.jsa" ;;
+        aot-cds) train "${WORK_DIR}/app-aot.jsa" -Dspring.aot.enabled=true ;;
+    esac
+done
+
+# ---------------- MEASURE ----------------
+
+now_ms() {
+    date +%s%3N
+}
+
+# Prints "<ms to first 200 on /products> <RSS in MB>"
+run_once() {
+    local started pid token=${TOKEN} status rss
+    started=$(now_ms)
+    # shellcheck disable=SC2046
+    java ${JAVA_OPTS} $(command_for "$1") -Dserver.port="${PORT}" >"${WORK_DIR}/$1.log" 2>&1 &
+    pid=$!
+
+    while true; do
+        if ! kill -0 "${pid}" 2>/dev/null; then
+            echo "Backend exited, see ${WORK_DIR}/$1.log" >&2
+            exit 1
+        fi
+        if (( $(now_ms) - started > TIMEOUT_S * 1000 )); then
+            kill "${pid}"
+            echo "No successful /products within ${TIMEOUT_S}s" >&2
+            exit 1
+        fi
+        if [[ -z "${token}" ]]; then
+            token=$(curl -s -H 'Content-Type: application/json' \
+                -d "{\"username\":\"${POS_USERNAME}\",\"password\":\"${POS_PASSWORD}\"}" \
+                "${BASE_URL}/auth/login" | sed -n 's/.*"token":"\([^"]*\)".*/\1/p' || true)
+        fi
+        if [[ -n "${token}" ]]; then
+            status=$(curl -s -o /dev/null -w '%{http_code}' -H "Authorization: Bearer ${token}" "${BASE_URL}/products" || true)
+            [[ "${status}" == "200" ]] && break
+        fi
+        sleep 0.05
+    done
+
+    local elapsed=$(( $(now_ms) - started ))
+    rss=$(awk '/^VmRSS:/ { printf "%d", $2 / 1024 }' "/proc/${pid}/status")
+
+    kill "${pid}"
+    wait "${pid}" 2>/dev/null || true
+    echo "${elapsed} ${rss}"
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+printf '%-10s %8s %10s %8s\n' mode run first_ms rss_mb
+for mode in ${MODES}; do
+    run_once "${mode}" >/dev/null
+    : >"${WORK_DIR}/${mode}.results"
+    for run in $(seq 1 "${RUNS}"); do
+        result=$(run_once "${mode}")
+        read -r ms rss <<<"${result}"
+        echo "${ms} ${rss}" >>"${WORK_DIR}/${mode}.results"
+        printf '%-10s %8s %10s %8s\n' "${mode}" "${run}" "${ms}" "${rss}"
+    done
+    printf '%-10s %8s %10s %8s\n' "${mode}" median \
+        "$(cut -d' ' -f1 "${WORK_DIR}/${mode}.results" | median)" \
+        "$(cut -d' ' -f2 "${WORK_DIR}/${mode}.results" | median)"
+done
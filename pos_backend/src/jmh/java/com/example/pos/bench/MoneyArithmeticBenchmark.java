@@ -0,0 +1,137 @@
+package com.example.pos.bench;
+
+import com.example.pos.common.Money;
+import com.example.pos.common.Quantity;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkout line totals and report sums: BigDecimal chains against Money / Quantity.
+ * Inputs are scale-2 BigDecimals, as loaded from the numeric(38,2) columns, and
+ * each variant produces the BigDecimals the app needs (a line total per line).
+ *
+ * The setup fails the run unless both variants give equal totals, scale included,
+ * for every basket. Allocation per operation is the gc.alloc.rate.norm line of:
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="MoneyArithmeticBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyArithmeticBenchmark {
+
+    @Param({"10"})
+    public int linesPerBasket;
+
+    @Param({"1000"})
+    public int baskets;
+
+    private BigDecimal[][] prices;
+    private BigDecimal[][] quantities;
+    private BigDecimal[] saleTotals;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        prices = new BigDecimal[baskets][linesPerBasket];
+        quantities = new BigDecimal[baskets][linesPerBasket];
+        for (int b = 0; b < baskets; b++) {
+            for (int l = 0; l < linesPerBasket; l++) {
+                prices[b][l] = BigDecimal.valueOf(random.nextInt(50_000) + 1, 2);
+                // Half UNIT (whole numbers), half KG (10 g steps)
+                quantities[b][l] = random.nextBoolean()
+                        ? BigDecimal.valueOf(random.nextInt(5) + 1, 0).setScale(2)
+                        : BigDecimal.valueOf(random.nextInt(500) + 1, 2);
+            }
+        }
+
+        saleTotals = new BigDecimal[baskets];
+        for (int b = 0; b < baskets; b++) {
+            BigDecimal expected = basketBigDecimal(b, null);
+            BigDecimal actual = basketFixed(b, null);
+            if (!expected.equals(actual)) {
+                throw new IllegalStateException("Basket " + b + ": " + expected + " != " + actual);
+            }
+            saleTotals[b] = expected;
+        }
+        if (!sumBigDecimal().equals(sumFixed())) {
+            throw new IllegalStateException("Sums differ: " + sumBigDecimal() + " != " + sumFixed());
+        }
+        System.out.printf("%nTotals identical for %d baskets, sum %s%n", baskets, sumFixed());
+    }
+
+    // ---------------- CHECKOUT ----------------
+
+    @Benchmark
+    public BigDecimal checkoutBigDecimal(Blackhole bh) {
+        BigDecimal last = null;
+        for (int b = 0; b < baskets; b++) {
+            last = basketBigDecimal(b, bh);
+        }
+        return last;
+    }
+
+    @Benchmark
+    public BigDecimal checkoutFixed(Blackhole bh) {
+        BigDecimal last = null;
+        for (int b = 0; b < baskets; b++) {
+            last = basketFixed(b, bh);
+        }
+        return last;
+    }
+
+    // ---------------- REPORTS ----------------
+
+    @Benchmark
+    public BigDecimal sumBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal saleTotal : saleTotals) {
+            total = total.add(saleTotal);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal sumFixed() {
+        long total = 0;
+        for (BigDecimal saleTotal : saleTotals) {
+            total = Money.add(total, Money.of(saleTotal));
+        }
+        return Money.toDecimal(total);
+    }
+
+    // ---------------- VARIANTS ----------------
+
+    // As createSale did before Money
+    private BigDecimal basketBigDecimal(int b, Blackhole bh) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int l = 0; l < linesPerBasket; l++) {
+            BigDecimal lineTotal = prices[b][l].multiply(quantities[b][l]).setScale(2, RoundingMode.HALF_UP);
+            total = total.add(lineTotal);
+            if (bh != null) {
+                bh.consume(lineTotal);
+            }
+        }
+        return total;
+    }
+
+    private BigDecimal basketFixed(int b, Blackhole bh) {
+        long total = 0;
+        for (int l = 0; l < linesPerBasket; l++) {
+            long lineTotal = Money.times(Money.of(prices[b][l]), Quantity.of(quantities[b][l]));
+            total = Money.add(total, lineTotal);
+            if (bh != null) {
+                bh.consume(Money.toDecimal(lineTotal));
+            }
+        }
+        return Money.toDecimal(total);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.pos.bench;
+
+import com.example.pos.category.Category;
+import com.example.pos.common.Money;
+import com.example.pos.common.Quantity;
+import com.example.pos.product.Product;
+import com.example.pos.product.UnitType;
+import com.example.pos.promotion.Discount;
+import com.example.pos.promotion.Promotion;
+import com.example.pos.promotion.PromotionTable;
+import com.example.pos.promotion.PromotionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pricing a basket against many promotions: with the compiled PromotionTable
+ * that checkout and carts use, and with the rules compiled per basket, which
+ * is what scanning every active promotion at checkout amounts to. compile is
+ * what every promotion change costs.
+ *
+ * Promotions mix percent-off and multi-buy, product and category targets,
+ * and daily windows; the setup fails the run unless both variants discount
+ * every basket alike.
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="PromotionPricingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromotionPricingBenchmark {
+
+    @Param({"5000"})
+    public int promotionCount;
+
+    @Param({"100"})
+    public int linesPerBasket;
+
+    private static final int PRODUCTS = 20_000;
+    private static final int CATEGORIES = 200;
+
+    private List<Promotion> promotions;
+    private PromotionTable table;
+    private LocalDateTime at;
+
+    private Product[] products;
+    private long[] unitPrices;
+    private long[] quantities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        at = LocalDateTime.of(2026, 1, 15, 18, 30);
+
+        Category[] categories = new Category[CATEGORIES];
+        for (int c = 0; c < CATEGORIES; c++) {
+            categories[c] = Category.builder().id((long) c + 1).name("Category " + c).build();
+        }
+
+        promotions = new ArrayList<>(promotionCount);
+        for (int p = 0; p < promotionCount; p++) {
+            boolean multiBuy = random.nextInt(3) == 0;
+            boolean byCategory = random.nextInt(10) == 0;
+            boolean happyHour = random.nextInt(4) == 0;
+            int start = random.nextInt(24);
+            promotions.add(Promotion.builder()
+                    .id((long) p + 1)
+                    .name("Promotion " + p)
+                    .type(multiBuy ? PromotionType.MULTI_BUY : PromotionType.PERCENT_OFF)
+                    .productId(byCategory ? null : (long) random.nextInt(PRODUCTS) + 1)
+                    .categoryId(byCategory ? (long) random.nextInt(CATEGORIES) + 1 : null)
+                    .percent(multiBuy ? null : BigDecimal.valueOf(random.nextInt(5000) + 1, 2))
+                    .buyQuantity(multiBuy ? 3 : null)
+                    .payQuantity(multiBuy ? 2 : null)
+                    .startTime(happyHour ? LocalTime.of(start, 0) : null)
+                    .endTime(happyHour ? LocalTime.of((start + 3) % 24, 0) : null)
+                    .active(true)
+                    .build());
+        }
+        table = PromotionTable.compile(promotions, at);
+
+        products = new Product[linesPerBasket];
+        unitPrices = new long[linesPerBasket];
+        quantities = new long[linesPerBasket];
+        for (int l = 0; l < linesPerBasket; l++) {
+            boolean kg = random.nextInt(4) == 0;
+            products[l] = Product.builder()
+                    .id((long) random.nextInt(PRODUCTS) + 1)
+                    .name("Product " + l)
+                    .price(BigDecimal.valueOf(random.nextInt(50_000) + 1, 2))
+                    .category(categories[random.nextInt(CATEGORIES)])
+                    .unitType(kg ? UnitType.KG : UnitType.UNIT)
+                    .build();
+            unitPrices[l] = Money.of(products[l].getPrice());
+            quantities[l] = kg ? random.nextInt(500) + 1 : (random.nextInt(6) + 1) * Quantity.ONE;
+        }
+
+        long compiled = priceBasket();
+        long scanned = priceBasketScanning();
+        if (compiled != scanned) {
+            throw new IllegalStateException("Discounts differ: " + compiled + " != " + scanned);
+        }
+        System.out.printf("%nBasket of %d lines, %d rules, total discount %s%n",
+                linesPerBasket, table.size(), Money.toDecimal(compiled));
+    }
+
+    @Benchmark
+    public long priceBasket() {
+        return price(table);
+    }
+
+    @Benchmark
+    public long priceBasketScanning() {
+        return price(PromotionTable.compile(promotions, at));
+    }
+
+    @Benchmark
+    public PromotionTable compile() {
+        return PromotionTable.compile(promotions, at);
+    }
+
+    // Total discount of the basket, as SaleLine.of applies it line by line
+    private long price(PromotionTable promotions) {
+        long discount = 0;
+        for (int l = 0; l < linesPerBasket; l++) {
+            long gross = Money.times(unitPrices[l], quantities[l]);
+            Discount best = promotions.best(products[l], unitPrices[l], quantities[l], gross, at);
+            if (best != null) {
+                discount = Money.add(discount, best.cents());
+            }
+        }
+        return discount;
+    }
+}
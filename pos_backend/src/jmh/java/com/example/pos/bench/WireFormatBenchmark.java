@@ -0,0 +1,140 @@
+package com.example.pos.bench;
+
+import com.example.pos.category.Category;
+import com.example.pos.product.Product;
+import com.example.pos.product.UnitType;
+import com.example.pos.sale.dto.SaleItemResponseDTO;
+import com.example.pos.sale.dto.SaleResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization time of the catalog and of a 1,000-sale page per wire format.
+ * Payload sizes (plain and gzipped) are printed once per trial.
+ *
+ * Run with: mvn -Pbenchmark test-compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"5000"})
+    public int catalogSize;
+
+    private ObjectMapper mapper;
+    private List<Product> catalog;
+    private List<SaleResponseDTO> salesPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper = switch (format) {
+            case "cbor" -> CBORMapper.builder().build();
+            case "smile" -> SmileMapper.builder().build();
+            default -> JsonMapper.builder().build();
+        };
+        catalog = catalog(catalogSize);
+        salesPage = salesPage(1000);
+
+        byte[] catalogBytes = mapper.writeValueAsBytes(catalog);
+        byte[] salesBytes = mapper.writeValueAsBytes(salesPage);
+        System.out.printf("%n[%s] catalog(%d): %d bytes, %d gzipped | sales(1000): %d bytes, %d gzipped%n",
+                format, catalogSize,
+                catalogBytes.length, gzip(catalogBytes).length,
+                salesBytes.length, gzip(salesBytes).length);
+    }
+
+    @Benchmark
+    public byte[] catalog() {
+        return mapper.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public byte[] salesPage() {
+        return mapper.writeValueAsBytes(salesPage);
+    }
+
+    // ---------------- FIXTURES ----------------
+
+    private static List<Product> catalog(int size) {
+        List<Category> categories = new ArrayList<>();
+        for (long i = 1; i <= 50; i++) {
+            categories.add(new Category(i, "Category " + i));
+        }
+
+        List<Product> products = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            boolean byWeight = i % 7 == 0;
+            products.add(Product.builder()
+                    .id(i)
+                    .name("Product " + i)
+                    .price(BigDecimal.valueOf(100 + i * 37 % 9000, 2))
+                    .stock(BigDecimal.valueOf(i * 13 % 50000, 2))
+                    .category(categories.get((int) (i % categories.size())))
+                    .unitType(byWeight ? UnitType.KG : UnitType.UNIT)
+                    .build());
+        }
+        return products;
+    }
+
+    private static List<SaleResponseDTO> salesPage(int size) {
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 8, 0);
+
+        List<SaleResponseDTO> sales = new ArrayList<>(size);
+        for (long i = 1; i <= size; i++) {
+            List<SaleItemResponseDTO> items = new ArrayList<>();
+            BigDecimal total = BigDecimal.ZERO;
+            for (long line = 0; line < 1 + i % 5; line++) {
+                BigDecimal quantity = BigDecimal.valueOf(1 + line, 0);
+                BigDecimal unitPrice = BigDecimal.valueOf(150 + (i + line) * 11 % 4000, 2);
+                BigDecimal lineTotal = unitPrice.multiply(quantity);
+                total = total.add(lineTotal);
+                items.add(SaleItemResponseDTO.builder()
+                        .productId((i * 31 + line) % 5000 + 1)
+                        .productName("Product " + ((i * 31 + line) % 5000 + 1))
+                        .quantity(quantity)
+                        .unitPrice(unitPrice)
+                        .lineTotal(lineTotal)
+                        .build());
+            }
+            sales.add(SaleResponseDTO.builder()
+                    .id(i)
+                    .timestamp(start.plusMinutes(i))
+                    .totalAmount(total)
+                    .cashierUsername("cashier" + i % 8)
+                    .invoiceNumber("INV-" + Long.toHexString(0x10000000L + i * 7919).toUpperCase())
+                    .items(items)
+                    .build());
+        }
+        return sales;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.pos.admission;
+
+/** Endpoint classes with their own concurrency budget; checkout wins over reporting. */
+public enum AdmissionClass {
+    CHECKOUT,
+    REPORTING
+}
@@ -0,0 +1,140 @@
+package com.example.pos.admission;
+
+import com.example.pos.tracing.RequestTrace;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for @Admission endpoints, so a rush cannot pile requests
+ * onto the DB pool until they all time out together.
+ *
+ * Each class has its own limit and a short FIFO queue; a request that finds
+ * the queue full or waits too long gets 503 with Retry-After straight away.
+ * Checkout has priority: while any checkout request is queued, new reporting
+ * requests are shed without queueing.
+ */
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String HELD = AdmissionInterceptor.class.getName() + ".held";
+
+    private final Map<AdmissionClass, AdmissionLimiter> limiters = new EnumMap<>(AdmissionClass.class);
+    private final Map<AdmissionClass, Counter> rejected = new EnumMap<>(AdmissionClass.class);
+    private final Map<AdmissionClass, Timer> waits = new EnumMap<>(AdmissionClass.class);
+    private final JsonMapper jsonMapper;
+    private final boolean enabled;
+
+    public AdmissionInterceptor(JsonMapper jsonMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${admission.enabled:true}") boolean enabled,
+                                @Value("${admission.checkout.max-concurrent:8}") int checkoutConcurrent,
+                                @Value("${admission.checkout.max-queue:64}") int checkoutQueue,
+                                @Value("${admission.checkout.max-wait-ms:2000}") long checkoutWaitMs,
+                                @Value("${admission.checkout.retry-after-seconds:1}") int checkoutRetryAfter,
+                                @Value("${admission.reporting.max-concurrent:2}") int reportingConcurrent,
+                                @Value("${admission.reporting.max-queue:4}") int reportingQueue,
+                                @Value("${admission.reporting.max-wait-ms:500}") long reportingWaitMs,
+                                @Value("${admission.reporting.retry-after-seconds:5}") int reportingRetryAfter) {
+        this.jsonMapper = jsonMapper;
+        this.enabled = enabled;
+
+        limiters.put(AdmissionClass.CHECKOUT,
+                new AdmissionLimiter(checkoutConcurrent, checkoutQueue, checkoutWaitMs, checkoutRetryAfter));
+        limiters.put(AdmissionClass.REPORTING,
+                new AdmissionLimiter(reportingConcurrent, reportingQueue, reportingWaitMs, reportingRetryAfter));
+
+        limiters.forEach((admissionClass, limiter) -> {
+            String tag = admissionClass.name().toLowerCase();
+            Gauge.builder("pos.admission.queued", limiter, AdmissionLimiter::queued)
+                    .description("Requests waiting for admission")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            Gauge.builder("pos.admission.active", limiter, AdmissionLimiter::active)
+                    .description("Requests admitted and in progress")
+                    .tag("class", tag)
+                    .register(meterRegistry);
+            rejected.put(admissionClass, Counter.builder("pos.admission.rejected")
+                    .description("Requests turned away with 503")
+                    .tag("class", tag)
+                    .register(meterRegistry));
+            waits.put(admissionClass, Timer.builder("pos.admission.wait")
+                    .description("Time spent waiting for admission")
+                    .tag("class", tag)
+                    .register(meterRegistry));
+        });
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+
+        if (!enabled || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        Admission admission = method.getMethodAnnotation(Admission.class);
+        if (admission == null) {
+            return true;
+        }
+
+        AdmissionClass admissionClass = admission.value();
+        AdmissionLimiter limiter = limiters.get(admissionClass);
+
+        boolean admitted = false;
+        if (admissionClass != AdmissionClass.REPORTING || limiters.get(AdmissionClass.CHECKOUT).queued() == 0) {
+            long started = System.nanoTime();
+            try {
+                admitted = limiter.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            long waited = System.nanoTime() - started;
+            waits.get(admissionClass).record(waited, TimeUnit.NANOSECONDS);
+            RequestTrace.record("admission", waited);
+        }
+
+        if (!admitted) {
+            rejected.get(admissionClass).increment();
+            reject(response, limiter.getRetryAfterSeconds());
+            return false;
+        }
+        request.setAttribute(HELD, limiter);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(HELD) instanceof AdmissionLimiter limiter) {
+            request.removeAttribute(HELD);
+            limiter.release();
+        }
+    }
+
+    // Same body shape as GlobalExceptionHandler
+    private void reject(HttpServletResponse response, int retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonMapper.writeValue(response.getOutputStream(), Map.of(
+                "timestamp", LocalDateTime.now(),
+                "status", HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "error", "Server busy, please retry"
+        ));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.pos.admission;
+
+import lombok.Getter;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bulkhead: at most maxConcurrent requests inside, at most maxQueue waiting
+ * (FIFO) for up to maxWaitMs. Anything beyond that is turned away at once.
+ */
+public class AdmissionLimiter {
+
+    @Getter private final int maxConcurrent;
+    @Getter private final int retryAfterSeconds;
+    private final int maxQueue;
+    private final long maxWaitMs;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public AdmissionLimiter(int maxConcurrent, int maxQueue, long maxWaitMs, int retryAfterSeconds) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.maxWaitMs = maxWaitMs;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /** True once a permit is held (release it); false if full or the wait timed out. */
+    public boolean acquire() throws InterruptedException {
+
+        // Fair semaphore: a zero-timeout tryAcquire still lines up behind earlier waiters
+        if (permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int queued() {
+        return queued.get();
+    }
+
+    public int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
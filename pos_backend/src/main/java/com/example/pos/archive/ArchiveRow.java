@@ -0,0 +1,14 @@
+package com.example.pos.archive;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record ArchiveRow(
+        Long saleId,
+        Long storeId,
+        LocalDateTime timestamp,
+        Long productId,
+        BigDecimal quantity,
+        BigDecimal amount
+) {
+}
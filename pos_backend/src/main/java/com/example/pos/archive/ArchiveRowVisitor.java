@@ -0,0 +1,11 @@
+package com.example.pos.archive;
+
+/**
+ * Receives archived sale lines as primitives, straight from the mapped segment.
+ * Quantity and amount are unscaled values at {@link ArchiveSegment#SCALE}.
+ */
+@FunctionalInterface
+public interface ArchiveRowVisitor {
+
+    void visit(long saleId, long epochSecond, long productId, long quantity, long amount);
+}
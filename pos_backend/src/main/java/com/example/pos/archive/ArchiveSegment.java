@@ -0,0 +1,250 @@
+package com.example.pos.archive;
+
+import com.example.pos.store.Store;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * One closed month of sale lines, stored column by column.
+ *
+ * Layout (little endian):
+ * <pre>
+ *   header  : magic(int) version(int) rowCount(int) yearMonth(int, yyyyMM)
+ *             minEpochSecond(long) maxEpochSecond(long)
+ *   columns : epochSecond[rowCount] saleId[rowCount] productId[rowCount]
+ *             quantity[rowCount] amount[rowCount] storeId[rowCount]   (all longs)
+ * </pre>
+ * Version 1 segments, written before stores existed, have no storeId column;
+ * all their rows belong to the default store.
+ * Rows are sorted by timestamp, then sale id. Timestamps are the sale's local
+ * date-time encoded as UTC epoch seconds, matching the DB column (no zone).
+ * Quantity and amount are unscaled at {@link #SCALE}, like the numeric(38,2) columns.
+ */
+public final class ArchiveSegment {
+
+    public static final int SCALE = 2;
+
+    private static final int MAGIC = 0x50534131; // "PSA1"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+
+    private static final int COL_TIMESTAMP = 0;
+    private static final int COL_SALE = 1;
+    private static final int COL_PRODUCT = 2;
+    private static final int COL_QUANTITY = 3;
+    private static final int COL_AMOUNT = 4;
+    private static final int COL_STORE = 5;
+
+    @Getter private final Path path;
+    @Getter private final YearMonth month;
+    @Getter private final int rowCount;
+    @Getter private final long minEpochSecond;
+    @Getter private final long maxEpochSecond;
+    private final boolean hasStores;
+    private final MappedByteBuffer buffer;
+
+    private ArchiveSegment(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+
+        int version = buffer.getInt(4);
+        if (buffer.getInt(0) != MAGIC || version < 1 || version > VERSION) {
+            throw new IllegalStateException("Not a sale archive segment: " + path);
+        }
+        this.hasStores = version >= 2;
+        this.rowCount = buffer.getInt(8);
+        int yyyyMM = buffer.getInt(12);
+        this.month = YearMonth.of(yyyyMM / 100, yyyyMM % 100);
+        this.minEpochSecond = buffer.getLong(16);
+        this.maxEpochSecond = buffer.getLong(24);
+
+        int columns = hasStores ? COL_STORE + 1 : COL_STORE;
+        if (buffer.capacity() != HEADER_BYTES + (long) columns * rowCount * Long.BYTES) {
+            throw new IllegalStateException("Truncated sale archive segment: " + path);
+        }
+    }
+
+    // ---------------- OPEN / WRITE ----------------
+
+    public static ArchiveSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Sale archive segment over 2 GB, cannot be mapped: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return new ArchiveSegment(path, buffer);
+        }
+    }
+
+    public static ArchiveSegment write(Path path, YearMonth month, List<ArchiveRow> rows) throws IOException {
+        return write(path, month, rows.size(), rows.iterator());
+    }
+
+    /**
+     * Writes rowCount rows (already sorted by timestamp, sale id) to a temp file
+     * and moves it into place atomically, so readers never see a partial segment.
+     * The rows are consumed once, straight into a mapping of the file, so a
+     * month never has to fit on the heap.
+     */
+    public static ArchiveSegment write(Path path, YearMonth month, int rowCount, Iterator<ArchiveRow> rows) throws IOException {
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes(rowCount));
+            out.order(ByteOrder.LITTLE_ENDIAN);
+
+            long min = 0;
+            long max = 0;
+            int n = 0;
+            while (rows.hasNext()) {
+                if (n == rowCount) {
+                    throw new IllegalStateException("More than " + rowCount + " sale lines for " + month);
+                }
+                ArchiveRow row = rows.next();
+                long ts = epochSecond(row.timestamp());
+                if (n == 0) {
+                    min = ts;
+                }
+                max = ts;
+
+                put(out, rowCount, COL_TIMESTAMP, n, ts);
+                put(out, rowCount, COL_SALE, n, row.saleId());
+                put(out, rowCount, COL_PRODUCT, n, row.productId());
+                put(out, rowCount, COL_QUANTITY, n, unscaled(row.quantity()));
+                put(out, rowCount, COL_AMOUNT, n, unscaled(row.amount()));
+                put(out, rowCount, COL_STORE, n, row.storeId());
+                n++;
+            }
+            if (n != rowCount) {
+                throw new IllegalStateException("Expected " + rowCount + " sale lines for " + month + ", got " + n);
+            }
+
+            out.putInt(0, MAGIC)
+                    .putInt(4, VERSION)
+                    .putInt(8, rowCount)
+                    .putInt(12, month.getYear() * 100 + month.getMonthValue())
+                    .putLong(16, min)
+                    .putLong(24, max);
+            out.force();
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(tmp);
+            throw ex;
+        }
+        Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE);
+
+        return open(path);
+    }
+
+    // ---------------- READ ----------------
+
+    public boolean overlaps(long fromEpochSecond, long toEpochSecondExclusive) {
+        return rowCount > 0
+                && minEpochSecond < toEpochSecondExclusive
+                && maxEpochSecond >= fromEpochSecond;
+    }
+
+    /** Visits the store's rows with fromEpochSecond &lt;= timestamp &lt; toEpochSecondExclusive. */
+    public void scan(long storeId, long fromEpochSecond, long toEpochSecondExclusive, ArchiveRowVisitor visitor) {
+
+        if (!overlaps(fromEpochSecond, toEpochSecondExclusive)) {
+            return;
+        }
+        if (!hasStores && storeId != Store.DEFAULT_ID) {
+            return;
+        }
+
+        for (int row = firstRowAtOrAfter(fromEpochSecond); row < rowCount; row++) {
+            long ts = get(COL_TIMESTAMP, row);
+            if (ts >= toEpochSecondExclusive) {
+                break;
+            }
+            if (hasStores && get(COL_STORE, row) != storeId) {
+                continue;
+            }
+            visitor.visit(
+                    get(COL_SALE, row),
+                    ts,
+                    get(COL_PRODUCT, row),
+                    get(COL_QUANTITY, row),
+                    get(COL_AMOUNT, row)
+            );
+        }
+    }
+
+    private int firstRowAtOrAfter(long epochSecond) {
+        int lo = 0;
+        int hi = rowCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (get(COL_TIMESTAMP, mid) < epochSecond) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Fits in an int: the constructor checked the columns against the mapped capacity
+    private long get(int column, int row) {
+        return buffer.getLong((int) (HEADER_BYTES + ((long) column * rowCount + row) * Long.BYTES));
+    }
+
+    // ---------------- HELPERS ----------------
+
+    // Same offsets as get; bytes(rowCount) already bounded them to an int
+    private static void put(ByteBuffer out, int rowCount, int column, int row, long value) {
+        out.putLong((int) (HEADER_BYTES + ((long) column * rowCount + row) * Long.BYTES), value);
+    }
+
+    /** Size of a segment of rowCount rows; a buffer, and so a segment, holds at most 2 GB. */
+    static int bytes(int rowCount) {
+        long bytes = HEADER_BYTES + (long) (COL_STORE + 1) * rowCount * Long.BYTES;
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException(
+                    "Too many rows for one sale archive segment: " + rowCount + " (" + bytes + " bytes)");
+        }
+        return (int) bytes;
+    }
+
+    public static long epochSecond(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    public static BigDecimal toDecimal(long unscaled) {
+        return BigDecimal.valueOf(unscaled, SCALE);
+    }
+
+    private static long unscaled(BigDecimal value) {
+        if (value == null) {
+            return 0;
+        }
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.pos.archive;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registry of archived months. Segments are memory-mapped once at startup
+ * (or when the archive job writes them) and stay mapped for the process lifetime.
+ */
+@Slf4j
+@Component
+public class SaleArchive {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final Path directory;
+    private final List<ArchiveSegment> segments = new CopyOnWriteArrayList<>();
+
+    public SaleArchive(@Value("${archive.dir:archive}") String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    @PostConstruct
+    void load() throws IOException {
+        Files.createDirectories(directory);
+
+        List<ArchiveSegment> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "sales-*.seg")) {
+            for (Path file : files) {
+                loaded.add(ArchiveSegment.open(file));
+            }
+        }
+        loaded.sort(Comparator.comparing(ArchiveSegment::getMonth));
+        segments.addAll(loaded);
+
+        log.info("Loaded {} sale archive segments from {}", loaded.size(), directory.toAbsolutePath());
+    }
+
+    // ---------------- READ ----------------
+
+    /** Visits the store's archived lines with from &lt;= timestamp &lt; to, skipping segments outside the range. */
+    public void scan(long storeId, LocalDateTime from, LocalDateTime to, ArchiveRowVisitor visitor) {
+        long fromSecond = ArchiveSegment.epochSecond(from);
+        long toSecond = ArchiveSegment.epochSecond(to);
+
+        for (ArchiveSegment segment : segments) {
+            segment.scan(storeId, fromSecond, toSecond, visitor);
+        }
+    }
+
+    public void scanAll(long storeId, ArchiveRowVisitor visitor) {
+        for (ArchiveSegment segment : segments) {
+            segment.scan(storeId, Long.MIN_VALUE, Long.MAX_VALUE, visitor);
+        }
+    }
+
+    /**
+     * Months are archived for all stores at once, so this is one boundary for every store.
+     * Everything before this instant is served from the archive; the hot tables
+     * are only read from here on. Rows left behind for an archived month (e.g.
+     * the job died before committing its delete) are therefore never counted twice.
+     */
+    public LocalDateTime archivedUntil() {
+        if (segments.isEmpty()) {
+            return EPOCH;
+        }
+        return segments.get(segments.size() - 1)
+                .getMonth()
+                .plusMonths(1)
+                .atDay(1)
+                .atStartOfDay();
+    }
+
+    public Optional<ArchiveSegment> find(YearMonth month) {
+        return segments.stream()
+                .filter(s -> s.getMonth().equals(month))
+                .findFirst();
+    }
+
+    // ---------------- WRITE ----------------
+
+    ArchiveSegment append(YearMonth month, int rowCount, Iterator<ArchiveRow> rows) throws IOException {
+        if (find(month).isPresent()) {
+            throw new IllegalStateException("Month already archived: " + month);
+        }
+
+        ArchiveSegment segment = ArchiveSegment.write(directory.resolve("sales-" + month + ".seg"), month, rowCount, rows);
+        segments.add(segment);
+        segments.sort(Comparator.comparing(ArchiveSegment::getMonth));
+        return segment;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.pos.archive;
+
+import com.example.pos.sale.SaleRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+@Slf4j
+@Component
+public class SaleArchiveJob {
+
+    private final SaleArchiveService saleArchiveService;
+    private final SaleRepository saleRepository;
+    private final boolean enabled;
+    private final int retentionMonths;
+
+    public SaleArchiveJob(SaleArchiveService saleArchiveService,
+                          SaleRepository saleRepository,
+                          @Value("${archive.enabled:false}") boolean enabled,
+                          @Value("${archive.retention-months:12}") int retentionMonths) {
+        this.saleArchiveService = saleArchiveService;
+        this.saleRepository = saleRepository;
+        this.enabled = enabled;
+        this.retentionMonths = retentionMonths;
+    }
+
+    // Oldest month first, so the archive always covers one contiguous prefix of history
+    @Scheduled(cron = "${archive.cron:0 30 2 * * *}")
+    public void archiveClosedMonths() {
+
+        if (!enabled) {
+            return;
+        }
+
+        LocalDateTime earliest = saleRepository.findEarliestTimestamp();
+        if (earliest == null) {
+            return;
+        }
+
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+
+        for (YearMonth month = YearMonth.from(earliest); month.isBefore(cutoff); month = month.plusMonths(1)) {
+            try {
+                saleArchiveService.archiveMonth(month);
+            } catch (IOException | RuntimeException ex) {
+                log.error("Archiving {} failed, will retry on the next run", month, ex);
+                return;
+            }
+        }
+    }
+}
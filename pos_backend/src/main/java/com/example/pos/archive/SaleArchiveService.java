@@ -0,0 +1,62 @@
+package com.example.pos.archive;
+
+import com.example.pos.sale.ReceiptStore;
+import com.example.pos.sale.SaleItemRepository;
+import com.example.pos.sale.SaleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class SaleArchiveService {
+
+    private final SaleArchive saleArchive;
+    private final SaleRepository saleRepository;
+    private final SaleItemRepository saleItemRepository;
+    private final ReceiptStore receiptStore;
+
+    /**
+     * Moves one closed month out of sale / sale_item into a segment file,
+     * streaming the lines from the database into the segment.
+     * The segment is written first; if the delete then fails, the month is
+     * already behind {@link SaleArchive#archivedUntil()} and the leftovers are
+     * purged on the next run. The stored receipts of the purged sales are
+     * deleted once the purge commits.
+     */
+    public void archiveMonth(YearMonth month) throws IOException {
+
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+
+        if (saleArchive.find(month).isEmpty()) {
+            // Past the int range bytes() refuses the segment with a clear error
+            int count = (int) Math.min(saleItemRepository.countArchiveRows(from, to), Integer.MAX_VALUE);
+            try (Stream<ArchiveRow> rows = saleItemRepository.streamArchiveRows(from, to)) {
+                saleArchive.append(month, count, rows.iterator());
+            }
+            log.info("Archived {} sale lines for {}", count, month);
+        }
+
+        int items = saleItemRepository.deleteBySaleTimestampRange(from, to);
+        int sales = saleRepository.deleteInRange(from, to);
+        log.info("Purged {} sales / {} sale lines for {} from hot tables", sales, items, month);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                log.info("Deleted {} receipt files for {}", receiptStore.pruneBefore(to), month);
+            }
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.pos.audit;
+
+/**
+ * What an audit record says happened. The code is what the journal stores,
+ * so codes are never reused or renumbered; the meaning of a record's value
+ * depends on the action.
+ */
+public enum AuditAction {
+
+    // value: sale total in cents
+    SALE_COMPLETED(1, AuditEntity.SALE),
+
+    // value: the product's price in cents after the change
+    PRODUCT_CREATED(10, AuditEntity.PRODUCT),
+    PRODUCT_UPDATED(11, AuditEntity.PRODUCT),
+    // value: 0
+    PRODUCT_DELETED(12, AuditEntity.PRODUCT),
+    // value: the product's new price in cents; one record per product of a bulk change by ids
+    PRODUCT_PRICES_ADJUSTED(13, AuditEntity.PRODUCT),
+
+    // value: how many of the category's products were repriced
+    CATEGORY_PRICES_ADJUSTED(30, AuditEntity.CATEGORY),
+
+    // value: 0
+    USER_CREATED(20, AuditEntity.USER),
+    USER_UPDATED(21, AuditEntity.USER),
+    USER_DELETED(22, AuditEntity.USER);
+
+    private static final AuditAction[] BY_CODE = new AuditAction[64];
+
+    static {
+        for (AuditAction action : values()) {
+            BY_CODE[action.code] = action;
+        }
+    }
+
+    private final short code;
+    private final AuditEntity entity;
+
+    AuditAction(int code, AuditEntity entity) {
+        this.code = (short) code;
+        this.entity = entity;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    public AuditEntity entity() {
+        return entity;
+    }
+
+    /** Null for a code this version does not know. */
+    public static AuditAction ofCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
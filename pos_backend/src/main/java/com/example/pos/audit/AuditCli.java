@@ -0,0 +1,78 @@
+package com.example.pos.audit;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Locale;
+
+/**
+ * Prints the records of an audit journal directory, tab separated, oldest first.
+ * Needs no database and no running app:
+ *
+ *   java -cp target/classes com.example.pos.audit.AuditCli --dir audit \
+ *        --from 2026-10-01 --to 2026-10-02T12:00 --user admin --entity PRODUCT --id 42
+ *
+ * All options are optional; --from is inclusive, --to exclusive, and a bare
+ * date means its midnight (server time zone).
+ */
+public final class AuditCli {
+
+    private AuditCli() {
+    }
+
+    public static void main(String[] args) throws IOException {
+
+        Path directory = Path.of("audit");
+        Long from = null;
+        Long to = null;
+        String user = null;
+        AuditEntity entity = null;
+        Long entityId = null;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (i + 1 == args.length) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--dir" -> directory = Path.of(value);
+                    case "--from" -> from = epochMillis(value);
+                    case "--to" -> to = epochMillis(value);
+                    case "--user" -> user = value;
+                    case "--entity" -> entity = AuditEntity.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "--id" -> entityId = Long.parseLong(value);
+                    default -> throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+        } catch (RuntimeException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println("Usage: AuditCli [--dir DIR] [--from DATE[TIME]] [--to DATE[TIME]]"
+                    + " [--user NAME] [--entity SALE|PRODUCT|CATEGORY|USER] [--id ID]");
+            System.exit(2);
+            return;
+        }
+
+        PrintStream out = System.out;
+        out.println("sequence\ttime\tuser\tstore\taction\tentity_id\tvalue");
+        AuditJournalReader.read(directory, new AuditFilter(from, to, user, entity, entityId), record ->
+                out.println(record.sequence()
+                        + "\t" + record.time()
+                        + "\t" + record.user()
+                        + "\t" + record.storeId()
+                        + "\t" + (record.action() != null ? record.action() : "UNKNOWN(" + record.actionCode() + ")")
+                        + "\t" + record.entityId()
+                        + "\t" + record.value()));
+    }
+
+    private static long epochMillis(String value) {
+        LocalDateTime time = value.contains("T")
+                ? LocalDateTime.parse(value)
+                : LocalDate.parse(value).atStartOfDay();
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
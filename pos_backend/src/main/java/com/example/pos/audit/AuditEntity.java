@@ -0,0 +1,5 @@
+package com.example.pos.audit;
+
+public enum AuditEntity {
+    SALE, PRODUCT, CATEGORY, USER
+}
@@ -0,0 +1,44 @@
+package com.example.pos.audit;
+
+import com.example.pos.common.Money;
+import com.example.pos.event.SaleCompletedEvent;
+import com.example.pos.store.StoreContext;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.ZoneId;
+
+/**
+ * A change to audit, published inside the transaction that makes it. The
+ * AuditJournal only appends it once that transaction has committed.
+ */
+public record AuditEvent(AuditAction action, long entityId, long value,
+                         String user, long storeId, long timestampMillis) {
+
+    public static final String SYSTEM = "system";
+
+    /** By the current request's user and store, now. */
+    public static AuditEvent of(AuditAction action, long entityId, long value) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String user = authentication != null ? authentication.getName() : SYSTEM;
+        return new AuditEvent(action, entityId, value, user, StoreContext.currentId(), System.currentTimeMillis());
+    }
+
+    /** With an amount as its value, in cents (see Money), rounded half up. */
+    public static AuditEvent of(AuditAction action, long entityId, BigDecimal amount) {
+        return of(action, entityId, amount == null ? 0 : Money.of(amount.setScale(Money.SCALE, RoundingMode.HALF_UP)));
+    }
+
+    static AuditEvent sale(SaleCompletedEvent sale) {
+        return new AuditEvent(
+                AuditAction.SALE_COMPLETED,
+                sale.saleId(),
+                Money.of(sale.totalAmount()),
+                sale.cashier(),
+                sale.storeId(),
+                sale.timestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+        );
+    }
+}
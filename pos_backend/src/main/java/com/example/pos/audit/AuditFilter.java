@@ -0,0 +1,26 @@
+package com.example.pos.audit;
+
+/**
+ * Which records to read; null fields match everything.
+ * fromMillis is inclusive, toMillis exclusive (epoch milliseconds).
+ */
+public record AuditFilter(Long fromMillis, Long toMillis, String user, AuditEntity entity, Long entityId) {
+
+    public static final AuditFilter ALL = new AuditFilter(null, null, null, null, null);
+
+    public boolean matches(AuditRecord record) {
+        if (fromMillis != null && record.timestampMillis() < fromMillis) {
+            return false;
+        }
+        if (toMillis != null && record.timestampMillis() >= toMillis) {
+            return false;
+        }
+        if (user != null && !user.equals(record.user())) {
+            return false;
+        }
+        if (entity != null && (record.action() == null || record.action().entity() != entity)) {
+            return false;
+        }
+        return entityId == null || entityId == record.entityId();
+    }
+}
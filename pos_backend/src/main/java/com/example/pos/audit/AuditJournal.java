@@ -0,0 +1,203 @@
+package com.example.pos.audit;
+
+import com.example.pos.event.SaleCompletedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only audit trail of sales and catalog/user administration, kept in
+ * memory-mapped segment files (AuditSegment) rather than in the database.
+ *
+ * Committed AuditEvents go on a bounded queue; the committing thread pays
+ * for an offer and nothing else. One writer thread appends them in batches
+ * and forces them to disk once audit.fsync-batch records are pending or the
+ * oldest pending one is audit.fsync-interval-ms old, so a crash loses at
+ * most that window. A full queue blocks for at most audit.offer-timeout-ms,
+ * then the record is dropped and counted (pos.audit.dropped).
+ *
+ * A segment holds audit.segment-records records; the writer rolls to a new
+ * file when it is full. Each instance writes its own directory (audit.dir);
+ * read them with AuditCli.
+ */
+@Slf4j
+@Component
+public class AuditJournal {
+
+    private final Path directory;
+    private final boolean enabled;
+    private final int segmentRecords;
+    private final int fsyncBatch;
+    private final long fsyncIntervalMs;
+    private final long offerTimeoutMs;
+
+    private final BlockingQueue<AuditEvent> queue;
+    private final Counter written;
+    private final Counter dropped;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    // Writer thread only (and start(), before it runs)
+    private AuditSegment segment;
+    private int unforced;
+    private long oldestUnforcedAt;
+
+    public AuditJournal(MeterRegistry meterRegistry,
+                        @Value("${audit.dir:audit}") String directory,
+                        @Value("${audit.enabled:true}") boolean enabled,
+                        @Value("${audit.segment-records:500000}") int segmentRecords,
+                        @Value("${audit.queue-capacity:65536}") int queueCapacity,
+                        @Value("${audit.fsync-batch:1000}") int fsyncBatch,
+                        @Value("${audit.fsync-interval-ms:1000}") long fsyncIntervalMs,
+                        @Value("${audit.offer-timeout-ms:5}") long offerTimeoutMs) {
+        this.directory = Path.of(directory);
+        this.enabled = enabled;
+        this.segmentRecords = segmentRecords;
+        this.fsyncBatch = fsyncBatch;
+        this.fsyncIntervalMs = fsyncIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.written = Counter.builder("pos.audit.records")
+                .description("Audit records appended to the journal")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("pos.audit.dropped")
+                .description("Audit records lost to a full queue or a write failure")
+                .register(meterRegistry);
+        Gauge.builder("pos.audit.queue", queue, BlockingQueue::size)
+                .description("Audit records waiting to be appended")
+                .register(meterRegistry);
+
+        this.worker = new Thread(this::run, "audit-journal");
+        this.worker.setDaemon(true);
+    }
+
+    // Resumes the newest segment after its last valid record
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+
+        List<Path> segments = AuditJournalReader.segments(directory);
+        segment = segments.isEmpty()
+                ? AuditSegment.create(directory, 1, System.currentTimeMillis(), segmentRecords)
+                : AuditSegment.openForAppend(segments.get(segments.size() - 1));
+
+        log.info("Audit journal in {} continues at record {}", directory.toAbsolutePath(), segment.nextSequence());
+        worker.start();
+    }
+
+    // Lets the writer drain the queue and force what it wrote
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.join(5000);
+    }
+
+    // ---------------- PUBLISH ----------------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAudit(AuditEvent event) {
+        append(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSaleCompleted(SaleCompletedEvent sale) {
+        append(AuditEvent.sale(sale));
+    }
+
+    private void append(AuditEvent event) {
+        if (!enabled || !running) {
+            return;
+        }
+        try {
+            if (queue.offer(event, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.increment();
+    }
+
+    // ---------------- WRITER ----------------
+
+    private void run() {
+        ArrayDeque<AuditEvent> batch = new ArrayDeque<>();
+
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEvent first = queue.poll(pollMs(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch);
+                    write(batch);
+                }
+                if (unforced >= fsyncBatch
+                        || (unforced > 0 && System.currentTimeMillis() - oldestUnforcedAt >= fsyncIntervalMs)) {
+                    force();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (IOException | RuntimeException ex) {
+                log.error("Audit journal write failed, dropping {} unwritten records", batch.size(), ex);
+                dropped.increment(batch.size());
+                batch.clear();
+            }
+        }
+        force();
+    }
+
+    // Takes each event off the batch once it is in the mapping
+    private void write(ArrayDeque<AuditEvent> batch) throws IOException {
+        while (!batch.isEmpty()) {
+            if (segment.isFull()) {
+                roll();
+            }
+            AuditEvent event = batch.poll();
+            segment.append(event.timestampMillis(), event.action(), event.entityId(),
+                    event.storeId(), event.value(), event.user());
+            written.increment();
+            if (unforced++ == 0) {
+                oldestUnforcedAt = System.currentTimeMillis();
+            }
+        }
+    }
+
+    private void roll() throws IOException {
+        force();
+        segment = AuditSegment.create(directory, segment.nextSequence(), System.currentTimeMillis(), segmentRecords);
+        log.info("Audit journal rolled to {}", segment.getPath().getFileName());
+    }
+
+    private void force() {
+        segment.force();
+        unforced = 0;
+    }
+
+    // Wakes up in time for the interval fsync of what is pending
+    private long pollMs() {
+        if (unforced == 0) {
+            return 200;
+        }
+        return Math.max(0, oldestUnforcedAt + fsyncIntervalMs - System.currentTimeMillis());
+    }
+}
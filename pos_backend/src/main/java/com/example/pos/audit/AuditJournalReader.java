@@ -0,0 +1,54 @@
+package com.example.pos.audit;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads a journal directory in sequence order. Only needs the files, so it
+ * works on a live journal, on a copy, and from AuditCli without the app.
+ */
+public final class AuditJournalReader {
+
+    private AuditJournalReader() {
+    }
+
+    /** Segment files sorted by first sequence (the zero-padded file names sort that way). */
+    public static List<Path> segments(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "audit-*.jnl")) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    public static void read(Path directory, AuditFilter filter, Consumer<AuditRecord> consumer) throws IOException {
+
+        List<Path> files = segments(directory);
+        AuditSegment next = files.isEmpty() ? null : AuditSegment.openForRead(files.get(0));
+
+        for (int i = 0; next != null; i++) {
+            AuditSegment segment = next;
+            next = i + 1 < files.size() ? AuditSegment.openForRead(files.get(i + 1)) : null;
+
+            // Everything in a segment was queued before the next one was created,
+            // so a segment ends (in time) where its successor starts
+            if (next != null && filter.fromMillis() != null && next.getCreatedMillis() < filter.fromMillis()) {
+                continue;
+            }
+            segment.forEach(record -> {
+                if (filter.matches(record)) {
+                    consumer.accept(record);
+                }
+            });
+        }
+    }
+}
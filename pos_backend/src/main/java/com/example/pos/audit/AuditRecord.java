@@ -0,0 +1,14 @@
+package com.example.pos.audit;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/** One decoded journal record; action is null for a code this version does not know. */
+public record AuditRecord(long sequence, long timestampMillis, AuditAction action, int actionCode,
+                          long entityId, long storeId, long value, String user) {
+
+    public LocalDateTime time() {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.pos.audit;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * One preallocated, memory-mapped file of fixed-size audit records.
+ *
+ * Layout (little endian):
+ * <pre>
+ *   header : magic(int) version(int) recordBytes(int) capacity(int)
+ *            firstSequence(long) createdMillis(long)
+ *   record : sequence(long) timestampMillis(long) entityId(long) storeId(long)
+ *            value(long) action(short) userLength(byte) reserved(byte)
+ *            crc32c(int) user(48 bytes, UTF-8)
+ * </pre>
+ * Record i holds sequence firstSequence + i. A record counts only when its
+ * sequence and checksum match, so the zeroed tail of the file and a record
+ * torn by a crash both end the segment; the writer resumes over them.
+ * Usernames longer than 48 bytes are truncated.
+ */
+public final class AuditSegment {
+
+    public static final int RECORD_BYTES = 96;
+
+    static final int MAX_USER_BYTES = 48;
+
+    private static final int MAGIC = 0x50414A31; // "PAJ1"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int CRC_OFFSET = 44;
+    private static final int USER_OFFSET = 48;
+
+    @Getter private final Path path;
+    @Getter private final long firstSequence;
+    @Getter private final long createdMillis;
+    @Getter private final int capacity;
+    private final MappedByteBuffer buffer;
+
+    // Valid records; for the writer, also the next free slot
+    @Getter private int count;
+    private int forcedCount;
+
+    // Writer thread only
+    private final ByteBuffer scratch = ByteBuffer.allocate(RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C crc = new CRC32C();
+
+    private AuditSegment(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+
+        if (buffer.capacity() < HEADER_BYTES
+                || buffer.getInt(0) != MAGIC
+                || buffer.getInt(4) != VERSION
+                || buffer.getInt(8) != RECORD_BYTES) {
+            throw new IllegalStateException("Not an audit journal segment: " + path);
+        }
+        this.capacity = buffer.getInt(12);
+        this.firstSequence = buffer.getLong(16);
+        this.createdMillis = buffer.getLong(24);
+        if (buffer.capacity() != HEADER_BYTES + (long) capacity * RECORD_BYTES) {
+            throw new IllegalStateException("Truncated audit journal segment: " + path);
+        }
+
+        while (count < capacity && valid(count)) {
+            count++;
+        }
+        this.forcedCount = count;
+    }
+
+    // ---------------- OPEN / CREATE ----------------
+
+    public static String fileName(long firstSequence) {
+        return String.format("audit-%020d.jnl", firstSequence);
+    }
+
+    /**
+     * Creates the zero-filled file under a temp name and moves it into place
+     * atomically, so a segment on disk always has its header.
+     */
+    static AuditSegment create(Path directory, long firstSequence, long createdMillis, int capacity) throws IOException {
+
+        Path path = directory.resolve(fileName(firstSequence));
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        long size = HEADER_BYTES + (long) capacity * RECORD_BYTES;
+
+        try (FileChannel channel = FileChannel.open(tmp,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            header.order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(RECORD_BYTES)
+                    .putInt(capacity)
+                    .putLong(firstSequence)
+                    .putLong(createdMillis);
+            header.force();
+        }
+        Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE);
+
+        return openForAppend(path);
+    }
+
+    static AuditSegment openForAppend(Path path) throws IOException {
+        return open(path, FileChannel.MapMode.READ_WRITE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /** A snapshot of the records written so far; safe while the journal appends to the same file. */
+    public static AuditSegment openForRead(Path path) throws IOException {
+        return open(path, FileChannel.MapMode.READ_ONLY, StandardOpenOption.READ);
+    }
+
+    private static AuditSegment open(Path path, FileChannel.MapMode mode, StandardOpenOption... options) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            MappedByteBuffer buffer = channel.map(mode, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return new AuditSegment(path, buffer);
+        }
+    }
+
+    // ---------------- WRITE ----------------
+
+    public boolean isFull() {
+        return count == capacity;
+    }
+
+    public long nextSequence() {
+        return firstSequence + count;
+    }
+
+    /** Writes the next record into the mapping; durable only after force(). */
+    void append(long timestampMillis, AuditAction action, long entityId, long storeId, long value, String user) {
+
+        if (isFull()) {
+            throw new IllegalStateException("Audit journal segment is full: " + path);
+        }
+
+        byte[] userBytes = truncate(user == null ? "" : user);
+
+        Arrays.fill(scratch.array(), (byte) 0);
+        scratch.clear();
+        scratch.putLong(nextSequence())
+                .putLong(timestampMillis)
+                .putLong(entityId)
+                .putLong(storeId)
+                .putLong(value)
+                .putShort(action.code())
+                .put((byte) userBytes.length)
+                .put((byte) 0)
+                .putInt(0)
+                .put(userBytes);
+        scratch.putInt(CRC_OFFSET, checksum(scratch.array(), userBytes.length));
+
+        buffer.put(offset(count), scratch.array(), 0, RECORD_BYTES);
+        count++;
+    }
+
+    /** Flushes the records appended since the last force to disk. */
+    void force() {
+        if (forcedCount < count) {
+            buffer.force(offset(forcedCount), (count - forcedCount) * RECORD_BYTES);
+            forcedCount = count;
+        }
+    }
+
+    // ---------------- READ ----------------
+
+    public void forEach(Consumer<AuditRecord> consumer) {
+        byte[] bytes = new byte[RECORD_BYTES];
+        ByteBuffer record = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+
+        for (int i = 0; i < count; i++) {
+            buffer.get(offset(i), bytes);
+            int userLength = record.get(42) & 0xFF;
+            short code = record.getShort(40);
+            consumer.accept(new AuditRecord(
+                    record.getLong(0),
+                    record.getLong(8),
+                    AuditAction.ofCode(code),
+                    code,
+                    record.getLong(16),
+                    record.getLong(24),
+                    record.getLong(32),
+                    new String(bytes, USER_OFFSET, userLength, StandardCharsets.UTF_8)
+            ));
+        }
+    }
+
+    // ---------------- HELPERS ----------------
+
+    private boolean valid(int index) {
+        byte[] bytes = new byte[RECORD_BYTES];
+        buffer.get(offset(index), bytes);
+        ByteBuffer record = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+
+        int userLength = record.get(42) & 0xFF;
+        return record.getLong(0) == firstSequence + index
+                && userLength <= MAX_USER_BYTES
+                && record.getInt(CRC_OFFSET) == checksum(bytes, userLength);
+    }
+
+    // Over everything but the checksum field itself
+    private int checksum(byte[] record, int userLength) {
+        crc.reset();
+        crc.update(record, 0, CRC_OFFSET);
+        crc.update(record, USER_OFFSET, userLength);
+        return (int) crc.getValue();
+    }
+
+    private static int offset(int index) {
+        return HEADER_BYTES + index * RECORD_BYTES;
+    }
+
+    // Cut on a character boundary
+    private static byte[] truncate(String user) {
+        byte[] bytes = user.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_USER_BYTES) {
+            return bytes;
+        }
+        int end = MAX_USER_BYTES;
+        while ((bytes[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        byte[] truncated = new byte[end];
+        System.arraycopy(bytes, 0, truncated, 0, end);
+        return truncated;
+    }
+}
@@ -26,6 +26,6 @@ public class AuthService {
             throw new RuntimeException("Invalid password");
         }
 
-        return jwtTokenProvider.generateToken(user.getUsername(), user.getRole().name());
+        return jwtTokenProvider.generateToken(user.getUsername(), user.getRole().name(), user.getStoreId());
     }
 }
@@ -0,0 +1,74 @@
+package com.example.pos.cache;
+
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A write that other backend instances must drop from their in-process caches.
+ * Published inside the writing transaction; InvalidationBus sends all of a
+ * transaction's invalidations as one NOTIFY with its commit.
+ * A null id stands for every entry of the kind.
+ */
+public record CacheInvalidation(Kind kind, Long id) {
+
+    public enum Kind {
+        PRODUCT, CATEGORY, USER, STORE, STOCK, PROMOTION
+    }
+
+    public static CacheInvalidation product(Long id) {
+        return new CacheInvalidation(Kind.PRODUCT, id);
+    }
+
+    public static CacheInvalidation allProducts() {
+        return new CacheInvalidation(Kind.PRODUCT, null);
+    }
+
+    public static CacheInvalidation category(Long id) {
+        return new CacheInvalidation(Kind.CATEGORY, id);
+    }
+
+    public static CacheInvalidation user(Long id) {
+        return new CacheInvalidation(Kind.USER, id);
+    }
+
+    public static CacheInvalidation store(Long id) {
+        return new CacheInvalidation(Kind.STORE, id);
+    }
+
+    public static CacheInvalidation promotion(Long id) {
+        return new CacheInvalidation(Kind.PROMOTION, id);
+    }
+
+    // Sent by the bus itself, from the stock events of sales and restocks
+    static CacheInvalidation stock(long storeId) {
+        return new CacheInvalidation(Kind.STOCK, storeId);
+    }
+
+    /** Every kind, every entry: what a node applies when it may have missed notifications. */
+    static Set<CacheInvalidation> everything() {
+        Set<CacheInvalidation> all = new LinkedHashSet<>();
+        for (Kind kind : Kind.values()) {
+            all.add(new CacheInvalidation(kind, null));
+        }
+        return all;
+    }
+
+    /** Drops the single entries of kinds that are invalidated as a whole anyway. */
+    static Set<CacheInvalidation> coalesce(Set<CacheInvalidation> invalidations) {
+        Set<Kind> whole = EnumSet.noneOf(Kind.class);
+        invalidations.stream().filter(CacheInvalidation::all).forEach(i -> whole.add(i.kind()));
+
+        Set<CacheInvalidation> coalesced = new LinkedHashSet<>();
+        for (CacheInvalidation invalidation : invalidations) {
+            if (invalidation.all() || !whole.contains(invalidation.kind())) {
+                coalesced.add(invalidation);
+            }
+        }
+        return coalesced;
+    }
+
+    public boolean all() {
+        return id == null;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.pos.cache;
+
+import com.example.pos.product.CatalogChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sending side of the cross-instance cache invalidation: every instance keeps
+ * products, categories, users and stores in its own Hibernate second-level
+ * cache and its own catalog snapshots, so a write on one of them is announced
+ * to the others through Postgres NOTIFY (received by InvalidationListener).
+ *
+ * A transaction's invalidations are coalesced into one NOTIFY, sent on the
+ * transaction's connection just before it commits: Postgres delivers it only
+ * if and when the write commits, so there is no window where the data changed
+ * but the notification was lost. Stock changes are the exception (see below).
+ */
+@Slf4j
+@Component
+public class InvalidationBus {
+
+    private static final Object PENDING_KEY = new Object();
+    private static final String NOTIFY = "select pg_notify(?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String channel;
+    private final boolean enabled;
+
+    private final String origin = UUID.randomUUID().toString().substring(0, 8);
+    private final Set<Long> pendingStock = ConcurrentHashMap.newKeySet();
+
+    public InvalidationBus(JdbcTemplate jdbcTemplate,
+                           @Value("${pos.cache-bus.channel:pos_cache}") String channel,
+                           @Value("${pos.cache-bus.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.channel = channel;
+        this.enabled = enabled;
+    }
+
+    public String origin() {
+        return origin;
+    }
+
+    public String channel() {
+        return channel;
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    // ---------------- ENTITY WRITES ----------------
+
+    @EventListener
+    public void onInvalidation(CacheInvalidation invalidation) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(Set.of(invalidation));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<CacheInvalidation> pending = (Set<CacheInvalidation>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            Set<CacheInvalidation> batch = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    send(batch);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            pending = batch;
+        }
+        pending.add(invalidation);
+    }
+
+    // ---------------- STOCK ----------------
+
+    // Every sale moves stock. A NOTIFY takes a database-wide lock at commit, so
+    // instead of one per sale, the stores whose stock moved are sent in batches
+    // after commit, as often as other instances refresh their catalog stock anyway.
+    // Only events of committed transactions get here: the listener re-publishes
+    // remote stock changes outside a transaction and they are not sent back.
+    @TransactionalEventListener
+    public void onStockChanged(CatalogChangedEvent event) {
+        if (enabled && event.stockOnly()) {
+            pendingStock.add(event.storeId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pos.cache-bus.stock-flush-ms:2000}")
+    void flushStock() {
+        if (pendingStock.isEmpty()) {
+            return;
+        }
+        Set<CacheInvalidation> batch = new LinkedHashSet<>();
+        for (Long storeId : pendingStock) {
+            pendingStock.remove(storeId);
+            batch.add(CacheInvalidation.stock(storeId));
+        }
+        try {
+            send(batch);
+        } catch (RuntimeException ex) {
+            log.warn("Could not send stock invalidations, retrying: {}", ex.getMessage());
+            batch.forEach(invalidation -> pendingStock.add(invalidation.id()));
+        }
+    }
+
+    // ---------------- HELPERS ----------------
+
+    private void send(Set<CacheInvalidation> invalidations) {
+        String payload = new InvalidationMessage(origin, invalidations).encode();
+        jdbcTemplate.query(NOTIFY, (RowCallbackHandler) rs -> { }, channel, payload);
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.pos.cache;
+
+import com.example.pos.category.Category;
+import com.example.pos.product.CatalogChangedEvent;
+import com.example.pos.product.Product;
+import com.example.pos.promotion.PromotionChangedEvent;
+import com.example.pos.store.Store;
+import com.example.pos.user.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Receiving side of the cache invalidation bus: one thread per instance
+ * LISTENs on its own connection, outside the pool, and evicts what other
+ * instances changed.
+ *
+ * Notifications that arrive within cache-bus.coalesce-ms of each other are
+ * applied together. A notification only reaches connections that were
+ * listening when it was committed, so after every (re)connect, and whenever a
+ * payload cannot be read, everything is flushed: the cached entities and
+ * queries are evicted and every catalog snapshot is rebuilt. Idle connections
+ * are checked every keepalive-ms so a dead one is noticed and replaced.
+ */
+@Slf4j
+@Component
+public class InvalidationListener {
+
+    private final InvalidationBus bus;
+    private final DataSourceProperties dataSourceProperties;
+    private final SessionFactory sessionFactory;
+    private final ApplicationEventPublisher events;
+    private final long coalesceMs;
+    private final long keepaliveMs;
+    private final long reconnectMaxMs;
+    private final Counter received;
+    private final Counter flushes;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread worker;
+
+    public InvalidationListener(InvalidationBus bus,
+                                DataSourceProperties dataSourceProperties,
+                                EntityManagerFactory entityManagerFactory,
+                                ApplicationEventPublisher events,
+                                MeterRegistry meterRegistry,
+                                @Value("${pos.cache-bus.coalesce-ms:100}") long coalesceMs,
+                                @Value("${pos.cache-bus.keepalive-ms:10000}") long keepaliveMs,
+                                @Value("${pos.cache-bus.reconnect-max-ms:30000}") long reconnectMaxMs) {
+        this.bus = bus;
+        this.dataSourceProperties = dataSourceProperties;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.events = events;
+        this.coalesceMs = coalesceMs;
+        this.keepaliveMs = keepaliveMs;
+        this.reconnectMaxMs = reconnectMaxMs;
+
+        this.received = Counter.builder("pos.cache.invalidations")
+                .description("Invalidations received from other instances")
+                .register(meterRegistry);
+        this.flushes = Counter.builder("pos.cache.flushes")
+                .description("Full cache flushes after the listener (re)connected or could not read a notification")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (!bus.enabled()) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "cache-invalidation");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    // ---------------- LISTEN ----------------
+
+    private void run() {
+        long backoffMs = 1000;
+        while (running) {
+            try (Connection listening = connect()) {
+                connection = listening;
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("LISTEN " + bus.channel());
+                }
+                log.info("Listening for cache invalidations on channel {}", bus.channel());
+                backoffMs = 1000;
+
+                flushAll();
+                listen(listening);
+            } catch (SQLException | RuntimeException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener disconnected, reconnecting in {} ms: {}", backoffMs, ex.getMessage());
+                if (!sleep(backoffMs)) {
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, reconnectMaxMs);
+            } finally {
+                connection = null;
+            }
+        }
+    }
+
+    private void listen(Connection listening) throws SQLException {
+        PGConnection pg = listening.unwrap(PGConnection.class);
+        while (running) {
+            PGNotification[] first = pg.getNotifications((int) keepaliveMs);
+            if (first == null || first.length == 0) {
+                try (Statement statement = listening.createStatement()) {
+                    statement.execute("select 1");
+                }
+                continue;
+            }
+
+            // Let a burst (an import, a bulk price change) arrive, then apply it once
+            Set<CacheInvalidation> batch = new LinkedHashSet<>();
+            boolean unreadable = collect(first, batch);
+            if (coalesceMs > 0 && sleep(coalesceMs)) {
+                unreadable |= collect(pg.getNotifications(), batch);
+            }
+
+            if (unreadable) {
+                flushAll();
+            } else if (!batch.isEmpty()) {
+                apply(CacheInvalidation.coalesce(batch));
+            }
+        }
+    }
+
+    // Adds other instances' invalidations; true if a payload could not be read
+    private boolean collect(PGNotification[] notifications, Set<CacheInvalidation> batch) {
+        boolean unreadable = false;
+        if (notifications == null) {
+            return false;
+        }
+        for (PGNotification notification : notifications) {
+            try {
+                InvalidationMessage message = InvalidationMessage.decode(notification.getParameter());
+                if (!message.origin().equals(bus.origin())) {
+                    batch.addAll(message.invalidations());
+                    received.increment(message.invalidations().size());
+                }
+            } catch (IllegalArgumentException ex) {
+                log.warn("Unreadable cache invalidation, flushing all caches: {}", ex.getMessage());
+                unreadable = true;
+            }
+        }
+        return unreadable;
+    }
+
+    // ---------------- EVICT ----------------
+
+    private void flushAll() {
+        flushes.increment();
+        apply(CacheInvalidation.everything());
+    }
+
+    private void apply(Set<CacheInvalidation> invalidations) {
+        Cache cache = sessionFactory.getCache();
+        boolean catalog = false;
+        boolean queries = false;
+        boolean promotions = false;
+        Set<Long> stockStores = new TreeSet<>();
+
+        for (CacheInvalidation invalidation : invalidations) {
+            switch (invalidation.kind()) {
+                case PRODUCT -> {
+                    evict(cache, Product.class, invalidation);
+                    catalog = true;
+                    queries = true;
+                }
+                case CATEGORY -> {
+                    evict(cache, Category.class, invalidation);
+                    catalog = true;
+                    queries = true;
+                }
+                case STORE -> {
+                    evict(cache, Store.class, invalidation);
+                    queries = true;
+                }
+                case USER -> {
+                    evict(cache, User.class, invalidation);
+                    // The username -> id entries are not keyed by id; a renamed user must not resolve
+                    cache.evictNaturalIdData(User.class);
+                }
+                case STOCK -> {
+                    if (invalidation.all()) {
+                        catalog = true;
+                    } else {
+                        stockStores.add(invalidation.id());
+                    }
+                }
+                // The rule tables are compiled from the database, so any change recompiles them whole
+                case PROMOTION -> promotions = true;
+            }
+        }
+
+        // Cached findAll results are checked against this instance's table timestamps,
+        // which never saw the other instance's write
+        if (queries) {
+            cache.evictDefaultQueryRegion();
+        }
+        // Published outside a transaction: the snapshot applies them, the bus does not send them back
+        if (catalog) {
+            events.publishEvent(CatalogChangedEvent.catalog());
+        } else {
+            stockStores.forEach(storeId -> events.publishEvent(CatalogChangedEvent.stock(storeId)));
+        }
+        if (promotions) {
+            events.publishEvent(new PromotionChangedEvent());
+        }
+    }
+
+    private static void evict(Cache cache, Class<?> entity, CacheInvalidation invalidation) {
+        if (invalidation.all()) {
+            cache.evictEntityData(entity);
+        } else {
+            cache.evictEntityData(entity, invalidation.id());
+        }
+    }
+
+    // ---------------- HELPERS ----------------
+
+    private Connection connect() throws SQLException {
+        Properties properties = new Properties();
+        if (dataSourceProperties.determineUsername() != null) {
+            properties.setProperty("user", dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            properties.setProperty("password", dataSourceProperties.determinePassword());
+        }
+        properties.setProperty("ApplicationName", "pos-cache-invalidation");
+        properties.setProperty("tcpKeepAlive", "true");
+        return DriverManager.getConnection(dataSourceProperties.determineUrl(), properties);
+    }
+
+    private boolean sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        running = false;
+        Connection listening = connection;
+        if (listening != null) {
+            try {
+                listening.close();
+            } catch (SQLException ignored) {
+                // Shutting down anyway
+            }
+        }
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+}
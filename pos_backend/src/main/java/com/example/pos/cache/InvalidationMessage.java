@@ -0,0 +1,63 @@
+package com.example.pos.cache;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * NOTIFY payload: the sending instance, then the invalidations,
+ * e.g. "3f2a9c1e product:12,product:13,category:*".
+ *
+ * Payloads must stay below 8000 bytes; a message that would not fit is sent
+ * with every kind it names invalidated as a whole instead.
+ */
+record InvalidationMessage(String origin, Set<CacheInvalidation> invalidations) {
+
+    static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private static final String ALL = "*";
+
+    String encode() {
+        String payload = encode(invalidations);
+        if (payload.length() <= MAX_PAYLOAD_BYTES) {
+            return payload;
+        }
+        Set<CacheInvalidation> wholeKinds = new LinkedHashSet<>();
+        invalidations.forEach(i -> wholeKinds.add(new CacheInvalidation(i.kind(), null)));
+        return encode(wholeKinds);
+    }
+
+    private String encode(Set<CacheInvalidation> items) {
+        StringBuilder payload = new StringBuilder(origin).append(' ');
+        String separator = "";
+        for (CacheInvalidation item : CacheInvalidation.coalesce(items)) {
+            payload.append(separator)
+                    .append(item.kind().name().toLowerCase(Locale.ROOT))
+                    .append(':')
+                    .append(item.all() ? ALL : item.id().toString());
+            separator = ",";
+        }
+        return payload.toString();
+    }
+
+    /** Throws IllegalArgumentException for payloads this version cannot read (e.g. a newer kind). */
+    static InvalidationMessage decode(String payload) {
+        int space = payload.indexOf(' ');
+        if (space <= 0) {
+            throw new IllegalArgumentException("Malformed invalidation: " + payload);
+        }
+
+        Set<CacheInvalidation> items = new LinkedHashSet<>();
+        for (String item : payload.substring(space + 1).split(",")) {
+            int colon = item.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Malformed invalidation: " + payload);
+            }
+            CacheInvalidation.Kind kind = CacheInvalidation.Kind.valueOf(
+                    item.substring(0, colon).toUpperCase(Locale.ROOT));
+            String id = item.substring(colon + 1);
+            items.add(new CacheInvalidation(kind, ALL.equals(id) ? null : Long.valueOf(id)));
+        }
+        return new InvalidationMessage(payload.substring(0, space), items);
+    }
+}
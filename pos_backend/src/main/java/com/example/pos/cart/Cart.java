@@ -0,0 +1,45 @@
+package com.example.pos.cart;
+
+import com.example.pos.product.UnitType;
+import com.example.pos.sale.SaleLine;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An open basket, in memory. The total is kept in step with the lines (cents,
+ * see Money) instead of being summed on every read. Callers synchronize on the
+ * cart.
+ */
+class Cart {
+
+    record Line(String productName, UnitType unitType, SaleLine sale) {
+    }
+
+    final String id;
+    final String cashier;
+    final long storeId;
+    final Map<Long, Line> lines = new LinkedHashMap<>();
+    long total;
+    long expiresAtMs;
+    boolean closed;
+
+    Cart(String id, String cashier, long storeId, long expiresAtMs) {
+        this.id = id;
+        this.cashier = cashier;
+        this.storeId = storeId;
+        this.expiresAtMs = expiresAtMs;
+    }
+
+    void put(Long productId, Line line) {
+        Line previous = lines.put(productId, line);
+        total += line.sale().lineTotal() - (previous == null ? 0 : previous.sale().lineTotal());
+    }
+
+    void remove(Long productId) {
+        Line previous = lines.remove(productId);
+        if (previous != null) {
+            total -= previous.sale().lineTotal();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.pos.cart;
+
+import com.example.pos.admission.Admission;
+import com.example.pos.admission.AdmissionClass;
+import com.example.pos.cart.dto.CartDTO;
+import com.example.pos.cart.dto.CartLineRequest;
+import com.example.pos.sale.dto.SaleResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/carts")
+@RequiredArgsConstructor
+public class CartController {
+
+    private final CartService cartService;
+
+    @PostMapping
+    public CartDTO create(Authentication authentication) {
+        return cartService.create(authentication.getName());
+    }
+
+    @GetMapping("/{id}")
+    public CartDTO get(@PathVariable String id, Authentication authentication) {
+        return cartService.get(id, authentication.getName());
+    }
+
+    // Abandoned: releases the reserved stock now instead of at expiry
+    @DeleteMapping("/{id}")
+    public void abandon(@PathVariable String id, Authentication authentication) {
+        cartService.abandon(id, authentication.getName());
+    }
+
+    // Adds to the product's line if it is already in the cart
+    @PostMapping("/{id}/items")
+    public CartDTO addItem(@PathVariable String id,
+                           @RequestBody CartLineRequest request,
+                           Authentication authentication) {
+        return cartService.addLine(id, authentication.getName(), request);
+    }
+
+    // Sets the line's quantity
+    @PutMapping("/{id}/items/{productId}")
+    public CartDTO updateItem(@PathVariable String id,
+                              @PathVariable Long productId,
+                              @RequestBody CartLineRequest request,
+                              Authentication authentication) {
+        return cartService.updateLine(id, authentication.getName(), productId, request);
+    }
+
+    @DeleteMapping("/{id}/items/{productId}")
+    public CartDTO removeItem(@PathVariable String id,
+                              @PathVariable Long productId,
+                              Authentication authentication) {
+        return cartService.removeLine(id, authentication.getName(), productId);
+    }
+
+    @PostMapping("/{id}/checkout")
+    @Admission(AdmissionClass.CHECKOUT)
+    public SaleResponseDTO checkout(@PathVariable String id, Authentication authentication) {
+        return cartService.checkout(id, authentication.getName());
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.pos.cart;
+
+import com.example.pos.cart.dto.CartDTO;
+import com.example.pos.cart.dto.CartLineDTO;
+import com.example.pos.cart.dto.CartLineRequest;
+import com.example.pos.common.Money;
+import com.example.pos.common.Quantity;
+import com.example.pos.product.Product;
+import com.example.pos.product.ProductRepository;
+import com.example.pos.promotion.PromotionEngine;
+import com.example.pos.sale.SaleLine;
+import com.example.pos.sale.SaleService;
+import com.example.pos.sale.dto.SaleResponseDTO;
+import com.example.pos.stock.StockReservations;
+import com.example.pos.stock.StockService;
+import com.example.pos.store.StoreContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side baskets. Every line change is validated, priced and checked
+ * against stock when it is made, and the stock is reserved for the cart
+ * (StockReservations), so checkout only commits what was already checked.
+ *
+ * Carts live in this instance's memory and expire cart.ttl-ms after their last
+ * change or read, releasing their reservations; an instance restart drops them.
+ * Behind a load balancer, cart requests must stick to one instance. A line is
+ * charged at the price and promotion it had when it was last changed.
+ */
+@Slf4j
+@Service
+public class CartService {
+
+    private final ProductRepository productRepository;
+    private final StockService stockService;
+    private final StockReservations reservations;
+    private final SaleService saleService;
+    private final PromotionEngine promotionEngine;
+    private final long ttlMs;
+
+    private final Map<String, Cart> carts = new ConcurrentHashMap<>();
+
+    public CartService(ProductRepository productRepository,
+                       StockService stockService,
+                       StockReservations reservations,
+                       SaleService saleService,
+                       PromotionEngine promotionEngine,
+                       MeterRegistry meterRegistry,
+                       @Value("${cart.ttl-ms:600000}") long ttlMs) {
+        this.productRepository = productRepository;
+        this.stockService = stockService;
+        this.reservations = reservations;
+        this.saleService = saleService;
+        this.promotionEngine = promotionEngine;
+        this.ttlMs = ttlMs;
+
+        Gauge.builder("pos.carts.open", carts, Map::size)
+                .description("Open carts holding stock reservations")
+                .register(meterRegistry);
+    }
+
+    // ---------------- CART ----------------
+
+    public CartDTO create(String cashier) {
+        Cart cart = new Cart(UUID.randomUUID().toString(), cashier, StoreContext.currentId(), expiry());
+        carts.put(cart.id, cart);
+        return mapToDTO(cart);
+    }
+
+    public CartDTO get(String id, String cashier) {
+        Cart cart = find(id, cashier);
+        synchronized (cart) {
+            checkOpen(cart);
+            cart.expiresAtMs = expiry();
+            return mapToDTO(cart);
+        }
+    }
+
+    public void abandon(String id, String cashier) {
+        Cart cart = find(id, cashier);
+        synchronized (cart) {
+            close(cart);
+        }
+    }
+
+    // ---------------- LINES ----------------
+
+    // Scanning a product that is already in the cart adds to its line
+    public CartDTO addLine(String id, String cashier, CartLineRequest request) {
+        Cart cart = find(id, cashier);
+        synchronized (cart) {
+            checkOpen(cart);
+            SaleService.checkQuantity(request.getQuantity());
+            Cart.Line line = cart.lines.get(request.getProductId());
+            BigDecimal quantity = line == null
+                    ? request.getQuantity()
+                    : line.sale().quantity().add(request.getQuantity());
+            setLine(cart, request.getProductId(), quantity);
+            return mapToDTO(cart);
+        }
+    }
+
+    public CartDTO updateLine(String id, String cashier, Long productId, CartLineRequest request) {
+        Cart cart = find(id, cashier);
+        synchronized (cart) {
+            checkOpen(cart);
+            SaleService.checkQuantity(request.getQuantity());
+            setLine(cart, productId, request.getQuantity());
+            return mapToDTO(cart);
+        }
+    }
+
+    public CartDTO removeLine(String id, String cashier, Long productId) {
+        Cart cart = find(id, cashier);
+        synchronized (cart) {
+            checkOpen(cart);
+            cart.remove(productId);
+            reservations.release(cart.storeId, productId, cart.id);
+            cart.expiresAtMs = expiry();
+            return mapToDTO(cart);
+        }
+    }
+
+    // ---------------- CHECKOUT ----------------
+
+    public SaleResponseDTO checkout(String id, String cashier) {
+        Cart cart = find(id, cashier);
+        synchronized (cart) {
+            checkOpen(cart);
+            if (cart.lines.isEmpty()) {
+                throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST,
+                        "Cart is empty"
+                );
+            }
+
+            List<SaleLine> lines = cart.lines.values().stream()
+                    .map(Cart.Line::sale)
+                    .toList();
+            SaleResponseDTO sale = saleService.checkout(lines, cashier, cart.id);
+
+            // The sale has committed: its stock movements now hold what the reservations did
+            close(cart);
+            return sale;
+        }
+    }
+
+    // ---------------- EXPIRY ----------------
+
+    @Scheduled(fixedDelayString = "${cart.sweep-interval-ms:30000}")
+    void expire() {
+        long now = System.currentTimeMillis();
+        int expired = 0;
+        for (Cart cart : carts.values()) {
+            synchronized (cart) {
+                if (!cart.closed && cart.expiresAtMs <= now) {
+                    close(cart);
+                    expired++;
+                }
+            }
+        }
+        if (expired > 0) {
+            log.info("Expired {} idle carts and released their stock", expired);
+        }
+    }
+
+    // ---------------- HELPERS ----------------
+
+    // Validates, prices and reserves in one step; a refused reservation leaves the line as it was
+    private void setLine(Cart cart, Long productId, BigDecimal quantity) {
+
+        if (productId == null) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Product ID is required"
+            );
+        }
+
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() ->
+                        new ResponseStatusException(
+                                HttpStatus.BAD_REQUEST,
+                                "Product not found with ID: " + productId
+                        ));
+
+        long available = Quantity.of(stockService.current(cart.storeId, productId));
+        if (!reservations.reserve(cart.storeId, productId, cart.id, Quantity.of(quantity), available)) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Insufficient stock for " + product.getName()
+            );
+        }
+
+        SaleLine sale = SaleLine.of(product, quantity, promotionEngine.current(), LocalDateTime.now());
+        cart.put(productId, new Cart.Line(product.getName(), product.getUnitType(), sale));
+        cart.expiresAtMs = expiry();
+    }
+
+    // Other cashiers' and other stores' carts are not found
+    private Cart find(String id, String cashier) {
+        Cart cart = carts.get(id);
+        if (cart == null || !cart.cashier.equals(cashier) || cart.storeId != StoreContext.currentId()) {
+            throw notFound();
+        }
+        return cart;
+    }
+
+    // A cart can close (checkout, expiry) between find() and taking its lock
+    private static void checkOpen(Cart cart) {
+        if (cart.closed) {
+            throw notFound();
+        }
+    }
+
+    private void close(Cart cart) {
+        cart.closed = true;
+        carts.remove(cart.id);
+        cart.lines.keySet().forEach(productId -> reservations.release(cart.storeId, productId, cart.id));
+    }
+
+    private long expiry() {
+        return System.currentTimeMillis() + ttlMs;
+    }
+
+    private static ResponseStatusException notFound() {
+        return new ResponseStatusException(
+                HttpStatus.NOT_FOUND,
+                "Cart not found or expired"
+        );
+    }
+
+    private CartDTO mapToDTO(Cart cart) {
+        return CartDTO.builder()
+                .id(cart.id)
+                .items(cart.lines.entrySet().stream()
+                        .map(entry -> CartLineDTO.builder()
+                                .productId(entry.getKey())
+                                .productName(entry.getValue().productName())
+                                .unitType(entry.getValue().unitType())
+                                .quantity(entry.getValue().sale().quantity())
+                                .unitPrice(entry.getValue().sale().unitPrice())
+                                .discount(Money.toDecimal(entry.getValue().sale().discount()))
+                                .promotionName(entry.getValue().sale().promotionName())
+                                .lineTotal(Money.toDecimal(entry.getValue().sale().lineTotal()))
+                                .build())
+                        .toList())
+                .total(Money.toDecimal(cart.total))
+                .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(cart.expiresAtMs), ZoneId.systemDefault()))
+                .build();
+    }
+}
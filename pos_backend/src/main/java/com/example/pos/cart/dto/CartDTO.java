@@ -0,0 +1,18 @@
+package com.example.pos.cart.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+public class CartDTO {
+
+    private String id;
+    private List<CartLineDTO> items;
+    private BigDecimal total;
+    private LocalDateTime expiresAt;
+}
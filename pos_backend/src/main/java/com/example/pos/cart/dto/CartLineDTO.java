@@ -0,0 +1,21 @@
+package com.example.pos.cart.dto;
+
+import com.example.pos.product.UnitType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class CartLineDTO {
+
+    private Long productId;
+    private String productName;
+    private UnitType unitType;
+    private BigDecimal quantity;
+    private BigDecimal unitPrice;
+    private BigDecimal discount;
+    private String promotionName;
+    private BigDecimal lineTotal;
+}
@@ -0,0 +1,12 @@
+package com.example.pos.cart.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class CartLineRequest {
+
+    private Long productId;
+    private BigDecimal quantity;
+}
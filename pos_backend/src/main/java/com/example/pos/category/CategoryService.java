@@ -1,19 +1,25 @@
 package com.example.pos.category;
 
+import com.example.pos.cache.CacheInvalidation;
+import com.example.pos.product.CatalogChangedEvent;
 import com.example.pos.product.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@Transactional
 public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher events;
 
     public Category create(Category category) {
 
@@ -27,9 +33,12 @@ public class CategoryService {
         }
 
         category.setName(normalizedName);
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        events.publishEvent(CacheInvalidation.category(saved.getId()));
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<Category> findAll() {
         return categoryRepository.findAll();
     }
@@ -57,7 +66,12 @@ public class CategoryService {
         }
 
         category.setName(normalizedName);
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+
+        // Products embed their category in the catalog
+        events.publishEvent(CatalogChangedEvent.catalog());
+        events.publishEvent(CacheInvalidation.category(id));
+        return saved;
     }
 
     public void delete(Long id) {
@@ -78,5 +92,6 @@ public class CategoryService {
         }
 
         categoryRepository.deleteById(id);
+        events.publishEvent(CacheInvalidation.category(id));
     }
 }
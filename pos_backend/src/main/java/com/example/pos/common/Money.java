@@ -0,0 +1,71 @@
+package com.example.pos.common;
+
+import java.math.BigDecimal;
+
+/**
+ * Money as a long count of cents, the scale of the numeric(38,2) money columns.
+ *
+ * Static helpers over primitive longs rather than a wrapper object, so sums and
+ * line totals on the checkout and report paths allocate nothing; BigDecimal is
+ * only used at the API and persistence edges (of / toDecimal).
+ *
+ * Rounding rules: conversions are exact (more than 2 decimals is an
+ * ArithmeticException, so validate input first); price × quantity is rounded
+ * once per line to cents, half up, as BigDecimal.setScale(2, HALF_UP) would;
+ * sums are exact and fail on overflow instead of wrapping.
+ */
+public final class Money {
+
+    public static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    public static long of(BigDecimal value) {
+        return unscaled(value);
+    }
+
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /** Line total of a price and a quantity (both at scale 2), rounded half up to cents. */
+    public static long times(long cents, long quantity) {
+        return roundHalfUp(Math.multiplyExact(cents, quantity), Quantity.ONE);
+    }
+
+    /** A percentage of an amount, given in basis points (12.5 % = 1250), rounded half up to cents. */
+    public static long percent(long cents, long basisPoints) {
+        return roundHalfUp(Math.multiplyExact(cents, basisPoints), 10_000);
+    }
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * value × 100 as an exact long, without allocating for the values this app sees.
+     *
+     * For up to 13 significant digits at scale 0..2, doubleValue() is a single
+     * correctly rounded division (no allocation), and scaling that back by 100
+     * stays within 0.25 of the integer result, so rounding recovers it exactly.
+     * Anything else takes the BigDecimal route.
+     */
+    static long unscaled(BigDecimal value) {
+        int scale = value.scale();
+        if (scale >= 0 && scale <= SCALE && value.precision() <= 13) {
+            return Math.round(value.doubleValue() * Quantity.ONE);
+        }
+        return value.movePointRight(SCALE).longValueExact();
+    }
+
+    // value / divisor, ties away from zero (RoundingMode.HALF_UP)
+    static long roundHalfUp(long value, long divisor) {
+        long quotient = value / divisor;
+        long remainder = value % divisor;
+        if (Math.abs(remainder) >= divisor - Math.abs(remainder)) {
+            quotient += Long.signum(value);
+        }
+        return quotient;
+    }
+}
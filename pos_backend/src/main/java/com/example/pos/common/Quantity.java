@@ -0,0 +1,26 @@
+package com.example.pos.common;
+
+import java.math.BigDecimal;
+
+/**
+ * Quantity as a long count of hundredths: whole units for UnitType.UNIT (100 per
+ * unit), 10 g steps for UnitType.KG. That is the scale quantities are validated
+ * at (StockService.checkScale) and stored in, so conversions are exact.
+ * Same conventions as Money.
+ */
+public final class Quantity {
+
+    public static final int SCALE = 2;
+    public static final long ONE = 100;
+
+    private Quantity() {
+    }
+
+    public static long of(BigDecimal value) {
+        return Money.unscaled(value);
+    }
+
+    public static BigDecimal toDecimal(long hundredths) {
+        return BigDecimal.valueOf(hundredths, SCALE);
+    }
+}
@@ -1,29 +1,47 @@
 package com.example.pos.config;
 
+import com.example.pos.store.StoreRepository;
+import com.example.pos.tracing.RequestTrace;
 import com.example.pos.user.UserRepository;
+import com.example.pos.user.Role;
 import com.example.pos.user.User;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    public static final String STORE_HEADER = "X-Store-Id";
+
     private final JwtTokenProvider jwtTokenProvider;
     private final UserRepository userRepository;
+    private final StoreRepository storeRepository;
+    private final JsonMapper jsonMapper;
 
-    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, UserRepository userRepository) {
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider,
+                                   UserRepository userRepository,
+                                   StoreRepository storeRepository,
+                                   JsonMapper jsonMapper) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.userRepository = userRepository;
+        this.storeRepository = storeRepository;
+        this.jsonMapper = jsonMapper;
     }
 
     @Override
@@ -31,28 +49,63 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
+        long started = System.nanoTime();
         String header = request.getHeader("Authorization");
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
 
-            if (jwtTokenProvider.validateToken(token)) {
-                String username = jwtTokenProvider.getUsernameFromJWT(token);
-                User user = userRepository.findByUsername(username).orElse(null);
-
-                // System.out.println("Authenticated user: " + user.getUsername() + ", role: " + user.getRole().name());
+            Claims claims = jwtTokenProvider.parseClaims(token);
+            if (claims != null) {
+                User user = userRepository.findCachedByUsername(claims.getSubject()).orElse(null);
 
                 if (user != null) {
+                    Long storeId = storeId(request, claims, user);
+                    if (storeId == null) {
+                        unknownStore(response);
+                        return;
+                    }
+
                     UsernamePasswordAuthenticationToken auth =
                             new UsernamePasswordAuthenticationToken(
                                     user.getUsername(),
                                     null,
                                     List.of(new SimpleGrantedAuthority(user.getRole().name()))
                             );
+                    // Read back through StoreContext
+                    auth.setDetails(storeId);
                     SecurityContextHolder.getContext().setAuthentication(auth);
                 }
             }
         }
+        RequestTrace.record("jwt", System.nanoTime() - started);
 
         filterChain.doFilter(request, response);
     }
+
+    // The token's store (the user's home store for older tokens); admins may work
+    // in another store by naming it in X-Store-Id. null when that store does not exist.
+    private Long storeId(HttpServletRequest request, Claims claims, User user) {
+        String header = request.getHeader(STORE_HEADER);
+        if (header != null && user.getRole() == Role.ADMIN) {
+            try {
+                Long storeId = Long.valueOf(header.trim());
+                return storeRepository.findById(storeId).isPresent() ? storeId : null;
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+        Long storeId = JwtTokenProvider.getStoreId(claims);
+        return storeId != null ? storeId : user.getStoreId();
+    }
+
+    // Same body shape as GlobalExceptionHandler; sendError would end up in a 403 from /error
+    private void unknownStore(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        jsonMapper.writeValue(response.getOutputStream(), Map.of(
+                "timestamp", LocalDateTime.now(),
+                "status", HttpStatus.BAD_REQUEST.value(),
+                "error", "Store not found"
+        ));
+    }
 }
@@ -17,30 +17,33 @@ public class JwtTokenProvider {
         this.jwtExpiration = jwtExpiration;
     }
 
-    public String generateToken(String username, String role) {
+    public String generateToken(String username, String role, Long storeId) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
         return Jwts.builder()
                 .setSubject(username)
                 .claim("role", role)
+                .claim("store", storeId)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
                 .signWith(SignatureAlgorithm.HS256, jwtSecret)
                 .compact();
     }
 
-    public String getUsernameFromJWT(String token) {
-        return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody().getSubject();
-    }
-
-    public boolean validateToken(String token) {
+    /** The token's claims, verifying its signature and expiry once; null for an invalid token. */
+    public Claims parseClaims(String token) {
         try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token);
-            return true;
+            return Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token).getBody();
         } catch (JwtException | IllegalArgumentException ex) {
-            return false;
+            return null;
         }
     }
+
+    // null for tokens issued before stores existed
+    public static Long getStoreId(Claims claims) {
+        Number storeId = claims.get("store", Number.class);
+        return storeId != null ? storeId.longValue() : null;
+    }
 }
 
@@ -0,0 +1,81 @@
+package com.example.pos.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Polls the read replica and decides whether read-only work may use it.
+ * A replica that is unreachable or further behind than maxLag is skipped
+ * until a later check sees it healthy again.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // 0 when the server is not a standby (e.g. a second standalone instance) or has
+    // replayed everything it received; otherwise the age of the last replayed commit
+    private static final String LAG_QUERY = """
+            select case
+                     when not pg_is_in_recovery() then 0
+                     when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                     else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)
+                   end
+            """;
+
+    private final DataSource replica;
+    private final Duration maxLag;
+
+    private volatile boolean usable;
+    private volatile Duration lastLag = Duration.ZERO;
+
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    public Duration getLastLag() {
+        return lastLag;
+    }
+
+    // Called when handing out a replica connection failed
+    public void markDown(Exception cause) {
+        if (usable) {
+            log.warn("Read replica unavailable, routing reads to primary: {}", cause.getMessage());
+        }
+        usable = false;
+    }
+
+    @Scheduled(fixedDelayString = "${pos.datasource.replica.check-interval-ms:1000}")
+    public void check() {
+        boolean healthy;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+
+            rs.next();
+            lastLag = Duration.ofMillis(Math.round(rs.getDouble(1) * 1000));
+            healthy = lastLag.compareTo(maxLag) <= 0;
+
+            if (!healthy && usable) {
+                log.warn("Read replica is {} behind (max {}), routing reads to primary", lastLag, maxLag);
+            }
+        } catch (Exception ex) {
+            markDown(ex);
+            return;
+        }
+
+        if (healthy && !usable) {
+            log.info("Read replica healthy (lag {}), routing read-only transactions to it", lastLag);
+        }
+        usable = healthy;
+    }
+}
@@ -41,25 +41,46 @@ public class SecurityConfig {
                 // ALLOW PREFLIGHT REQUESTS
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
-                .requestMatchers("/auth/**").permitAll()
+                .requestMatchers("/api/auth/**").permitAll()
 
-                .requestMatchers(HttpMethod.POST, "/categories/**").hasAuthority("ADMIN")
-                .requestMatchers(HttpMethod.PUT, "/categories/**").hasAuthority("ADMIN")
-                .requestMatchers(HttpMethod.DELETE, "/categories/**").hasAuthority("ADMIN")
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasAuthority("ADMIN")
 
-                .requestMatchers(HttpMethod.POST, "/products/**").hasAuthority("ADMIN")
-                .requestMatchers(HttpMethod.PUT, "/products/**").hasAuthority("ADMIN")
-                .requestMatchers(HttpMethod.DELETE, "/products/**").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.POST, "/api/categories/**").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.PUT, "/api/categories/**").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.DELETE, "/api/categories/**").hasAuthority("ADMIN")
 
-                .requestMatchers(HttpMethod.POST, "/sales/**")
+                // Manual stock adjustments; reading levels and movements stays open
+                .requestMatchers(HttpMethod.POST, "/api/products/*/stock/**").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.PUT, "/api/products/*/stock/**").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.DELETE, "/api/products/*/stock/**").hasAuthority("ADMIN")
+
+                .requestMatchers(HttpMethod.POST, "/api/products/**").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.PUT, "/api/products/**").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.DELETE, "/api/products/**").hasAuthority("ADMIN")
+
+                .requestMatchers(HttpMethod.POST, "/api/stores/**").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.PUT, "/api/stores/**").hasAuthority("ADMIN")
+
+                .requestMatchers(HttpMethod.POST, "/api/promotions/**").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.PUT, "/api/promotions/**").hasAuthority("ADMIN")
+                .requestMatchers(HttpMethod.DELETE, "/api/promotions/**").hasAuthority("ADMIN")
+
+                // Reports and the projection replay; there is no method security
+                .requestMatchers("/api/reports/**").hasAuthority("ADMIN")
+
+                .requestMatchers(HttpMethod.POST, "/api/sales/**")
                     .hasAnyAuthority("CASHIER", "ADMIN")
-                .requestMatchers(HttpMethod.GET, "/sales/my-sales")
+                .requestMatchers(HttpMethod.GET, "/api/sales/my-sales")
                     .hasAuthority("CASHIER")
-                .requestMatchers(HttpMethod.GET, "/sales/get-all")
+                .requestMatchers(HttpMethod.GET, "/api/sales/get-all")
                     .hasAuthority("ADMIN")
-                .requestMatchers(HttpMethod.GET, "/sales/receipt")
+                .requestMatchers(HttpMethod.GET, "/api/sales/receipt")
                     .hasAnyAuthority("CASHIER")
 
+                .requestMatchers("/api/carts/**")
+                    .hasAnyAuthority("CASHIER", "ADMIN")
+
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -87,6 +108,7 @@ public class SecurityConfig {
                 "GET", "POST", "PUT", "DELETE", "OPTIONS"
         ));
         config.setAllowedHeaders(List.of("*"));
+        config.setExposedHeaders(List.of("X-Request-Id", "Server-Timing", "Retry-After"));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source =
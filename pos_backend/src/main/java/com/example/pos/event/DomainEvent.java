@@ -0,0 +1,8 @@
+package com.example.pos.event;
+
+/**
+ * Fact published from inside a transaction and delivered to listeners only
+ * after that transaction commits (see ProjectionDispatcher).
+ */
+public interface DomainEvent {
+}
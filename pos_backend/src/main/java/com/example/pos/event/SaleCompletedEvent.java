@@ -0,0 +1,52 @@
+package com.example.pos.event;
+
+import com.example.pos.product.UnitType;
+import com.example.pos.sale.Sale;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record SaleCompletedEvent(
+        Long saleId,
+        Long storeId,
+        LocalDateTime timestamp,
+        String cashier,
+        BigDecimal totalAmount,
+        List<Line> lines
+) implements DomainEvent {
+
+    public record Line(
+            Long productId,
+            String productName,
+            UnitType unitType,
+            BigDecimal quantity,
+            BigDecimal amount
+    ) {
+    }
+
+    // Amounts at the scale of the numeric(38,2) columns, so events match what a replay reads back
+    public static SaleCompletedEvent of(Sale sale) {
+        return new SaleCompletedEvent(
+                sale.getId(),
+                sale.getStoreId(),
+                sale.getTimestamp(),
+                sale.getCashier().getUsername(),
+                money(sale.getTotalAmount()),
+                sale.getItems().stream()
+                        .map(item -> new Line(
+                                item.getProduct().getId(),
+                                item.getProductName(),
+                                item.getUnitType(),
+                                money(item.getQuantity()),
+                                money(item.getPriceAtSale())
+                        ))
+                        .toList()
+        );
+    }
+
+    private static BigDecimal money(BigDecimal value) {
+        return value.setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.pos.event;
+
+import com.example.pos.product.Product;
+import com.example.pos.product.UnitType;
+
+import java.math.BigDecimal;
+
+/**
+ * Carries the product's stock level in the store after the change. A deleted
+ * product has null stock and null store: it is gone from every store.
+ */
+public record StockChangedEvent(
+        Long storeId,
+        Long productId,
+        String productName,
+        UnitType unitType,
+        BigDecimal stock
+) implements DomainEvent {
+
+    public static StockChangedEvent of(long storeId, Product product) {
+        return new StockChangedEvent(
+                storeId,
+                product.getId(),
+                product.getName(),
+                product.getUnitType(),
+                product.getStock()
+        );
+    }
+
+    public static StockChangedEvent deleted(Long productId) {
+        return new StockChangedEvent(null, productId, null, null, null);
+    }
+}
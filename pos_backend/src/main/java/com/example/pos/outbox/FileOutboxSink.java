@@ -0,0 +1,58 @@
+package com.example.pos.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Default sink (outbox.sink=file): appends each batch as JSON lines to a
+ * file per day in outbox.file.dir and forces it to disk before the batch is
+ * acknowledged. Meant for local runs and for integrations that pick up files.
+ * The rows are deleted once written here, so the directory must outlive the
+ * instance (docker-compose puts it on the outbox volume).
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path directory;
+    private final JsonMapper jsonMapper;
+
+    public FileOutboxSink(JsonMapper jsonMapper,
+                          @Value("${outbox.file.dir:outbox}") String directory) {
+        this.jsonMapper = jsonMapper;
+        this.directory = Path.of(directory);
+    }
+
+    @Override
+    public synchronized void deliver(List<OutboxMessage> messages) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (OutboxMessage message : messages) {
+            lines.append(jsonMapper.writeValueAsString(message)).append('\n');
+        }
+
+        Files.createDirectories(directory);
+        Path file = directory.resolve("outbox-" + LocalDate.now() + ".ndjson");
+        try (FileChannel channel = FileChannel.open(file, CREATE, WRITE, APPEND)) {
+            ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.pos.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * outbox.sink=http: POSTs each batch as a JSON array to outbox.http.url.
+ * Any 2xx acknowledges the whole batch; anything else, or no answer within
+ * outbox.http.timeout-ms, has it retried.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "http")
+public class HttpOutboxSink implements OutboxSink {
+
+    private final JsonMapper jsonMapper;
+    private final URI url;
+    private final Duration timeout;
+    private final HttpClient client;
+
+    public HttpOutboxSink(JsonMapper jsonMapper,
+                          @Value("${outbox.http.url}") String url,
+                          @Value("${outbox.http.timeout-ms:5000}") long timeoutMs) {
+        this.jsonMapper = jsonMapper;
+        this.url = URI.create(url);
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    @Override
+    public void deliver(List<OutboxMessage> messages) throws IOException {
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonMapper.writeValueAsString(messages)))
+                .build();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while delivering to " + url, ex);
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("HTTP " + response.statusCode() + " from " + url);
+        }
+    }
+}
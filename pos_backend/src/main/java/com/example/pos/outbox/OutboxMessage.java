@@ -0,0 +1,22 @@
+package com.example.pos.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+/**
+ * A claimed outbox row as sinks receive it. The id is unique and stable
+ * across retries: delivery is at least once, so consumers drop ids they
+ * have already seen. payload is the event's JSON, serialized as is.
+ */
+public record OutboxMessage(
+        long id,
+        String aggregateType,
+        long aggregateId,
+        Long storeId,
+        String eventType,
+        LocalDateTime createdAt,
+        int attempts,
+        @JsonRawValue String payload
+) {
+}
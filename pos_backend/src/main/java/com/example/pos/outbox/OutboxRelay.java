@@ -0,0 +1,186 @@
+package com.example.pos.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.sql.Array;
+import java.util.List;
+
+/**
+ * Delivers outbox_event rows to the OutboxSink in batches of
+ * outbox.relay.batch-size, oldest first, every outbox.relay.poll-ms.
+ *
+ * A batch is claimed with "for update skip locked" and acknowledged (deleted)
+ * in the transaction that claimed it, after the sink took it: any number of
+ * instances can run a relay, each draining rows the others have not locked,
+ * and a crash between delivery and commit only means a redelivery. When the
+ * sink fails, the batch's rows become available again after a backoff that
+ * doubles with every attempt, from outbox.relay.retry-base-ms up to
+ * outbox.relay.retry-max-ms; rows behind them keep flowing meanwhile, so
+ * ordering holds only while nothing fails.
+ *
+ * pos.outbox.lag is the age of the oldest undelivered row, as of the last poll.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final String CLAIM = """
+            select id, aggregate_type, aggregate_id, store_id, event_type, created_at, attempts, payload::text as payload
+            from outbox_event
+            where available_at <= now()
+            order by id
+            limit ?
+            for update skip locked
+            """;
+
+    private static final String ACKNOWLEDGE = "delete from outbox_event where id = any(?)";
+
+    private static final String RETRY = """
+            update outbox_event
+            set attempts = attempts + 1,
+                available_at = now() + ? * interval '1 millisecond',
+                last_error = ?
+            where id = ?
+            """;
+
+    private static final String BACKLOG = """
+            select count(*) as pending, coalesce(extract(epoch from now() - min(created_at)), 0) as lag
+            from outbox_event
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxSink sink;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long retryBaseMs;
+    private final long retryMaxMs;
+
+    private final Counter delivered;
+    private final Counter failed;
+    private volatile long pending;
+    private volatile double lagSeconds;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       OutboxSink sink,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.retry-base-ms:1000}") long retryBaseMs,
+                       @Value("${outbox.relay.retry-max-ms:300000}") long retryMaxMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sink = sink;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.retryBaseMs = retryBaseMs;
+        this.retryMaxMs = retryMaxMs;
+
+        this.delivered = Counter.builder("pos.outbox.delivered")
+                .description("Outbox messages delivered and acknowledged")
+                .register(meterRegistry);
+        this.failed = Counter.builder("pos.outbox.failed")
+                .description("Outbox message deliveries that failed and were rescheduled")
+                .register(meterRegistry);
+        Gauge.builder("pos.outbox.pending", this, relay -> relay.pending)
+                .description("Outbox messages not delivered yet")
+                .register(meterRegistry);
+        Gauge.builder("pos.outbox.lag", this, relay -> relay.lagSeconds)
+                .description("Age of the oldest undelivered outbox message")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    // Drains full batches back to back; stops at a short batch or a failed one
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-ms:1000}")
+    void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed == batchSize);
+        } catch (RuntimeException ex) {
+            log.warn("Outbox relay failed: {}", ex.getMessage());
+        }
+        updateBacklog();
+    }
+
+    // Messages delivered, or -1 if the sink failed
+    private int relayBatch() {
+        List<OutboxMessage> batch = jdbcTemplate.query(CLAIM, (rs, i) -> new OutboxMessage(
+                rs.getLong("id"),
+                rs.getString("aggregate_type"),
+                rs.getLong("aggregate_id"),
+                rs.getObject("store_id", Long.class),
+                rs.getString("event_type"),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                rs.getInt("attempts"),
+                rs.getString("payload")
+        ), batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            sink.deliver(batch);
+        } catch (IOException | RuntimeException ex) {
+            String error = truncate(ex.toString(), 1000);
+            jdbcTemplate.batchUpdate(RETRY, batch, batch.size(), (ps, message) -> {
+                ps.setLong(1, backoffMs(message.attempts(), retryBaseMs, retryMaxMs));
+                ps.setString(2, error);
+                ps.setLong(3, message.id());
+            });
+            failed.increment(batch.size());
+            log.warn("Could not deliver {} outbox messages from id {}, retrying: {}",
+                    batch.size(), batch.get(0).id(), error);
+            return -1;
+        }
+
+        Long[] ids = batch.stream().map(OutboxMessage::id).toArray(Long[]::new);
+        jdbcTemplate.update(ACKNOWLEDGE, ps -> {
+            Array array = ps.getConnection().createArrayOf("bigint", ids);
+            ps.setArray(1, array);
+        });
+        delivered.increment(batch.size());
+        return batch.size();
+    }
+
+    private void updateBacklog() {
+        try {
+            jdbcTemplate.query(BACKLOG, (RowCallbackHandler) rs -> {
+                pending = rs.getLong("pending");
+                lagSeconds = rs.getDouble("lag");
+            });
+        } catch (RuntimeException ex) {
+            log.debug("Could not read the outbox backlog: {}", ex.getMessage());
+        }
+    }
+
+    // ---------------- HELPERS ----------------
+
+    /** Delay before the next attempt of a message that failed attempts times before this one. */
+    static long backoffMs(int attempts, long baseMs, long maxMs) {
+        int doublings = Math.min(attempts, 30);
+        long delay = baseMs << doublings;
+        return delay < 0 || delay > maxMs ? maxMs : delay;
+    }
+
+    private static String truncate(String value, int length) {
+        return value.length() <= length ? value : value.substring(0, length);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.pos.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Where the relay delivers outbox messages, one batch at a time, oldest first.
+ * A batch counts as delivered only if deliver returns: if it throws, every
+ * message of the batch is retried later, including ones the sink may already
+ * have passed on.
+ */
+public interface OutboxSink {
+
+    void deliver(List<OutboxMessage> messages) throws IOException;
+}
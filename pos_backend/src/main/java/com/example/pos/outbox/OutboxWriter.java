@@ -0,0 +1,118 @@
+package com.example.pos.outbox;
+
+import com.example.pos.event.SaleCompletedEvent;
+import com.example.pos.event.StockChangedEvent;
+import com.example.pos.product.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writing side of the outbox: turns completed sales, product changes and
+ * stock moves into outbox_event rows in the transaction that made them, so
+ * a message exists if and only if its change committed. OutboxRelay delivers
+ * them.
+ *
+ * A transaction's messages are inserted as one JDBC batch just before it
+ * commits, on its own connection, instead of one round trip per event.
+ */
+@Component
+public class OutboxWriter {
+
+    private static final Object PENDING_KEY = new Object();
+
+    private static final String INSERT = """
+            insert into outbox_event (aggregate_type, aggregate_id, store_id, event_type, payload)
+            values (?, ?, ?, ?, ?::jsonb)
+            """;
+
+    private record Row(String aggregateType, long aggregateId, Long storeId, String eventType, String payload) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonMapper jsonMapper;
+    private final boolean enabled;
+
+    public OutboxWriter(JdbcTemplate jdbcTemplate,
+                        JsonMapper jsonMapper,
+                        @Value("${outbox.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonMapper = jsonMapper;
+        this.enabled = enabled;
+    }
+
+    // ---------------- EVENTS ----------------
+
+    @EventListener
+    public void onSaleCompleted(SaleCompletedEvent sale) {
+        add(new Row("SALE", sale.saleId(), sale.storeId(), "sale.completed", jsonMapper.writeValueAsString(sale)));
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent product) {
+        String type = product.deleted() ? "product.deleted" : "product.changed";
+        add(new Row("PRODUCT", product.productId(), null, type, jsonMapper.writeValueAsString(product)));
+    }
+
+    // Deletions are announced by onProductChanged
+    @EventListener
+    public void onStockChanged(StockChangedEvent stock) {
+        if (stock.stock() != null) {
+            add(new Row("PRODUCT", stock.productId(), stock.storeId(), "stock.changed", jsonMapper.writeValueAsString(stock)));
+        }
+    }
+
+    // ---------------- WRITE ----------------
+
+    private void add(Row row) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            insert(List.of(row));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Row> pending = (List<Row>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+        if (pending == null) {
+            List<Row> batch = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(PENDING_KEY, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    insert(batch);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+                }
+            });
+            pending = batch;
+        }
+        pending.add(row);
+    }
+
+    private void insert(List<Row> rows) {
+        jdbcTemplate.batchUpdate(INSERT, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.aggregateType());
+            ps.setLong(2, row.aggregateId());
+            if (row.storeId() != null) {
+                ps.setLong(3, row.storeId());
+            } else {
+                ps.setNull(3, Types.BIGINT);
+            }
+            ps.setString(4, row.eventType());
+            ps.setString(5, row.payload());
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.pos.product;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/** Either categoryId or productIds; either percent (5 = +5%) or amount (-0.50). */
+@Data
+public class BulkPriceRequest {
+    private Long categoryId;
+    private List<Long> productIds;
+    private BigDecimal percent;
+    private BigDecimal amount;
+}
@@ -0,0 +1,4 @@
+package com.example.pos.product;
+
+public record BulkUpdateResult(int updated) {
+}
@@ -0,0 +1,22 @@
+package com.example.pos.product;
+
+/**
+ * Published inside the transaction that changes products or categories.
+ * A stock-only change (sales, restocks) names the store whose levels moved;
+ * it is folded into that store's catalog snapshot lazily instead of immediately.
+ * Catalog changes (storeId null) affect every store.
+ */
+public record CatalogChangedEvent(Long storeId) {
+
+    public static CatalogChangedEvent catalog() {
+        return new CatalogChangedEvent(null);
+    }
+
+    public static CatalogChangedEvent stock(long storeId) {
+        return new CatalogChangedEvent(storeId);
+    }
+
+    public boolean stockOnly() {
+        return storeId != null;
+    }
+}
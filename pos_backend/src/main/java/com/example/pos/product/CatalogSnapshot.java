@@ -0,0 +1,279 @@
+package com.example.pos.product;
+
+import jakarta.annotation.PreDestroy;
+import com.example.pos.stock.StockService;
+import com.example.pos.store.StoreRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The product catalog with one store's stock levels, serialized once per
+ * version, as JSON, CBOR and Smile, each plain and gzipped.
+ *
+ * Every store has its own snapshot and version. A committed catalog change
+ * bumps every store's version and schedules a rebuild on a background thread;
+ * requests just hand out the current byte arrays. After a product/category
+ * edit, requests wait (briefly) for the rebuild so admins see their own change.
+ * Stock-only changes from sales bump only their store, are batched and picked
+ * up after catalog.stock-refresh-delay-ms without making anyone wait, so a busy
+ * store never invalidates the tills of the others.
+ */
+@Slf4j
+@Component
+public class CatalogSnapshot {
+
+    public static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    public static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    /** One encoding of the catalog; ETags differ per encoding and compression so caches never mix them up. */
+    public record Representation(MediaType contentType, String etag, String gzipEtag, byte[] body, byte[] gzip) {
+    }
+
+    public record Snapshot(long version, Representation json, Representation cbor, Representation smile) {
+
+        // Highest q-value wins, ties go to the type listed first. Each encoding takes the
+        // q of its most specific match; wildcards reach JSON only, CBOR and Smile must be named
+        public Representation select(List<MediaType> accepted) {
+            Representation best = json;
+            double bestQ = 0;
+            int bestIndex = Integer.MAX_VALUE;
+            for (Representation candidate : List.of(json, cbor, smile)) {
+                int specificity = -1;
+                double q = 0;
+                int index = Integer.MAX_VALUE;
+                for (int i = 0; i < accepted.size(); i++) {
+                    MediaType type = accepted.get(i);
+                    int matched = specificity(type, candidate);
+                    if (matched > specificity) {
+                        specificity = matched;
+                        q = type.getQualityValue();
+                        index = i;
+                    }
+                }
+                if (q > bestQ || (q > 0 && q == bestQ && index < bestIndex)) {
+                    best = candidate;
+                    bestQ = q;
+                    bestIndex = index;
+                }
+            }
+            return best;
+        }
+
+        // 2 for the type itself, 1 for application/*, 0 for */*, -1 for no match
+        private int specificity(MediaType type, Representation candidate) {
+            if (type.equalsTypeAndSubtype(candidate.contentType())) {
+                return 2;
+            }
+            if (candidate != json || !type.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return -1;
+            }
+            return type.isWildcardType() ? 0 : 1;
+        }
+    }
+
+    // One per store, created on first use
+    private static class Partition {
+        final AtomicLong version = new AtomicLong();
+        final AtomicLong requiredVersion = new AtomicLong();
+        volatile Snapshot current;
+        volatile CompletableFuture<Snapshot> pending = new CompletableFuture<>();
+
+        boolean stale() {
+            Snapshot snapshot = current;
+            return snapshot == null || snapshot.version() < version.get();
+        }
+    }
+
+    private final ProductRepository productRepository;
+    private final StoreRepository storeRepository;
+    private final StockService stockService;
+    private final JsonMapper jsonMapper;
+    private final CBORMapper cborMapper;
+    private final SmileMapper smileMapper = SmileMapper.builder().build();
+    private final TransactionTemplate primaryRead;
+    private final long stockRefreshDelayMs;
+    private final long maxWaitMs;
+
+    private final String instanceTag = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<Long, Partition> partitions = new ConcurrentHashMap<>();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "catalog-snapshot");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public CatalogSnapshot(ProductRepository productRepository,
+                           StoreRepository storeRepository,
+                           StockService stockService,
+                           JsonMapper jsonMapper,
+                           CBORMapper cborMapper,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${catalog.stock-refresh-delay-ms:2000}") long stockRefreshDelayMs,
+                           @Value("${catalog.max-wait-ms:2000}") long maxWaitMs) {
+        this.productRepository = productRepository;
+        this.storeRepository = storeRepository;
+        this.stockService = stockService;
+        this.jsonMapper = jsonMapper;
+        this.cborMapper = cborMapper;
+        // Not read-only, so it never lands on a lagging read replica
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.stockRefreshDelayMs = stockRefreshDelayMs;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void warmUp() {
+        storeRepository.findAll().forEach(store -> partitions.computeIfAbsent(store.getId(), id -> new Partition()));
+        schedule(0);
+    }
+
+    // ---------------- READ ----------------
+
+    public Snapshot current(long storeId) {
+
+        Partition partition = partitions.get(storeId);
+        if (partition == null) {
+            partition = partitions.computeIfAbsent(storeId, id -> new Partition());
+            schedule(0);
+        }
+
+        Snapshot snapshot = partition.current;
+        if (snapshot != null && snapshot.version() >= partition.requiredVersion.get()) {
+            return snapshot;
+        }
+
+        try {
+            return partition.pending.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (Exception ex) {
+            if (snapshot != null) {
+                return snapshot;
+            }
+            // No snapshot yet and the first build is stuck: build on the caller's thread
+            long builtVersion = partition.version.get();
+            return primaryRead.execute(status -> build(storeId, builtVersion, productRepository.findAll()));
+        }
+    }
+
+    // ---------------- INVALIDATION ----------------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.stockOnly()) {
+            Partition partition = partitions.get(event.storeId());
+            if (partition != null) {
+                partition.version.incrementAndGet();
+                schedule(stockRefreshDelayMs);
+            }
+        } else {
+            partitions.values().forEach(partition -> {
+                long next = partition.version.incrementAndGet();
+                partition.requiredVersion.accumulateAndGet(next, Math::max);
+            });
+            schedule(0);
+        }
+    }
+
+    // A later change that arrives while a delayed rebuild is queued rides along with it;
+    // one that arrives during a rebuild triggers another pass afterwards.
+    private void schedule(long delayMs) {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            executor.schedule(this::rebuild, delayMs, TimeUnit.MILLISECONDS);
+        } else if (delayMs == 0) {
+            executor.execute(this::rebuild);
+        }
+    }
+
+    // Only stale stores are rebuilt; they share one read of the product table
+    private void rebuild() {
+        rebuildScheduled.set(false);
+
+        // Read the versions first: a change committed during the build bumps them again
+        Map<Long, Long> stale = new TreeMap<>();
+        partitions.forEach((storeId, partition) -> {
+            if (partition.stale()) {
+                stale.put(storeId, partition.version.get());
+            }
+        });
+        if (stale.isEmpty()) {
+            return;
+        }
+
+        try {
+            primaryRead.executeWithoutResult(status -> {
+                List<Product> products = productRepository.findAll();
+                stale.forEach((storeId, builtVersion) -> {
+                    Snapshot snapshot = build(storeId, builtVersion, products);
+                    Partition partition = partitions.get(storeId);
+                    partition.current = snapshot;
+
+                    CompletableFuture<Snapshot> done = partition.pending;
+                    partition.pending = new CompletableFuture<>();
+                    done.complete(snapshot);
+                });
+            });
+        } catch (RuntimeException ex) {
+            log.error("Catalog snapshot rebuild failed", ex);
+            schedule(stockRefreshDelayMs);
+        }
+    }
+
+    // Fills the (shared) products with the store's stock, so stores are built one after another
+    private Snapshot build(long storeId, long builtVersion, List<Product> products) {
+
+        stockService.fill(storeId, products);
+        String tag = "catalog-" + instanceTag + "-" + storeId + "-" + builtVersion;
+
+        return new Snapshot(
+                builtVersion,
+                representation(MediaType.APPLICATION_JSON, tag, jsonMapper.writeValueAsBytes(products)),
+                representation(CBOR, tag + "-cbor", cborMapper.writeValueAsBytes(products)),
+                representation(SMILE, tag + "-smile", smileMapper.writeValueAsBytes(products))
+        );
+    }
+
+    private static Representation representation(MediaType type, String tag, byte[] body) {
+        return new Representation(type, "\"" + tag + "\"", "\"" + tag + "-gz\"", body, gzip(body));
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -3,10 +3,13 @@ package com.example.pos.product;
 import com.example.pos.category.Category;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -23,6 +26,8 @@ public class Product {
     @Column(nullable = false)
     private BigDecimal price;
 
+    // Not a column: derived from the stock journal (see StockService.fill)
+    @Transient
     private BigDecimal stock;
 
     @ManyToOne
@@ -0,0 +1,182 @@
+package com.example.pos.product;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.query.NativeQuery;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Bulk product writes. Inserts and per-row updates are plain JDBC batches
+ * (Hibernate cannot batch inserts with IDENTITY ids) and bypass the
+ * second-level cache: callers must call invalidateCaches() in the same
+ * transaction. Set-based updates run as Hibernate native queries instead.
+ */
+@Repository
+public class ProductBatchRepository {
+
+    private static final String INSERT = """
+            insert into product (name, price, category_id, unit_type)
+            values (?, ?, ?, ?)
+            """;
+
+    private static final String UPDATE = """
+            update product set name = ?, price = ?, category_id = ?, unit_type = ?
+            where id = ?
+            """;
+
+    /** A product row to write; id is null for inserts. */
+    public record Row(Long id, String name, BigDecimal price, Long categoryId, UnitType unitType) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProductBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /** Existing product ids by upper(name), one indexed query (idx_product_name_upper). */
+    public Map<String, Long> findIdsByUpperName(Collection<String> upperNames) {
+        Map<String, Long> ids = new HashMap<>();
+        if (upperNames.isEmpty()) {
+            return ids;
+        }
+        namedJdbcTemplate.query("""
+                        select upper(p.name) as name, min(p.id) as id
+                        from product p
+                        where upper(p.name) in (:names)
+                        group by upper(p.name)
+                        """,
+                Map.of("names", upperNames),
+                rs -> {
+                    ids.put(rs.getString("name"), rs.getLong("id"));
+                });
+        return ids;
+    }
+
+    /** Inserts the rows in one batch and returns their generated ids, in row order. */
+    public List<Long> insert(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Row row = rows.get(i);
+                        ps.setString(1, row.name());
+                        ps.setBigDecimal(2, row.price());
+                        ps.setLong(3, row.categoryId());
+                        ps.setString(4, row.unitType().name());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keys
+        );
+        return keys.getKeyList().stream()
+                .map(k -> ((Number) k.get("id")).longValue())
+                .toList();
+    }
+
+    public void update(List<Row> rows) {
+        jdbcTemplate.batchUpdate(UPDATE, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.name());
+            ps.setBigDecimal(2, row.price());
+            ps.setLong(3, row.categoryId());
+            ps.setString(4, row.unitType().name());
+            ps.setLong(5, row.id());
+        });
+    }
+
+    /**
+     * New price for every product of the category (or in ids) as one UPDATE: price
+     * times factor rounded to cents, or plus amount. Goes through Hibernate so cached
+     * products and queries are invalidated.
+     */
+    public int adjustPrices(Long categoryId, Collection<Long> ids, BigDecimal factor, BigDecimal amount) {
+        String price = factor != null ? "round(price * :factor, 2)" : "price + :amount";
+        Query update = entityManager.createNativeQuery(
+                "update product set price = " + price + " where " + scope(categoryId));
+        scopeParams(categoryId, ids).forEach(update::setParameter);
+        if (factor != null) {
+            update.setParameter("factor", factor);
+        } else {
+            update.setParameter("amount", amount);
+        }
+        return update.unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Product.class)
+                .executeUpdate();
+    }
+
+    /** The products of the scope as they are now, e.g. after adjustPrices. */
+    public List<Row> findRows(Long categoryId, Collection<Long> ids) {
+        return namedJdbcTemplate.query(
+                "select id, name, price, category_id, unit_type from product where " + scope(categoryId) + " order by id",
+                scopeParams(categoryId, ids),
+                (rs, i) -> new Row(
+                        rs.getLong("id"),
+                        rs.getString("name"),
+                        rs.getBigDecimal("price"),
+                        rs.getLong("category_id"),
+                        UnitType.valueOf(rs.getString("unit_type"))));
+    }
+
+    /** How many products of the scope adding amount would take below zero. */
+    public long countPricedBelow(Long categoryId, Collection<Long> ids, BigDecimal amount) {
+        Map<String, Object> params = scopeParams(categoryId, ids);
+        params.put("amount", amount);
+        return namedJdbcTemplate.queryForObject(
+                "select count(*) from product where " + scope(categoryId) + " and price + :amount < 0",
+                params, Long.class);
+    }
+
+    /**
+     * Native DML synchronized on Product makes Hibernate drop cached products and
+     * cached queries over the table, now and again when the transaction completes,
+     * so a query that raced the JDBC writes cannot cache their old state.
+     */
+    public void invalidateCaches() {
+        entityManager.createNativeQuery("update product set id = id where false")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Product.class)
+                .executeUpdate();
+    }
+
+    // ---------------- HELPERS ----------------
+
+    // Products of one category, or an explicit id list
+    private static String scope(Long categoryId) {
+        return categoryId != null ? "category_id = :categoryId" : "id in (:ids)";
+    }
+
+    private static Map<String, Object> scopeParams(Long categoryId, Collection<Long> ids) {
+        Map<String, Object> params = new HashMap<>();
+        if (categoryId != null) {
+            params.put("categoryId", categoryId);
+        } else {
+            params.put("ids", ids);
+        }
+        return params;
+    }
+}
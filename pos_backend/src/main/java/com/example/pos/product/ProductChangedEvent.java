@@ -0,0 +1,36 @@
+package com.example.pos.product;
+
+import java.math.BigDecimal;
+
+/**
+ * A product's state after it was created or changed, published inside the
+ * writing transaction (see OutboxWriter). A deleted product has only its id.
+ */
+public record ProductChangedEvent(
+        Long productId,
+        String name,
+        BigDecimal price,
+        Long categoryId,
+        UnitType unitType,
+        boolean deleted
+) {
+
+    public static ProductChangedEvent of(Product product) {
+        return new ProductChangedEvent(
+                product.getId(),
+                product.getName(),
+                product.getPrice(),
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                product.getUnitType(),
+                false
+        );
+    }
+
+    public static ProductChangedEvent of(ProductBatchRepository.Row row) {
+        return new ProductChangedEvent(row.id(), row.name(), row.price(), row.categoryId(), row.unitType(), false);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, null, null, null, null, true);
+    }
+}
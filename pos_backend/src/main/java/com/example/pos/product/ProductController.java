@@ -1,9 +1,21 @@
 package com.example.pos.product;
 
+import com.example.pos.stock.StockService;
+import com.example.pos.stock.dto.BulkRestockRequest;
+import com.example.pos.stock.dto.StockLevelDTO;
+import com.example.pos.store.StoreContext;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/api/products")
@@ -11,15 +23,103 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final CatalogSnapshot catalogSnapshot;
+    private final ProductImportService productImportService;
+    private final StockService stockService;
 
     @PostMapping
     public Product create(@RequestBody ProductRequest request) {
         return productService.create(request);
     }
 
+    // Bulk onboarding: CSV (with header) or NDJSON, streamed; rejected rows are listed by line
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ProductImportResult importProducts(@RequestHeader HttpHeaders headers, InputStream body) {
+        return productImportService.importProducts(body, headers.getContentType());
+    }
+
+    // Pre-serialized catalog with the store's stock (JSON, CBOR or Smile); tills revalidate with If-None-Match
     @GetMapping
-    public List<Product> getAll() {
-        return productService.findAll();
+    public ResponseEntity<byte[]> getAll(@RequestHeader HttpHeaders headers) {
+
+        CatalogSnapshot.Representation catalog = catalogSnapshot.current(StoreContext.currentId())
+                .select(headers.getAccept());
+        boolean gzip = acceptsGzip(headers.get(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? catalog.gzipEtag() : catalog.etag();
+
+        String ifNoneMatch = headers.getFirst(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(catalog.contentType());
+
+        if (gzip) {
+            return response
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(catalog.gzip());
+        }
+        return response.body(catalog.body());
+    }
+
+    // gzip with a non-zero q-value across all Accept-Encoding headers, by name or by "*"
+    static boolean acceptsGzip(List<String> acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double any = null;
+        for (String header : acceptEncoding) {
+            for (String element : header.split(",")) {
+                String[] parts = element.split(";");
+                String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+                double q = 1;
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.length() > 2 && param.regionMatches(true, 0, "q=", 0, 2)) {
+                        try {
+                            q = Double.parseDouble(param.substring(2).trim());
+                        } catch (NumberFormatException ex) {
+                            q = 0;
+                        }
+                    }
+                }
+                if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                    gzip = gzip == null ? q : Math.max(gzip, q);
+                } else if (coding.equals("*")) {
+                    any = q;
+                }
+            }
+        }
+        double q = gzip != null ? gzip : any != null ? any : 0;
+        return q > 0;
+    }
+
+    // +5% on a category, -0.50 on a list of products, ...
+    @PostMapping("/bulk/price")
+    public BulkUpdateResult adjustPrices(@RequestBody BulkPriceRequest request) {
+        return productService.adjustPrices(request);
+    }
+
+    // Restock a delivery in one go; returns the new levels
+    @PostMapping("/bulk/restock")
+    public List<StockLevelDTO> restock(@RequestBody BulkRestockRequest request, Authentication authentication) {
+        LocalDateTime now = LocalDateTime.now();
+        return stockService.restock(StoreContext.currentId(), request.getItems(), request.getNote(), authentication.getName())
+                .entrySet().stream()
+                .map(e -> StockLevelDTO.builder()
+                        .productId(e.getKey())
+                        .stock(e.getValue())
+                        .asOf(now)
+                        .build())
+                .toList();
     }
 
     @PutMapping("/{id}")
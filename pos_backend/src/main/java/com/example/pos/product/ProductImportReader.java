@@ -0,0 +1,221 @@
+package com.example.pos.product;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Streams an import upload row by row, never holding more than one row in memory.
+ *
+ * CSV: RFC 4180 (quoted fields, "" escapes, CRLF or LF), first record is the header.
+ * NDJSON: one JSON object per line, blank lines skipped.
+ * Field names are matched case-insensitively, ignoring '_' (unit_type = unitType).
+ */
+public final class ProductImportReader {
+
+    public static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    /** One input row; line is where it starts in the upload, error is set if it could not be parsed. */
+    public record RawRow(long line, Map<String, String> fields, String error) {
+    }
+
+    private ProductImportReader() {
+    }
+
+    public static void read(InputStream in, MediaType contentType, JsonMapper jsonMapper, Consumer<RawRow> consumer) {
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            if (APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+                readNdjson(reader, jsonMapper, consumer);
+            } else if (TEXT_CSV.isCompatibleWith(contentType)) {
+                readCsv(reader, consumer);
+            } else {
+                throw new ResponseStatusException(
+                        HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+                        "Import must be text/csv or application/x-ndjson"
+                );
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ---------------- NDJSON ----------------
+
+    private static void readNdjson(BufferedReader reader, JsonMapper jsonMapper, Consumer<RawRow> consumer) throws IOException {
+
+        long line = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (line == 1) {
+                text = stripBom(text);
+            }
+            if (text.isBlank()) {
+                continue;
+            }
+
+            JsonNode node;
+            try {
+                node = jsonMapper.readTree(text);
+            } catch (JacksonException e) {
+                consumer.accept(new RawRow(line, Map.of(), "Invalid JSON: " + e.getOriginalMessage()));
+                continue;
+            }
+            if (!node.isObject()) {
+                consumer.accept(new RawRow(line, Map.of(), "Expected a JSON object"));
+                continue;
+            }
+
+            Map<String, String> fields = new HashMap<>();
+            for (Map.Entry<String, JsonNode> field : node.properties()) {
+                JsonNode value = field.getValue();
+                fields.put(key(field.getKey()), value.isNull() ? null : value.isValueNode() ? value.asString() : value.toString());
+            }
+            consumer.accept(new RawRow(line, fields, null));
+        }
+    }
+
+    // ---------------- CSV ----------------
+
+    private static void readCsv(BufferedReader reader, Consumer<RawRow> consumer) throws IOException {
+
+        CsvParser parser = new CsvParser(reader);
+
+        List<String> header = parser.next();
+        if (header == null) {
+            return;
+        }
+        if (!header.isEmpty()) {
+            header.set(0, stripBom(header.get(0)));
+        }
+        List<String> keys = header.stream().map(ProductImportReader::key).toList();
+
+        List<String> record;
+        while ((record = parser.next()) != null) {
+            long line = parser.recordLine();
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            if (record.size() != keys.size()) {
+                consumer.accept(new RawRow(line, Map.of(),
+                        "Expected " + keys.size() + " columns, found " + record.size()));
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < keys.size(); i++) {
+                fields.put(keys.get(i), record.get(i));
+            }
+            consumer.accept(new RawRow(line, fields, null));
+        }
+    }
+
+    private static class CsvParser {
+
+        private final BufferedReader reader;
+        private long line = 1;
+        private long recordLine;
+        private boolean eof;
+
+        CsvParser(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        long recordLine() {
+            return recordLine;
+        }
+
+        /** Next record, or null at end of input. */
+        List<String> next() throws IOException {
+
+            if (eof) {
+                return null;
+            }
+            recordLine = line;
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+
+            while (true) {
+                int c = reader.read();
+                if (c == -1) {
+                    eof = true;
+                    if (!any && field.isEmpty()) {
+                        return null;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                }
+                any = true;
+
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                    continue;
+                }
+
+                switch (c) {
+                    case '"' -> quoted = true;
+                    case ',' -> {
+                        fields.add(field.toString());
+                        field.setLength(0);
+                    }
+                    case '\r' -> {
+                        // CRLF or a lone CR both end the record
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                        line++;
+                        fields.add(field.toString());
+                        return fields;
+                    }
+                    case '\n' -> {
+                        line++;
+                        fields.add(field.toString());
+                        return fields;
+                    }
+                    default -> field.append((char) c);
+                }
+            }
+        }
+    }
+
+    // ---------------- HELPERS ----------------
+
+    private static String key(String name) {
+        return name.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String stripBom(String text) {
+        return text.startsWith("\uFEFF") ? text.substring(1) : text;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.pos.product;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class ProductImportResult {
+
+    public record RowError(long line, String name, String message) {
+    }
+
+    private int created;
+    private int updated;
+    private int rejected;
+    private final List<RowError> errors = new ArrayList<>();
+    // More rejected rows than maxErrors: only the first ones are listed
+    private boolean errorsTruncated;
+    private long elapsedMs;
+
+    @Getter(AccessLevel.NONE)
+    private final int maxErrors;
+
+    ProductImportResult(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    void created(int count) {
+        created += count;
+    }
+
+    void updated(int count) {
+        updated += count;
+    }
+
+    void reject(long line, String name, String message) {
+        rejected++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(line, name, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    void finish(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+}
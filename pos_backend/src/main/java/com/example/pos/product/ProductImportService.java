@@ -0,0 +1,307 @@
+package com.example.pos.product;
+
+import com.example.pos.audit.AuditAction;
+import com.example.pos.audit.AuditEvent;
+import com.example.pos.cache.CacheInvalidation;
+import com.example.pos.category.Category;
+import com.example.pos.category.CategoryRepository;
+import com.example.pos.projection.ProjectionDispatcher;
+import com.example.pos.stock.StockService;
+import com.example.pos.store.StoreContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Bulk product import (CSV or NDJSON), for onboarding a store.
+ *
+ * The upload is streamed and written in chunks, each in its own transaction:
+ * one query finds which names already exist, then new products are inserted
+ * and existing ones updated (matched by name, case-insensitive) with JDBC
+ * batches, and stock levels are journaled in one batch. Invalid rows are
+ * reported by line and skipped; a chunk that fails in the database rejects
+ * only its own rows. Projections are rebuilt once at the end.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    private static final String STOCK_NOTE = "Import";
+
+    /** A validated row, ready to write. stock is null when the row leaves stock unchanged. */
+    private record ImportRow(long line, String name, BigDecimal price, BigDecimal stock, Long categoryId, UnitType unitType) {
+    }
+
+    private final ProductBatchRepository productBatchRepository;
+    private final CategoryRepository categoryRepository;
+    private final StockService stockService;
+    private final ApplicationEventPublisher events;
+    private final ProjectionDispatcher projectionDispatcher;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public ProductImportService(ProductBatchRepository productBatchRepository,
+                                CategoryRepository categoryRepository,
+                                StockService stockService,
+                                ApplicationEventPublisher events,
+                                ProjectionDispatcher projectionDispatcher,
+                                JsonMapper jsonMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${product.import.chunk-size:1000}") int chunkSize,
+                                @Value("${product.import.max-errors:1000}") int maxErrors) {
+        this.productBatchRepository = productBatchRepository;
+        this.categoryRepository = categoryRepository;
+        this.stockService = stockService;
+        this.events = events;
+        this.projectionDispatcher = projectionDispatcher;
+        this.jsonMapper = jsonMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public ProductImportResult importProducts(InputStream in, MediaType contentType) {
+
+        long started = System.nanoTime();
+        ProductImportResult result = new ProductImportResult(maxErrors);
+
+        Map<String, Long> categoriesByName = new HashMap<>();
+        Set<Long> categoryIds = new HashSet<>();
+        for (Category category : categoryRepository.findAll()) {
+            categoriesByName.put(upper(category.getName()), category.getId());
+            categoryIds.add(category.getId());
+        }
+
+        // upper(name) -> line it first appeared on, to reject repeats within the upload
+        Map<String, Long> seen = new HashMap<>();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        ProductImportReader.read(in, contentType, jsonMapper, raw -> {
+            if (raw.error() != null) {
+                result.reject(raw.line(), null, raw.error());
+                return;
+            }
+            ImportRow row;
+            try {
+                row = validate(raw, categoriesByName, categoryIds);
+            } catch (ResponseStatusException e) {
+                result.reject(raw.line(), raw.fields().get("name"), e.getReason());
+                return;
+            }
+            Long firstLine = seen.putIfAbsent(upper(row.name()), row.line());
+            if (firstLine != null) {
+                result.reject(row.line(), row.name(), "Duplicate name in upload (first on line " + firstLine + ")");
+                return;
+            }
+
+            chunk.add(row);
+            if (chunk.size() >= chunkSize) {
+                write(chunk, result);
+                chunk.clear();
+            }
+        });
+        write(chunk, result);
+
+        // One rebuild instead of a stock event per row, which would only overflow the projection queue
+        if (result.getCreated() + result.getUpdated() > 0) {
+            projectionDispatcher.requestReplay();
+        }
+
+        result.finish((System.nanoTime() - started) / 1_000_000);
+        log.info("Product import: {} created, {} updated, {} rejected in {} ms",
+                result.getCreated(), result.getUpdated(), result.getRejected(), result.getElapsedMs());
+        return result;
+    }
+
+    // ---------------- WRITE ----------------
+
+    private void write(List<ImportRow> chunk, ProductImportResult result) {
+
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            int[] counts = transactionTemplate.execute(status -> writeChunk(chunk));
+            result.created(counts[0]);
+            result.updated(counts[1]);
+        } catch (RuntimeException e) {
+            log.warn("Product import chunk (lines {}-{}) failed", chunk.get(0).line(), chunk.get(chunk.size() - 1).line(), e);
+            String message = "Not imported, the batch failed: " + rootMessage(e);
+            chunk.forEach(row -> result.reject(row.line(), row.name(), message));
+        }
+    }
+
+    private int[] writeChunk(List<ImportRow> chunk) {
+
+        Map<String, Long> existing = productBatchRepository.findIdsByUpperName(
+                chunk.stream().map(r -> upper(r.name())).toList()
+        );
+
+        List<ImportRow> inserted = new ArrayList<>();
+        List<ProductBatchRepository.Row> inserts = new ArrayList<>();
+        List<ProductBatchRepository.Row> updates = new ArrayList<>();
+        Map<Long, BigDecimal> levels = new HashMap<>();
+
+        for (ImportRow row : chunk) {
+            Long id = existing.get(upper(row.name()));
+            if (id == null) {
+                inserted.add(row);
+                inserts.add(new ProductBatchRepository.Row(null, row.name(), row.price(), row.categoryId(), row.unitType()));
+            } else {
+                updates.add(new ProductBatchRepository.Row(id, row.name(), row.price(), row.categoryId(), row.unitType()));
+                if (row.stock() != null) {
+                    levels.put(id, row.stock());
+                }
+            }
+        }
+
+        List<Long> newIds = productBatchRepository.insert(inserts);
+        productBatchRepository.update(updates);
+
+        Map<Long, BigDecimal> openingBalances = new HashMap<>();
+        for (int i = 0; i < newIds.size(); i++) {
+            if (inserted.get(i).stock() != null) {
+                openingBalances.put(newIds.get(i), inserted.get(i).stock());
+            }
+        }
+        // Stock columns are levels in the importing admin's store
+        long storeId = StoreContext.currentId();
+        stockService.openingBalances(storeId, openingBalances, STOCK_NOTE);
+        stockService.setLevels(storeId, levels, STOCK_NOTE);
+        productBatchRepository.invalidateCaches();
+
+        events.publishEvent(CatalogChangedEvent.catalog());
+        events.publishEvent(CacheInvalidation.allProducts());
+        for (int i = 0; i < newIds.size(); i++) {
+            ProductBatchRepository.Row row = inserts.get(i);
+            events.publishEvent(ProductChangedEvent.of(
+                    new ProductBatchRepository.Row(newIds.get(i), row.name(), row.price(), row.categoryId(), row.unitType())));
+            events.publishEvent(AuditEvent.of(AuditAction.PRODUCT_CREATED, newIds.get(i), row.price()));
+        }
+        updates.forEach(row -> {
+            events.publishEvent(ProductChangedEvent.of(row));
+            events.publishEvent(AuditEvent.of(AuditAction.PRODUCT_UPDATED, row.id(), row.price()));
+        });
+
+        return new int[]{inserts.size(), updates.size()};
+    }
+
+    // ---------------- VALIDATION ----------------
+
+    // Same rules as ProductService.create, reported per row instead of thrown
+    private static ImportRow validate(ProductImportReader.RawRow raw,
+                                      Map<String, Long> categoriesByName,
+                                      Set<Long> categoryIds) {
+
+        Map<String, String> fields = raw.fields();
+
+        String name = trimToNull(fields.get("name"));
+        if (name == null) {
+            throw badRow("Name is required");
+        }
+        if (name.length() > 255) {
+            throw badRow("Name cannot be longer than 255 characters");
+        }
+
+        BigDecimal price = decimal(fields.get("price"), "price");
+        if (price == null) {
+            throw badRow("Price is required");
+        }
+        if (price.signum() < 0) {
+            throw badRow("Price cannot be negative");
+        }
+
+        String unit = trimToNull(fields.get("unittype"));
+        if (unit == null) {
+            throw badRow("Unit type is required");
+        }
+        UnitType unitType;
+        try {
+            unitType = UnitType.valueOf(unit.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw badRow("Unit type must be one of " + Arrays.toString(UnitType.values()));
+        }
+
+        BigDecimal stock = decimal(fields.get("stock"), "stock");
+        if (stock != null) {
+            if (stock.signum() < 0) {
+                throw badRow("Stock cannot be negative");
+            }
+            StockService.checkScale(unitType, stock);
+        }
+
+        Long categoryId;
+        String categoryIdField = trimToNull(fields.get("categoryid"));
+        String categoryName = trimToNull(fields.get("category"));
+        if (categoryIdField != null) {
+            try {
+                categoryId = Long.valueOf(categoryIdField);
+            } catch (NumberFormatException e) {
+                throw badRow("Invalid category ID: " + categoryIdField);
+            }
+            if (!categoryIds.contains(categoryId)) {
+                throw badRow("Category not found with ID: " + categoryId);
+            }
+        } else if (categoryName != null) {
+            categoryId = categoriesByName.get(upper(categoryName));
+            if (categoryId == null) {
+                throw badRow("Category not found: " + categoryName);
+            }
+        } else {
+            throw badRow("Category ID is required");
+        }
+
+        return new ImportRow(raw.line(), name, price, stock, categoryId, unitType);
+    }
+
+    // ---------------- HELPERS ----------------
+
+    private static BigDecimal decimal(String value, String field) {
+        String trimmed = trimToNull(value);
+        if (trimmed == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(trimmed);
+        } catch (NumberFormatException e) {
+            throw badRow("Invalid " + field + ": " + trimmed);
+        }
+    }
+
+    private static ResponseStatusException badRow(String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String upper(String name) {
+        return name.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
@@ -1,21 +1,34 @@
 package com.example.pos.product;
 
+import com.example.pos.audit.AuditAction;
+import com.example.pos.audit.AuditEvent;
+import com.example.pos.cache.CacheInvalidation;
 import com.example.pos.category.Category;
 import com.example.pos.category.CategoryRepository;
+import com.example.pos.event.StockChangedEvent;
+import com.example.pos.stock.StockService;
+import com.example.pos.store.StoreContext;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
+@Transactional
 public class ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher events;
+    private final StockService stockService;
+    private final ProductBatchRepository productBatchRepository;
 
     // CREATE Product
     public Product create(ProductRequest request) {
@@ -46,17 +59,25 @@ public class ProductService {
         Product product = Product.builder()
                 .name(normalizedName)
                 .price(request.getPrice())
-                .stock(request.getStock())
                 .category(category)
                 .unitType(request.getUnitType())
                 .build();
 
-        return productRepository.save(product);
+        // The form's stock is the level in the admin's store
+        long storeId = StoreContext.currentId();
+        Product saved = productRepository.save(product);
+        stockService.setLevel(storeId, saved, request.getStock());
+        events.publishEvent(CatalogChangedEvent.catalog());
+        events.publishEvent(CacheInvalidation.product(saved.getId()));
+        events.publishEvent(StockChangedEvent.of(storeId, saved));
+        events.publishEvent(ProductChangedEvent.of(saved));
+        events.publishEvent(AuditEvent.of(AuditAction.PRODUCT_CREATED, saved.getId(), saved.getPrice()));
+        return saved;
     }
 
     // GET ALL Products
     public List<Product> findAll() {
-        return productRepository.findAll();
+        return stockService.fill(StoreContext.currentId(), productRepository.findAll());
     }
 
     // UPDATE Product
@@ -84,7 +105,6 @@ public class ProductService {
         product.setName(normalizedName);
         product.setPrice(request.getPrice());
         product.setUnitType(request.getUnitType());
-        product.setStock(request.getStock());
 
 
         if (request.getCategoryId() != null) {
@@ -103,7 +123,83 @@ public class ProductService {
             );
         }
 
-        return productRepository.save(product);
+        // The form's stock is the level in the admin's store
+        long storeId = StoreContext.currentId();
+        Product saved = productRepository.save(product);
+        stockService.setLevel(storeId, saved, request.getStock());
+        events.publishEvent(CatalogChangedEvent.catalog());
+        events.publishEvent(CacheInvalidation.product(saved.getId()));
+        events.publishEvent(StockChangedEvent.of(storeId, saved));
+        events.publishEvent(ProductChangedEvent.of(saved));
+        events.publishEvent(AuditEvent.of(AuditAction.PRODUCT_UPDATED, saved.getId(), saved.getPrice()));
+        return saved;
+    }
+
+    // BULK price change: one UPDATE for the whole category / id list
+    public BulkUpdateResult adjustPrices(BulkPriceRequest request) {
+
+        boolean byCategory = request.getCategoryId() != null;
+        boolean byIds = request.getProductIds() != null && !request.getProductIds().isEmpty();
+        if (byCategory == byIds) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Give either a category ID or a list of product IDs"
+            );
+        }
+        if ((request.getPercent() == null) == (request.getAmount() == null)) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Give either a percent or an amount"
+            );
+        }
+        if (request.getPercent() != null && request.getPercent().compareTo(BigDecimal.valueOf(-100)) <= 0) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Percent must be above -100"
+            );
+        }
+        if (request.getAmount() != null && request.getAmount().stripTrailingZeros().scale() > 2) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Amount cannot have more than 2 decimal places"
+            );
+        }
+        if (byCategory && !categoryRepository.existsById(request.getCategoryId())) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Category not found with ID: " + request.getCategoryId()
+            );
+        }
+
+        Long categoryId = byCategory ? request.getCategoryId() : null;
+        List<Long> ids = byIds ? request.getProductIds() : null;
+
+        if (request.getAmount() != null && request.getAmount().signum() < 0
+                && productBatchRepository.countPricedBelow(categoryId, ids, request.getAmount()) > 0) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Price cannot go below zero"
+            );
+        }
+
+        BigDecimal factor = request.getPercent() == null ? null
+                : BigDecimal.ONE.add(request.getPercent().movePointLeft(2));
+        int updated = productBatchRepository.adjustPrices(categoryId, ids, factor, request.getAmount());
+
+        if (updated > 0) {
+            events.publishEvent(CatalogChangedEvent.catalog());
+            List<ProductBatchRepository.Row> repriced = productBatchRepository.findRows(categoryId, ids);
+            repriced.forEach(row -> events.publishEvent(ProductChangedEvent.of(row)));
+            if (byIds) {
+                ids.forEach(productId -> events.publishEvent(CacheInvalidation.product(productId)));
+                repriced.forEach(row ->
+                        events.publishEvent(AuditEvent.of(AuditAction.PRODUCT_PRICES_ADJUSTED, row.id(), row.price())));
+            } else {
+                events.publishEvent(CacheInvalidation.allProducts());
+                events.publishEvent(AuditEvent.of(AuditAction.CATEGORY_PRICES_ADJUSTED, categoryId, updated));
+            }
+        }
+        return new BulkUpdateResult(updated);
     }
 
     // DELETE Product
@@ -117,5 +213,10 @@ public class ProductService {
         }
 
         productRepository.deleteById(id);
+        events.publishEvent(CatalogChangedEvent.catalog());
+        events.publishEvent(CacheInvalidation.product(id));
+        events.publishEvent(StockChangedEvent.deleted(id));
+        events.publishEvent(ProductChangedEvent.deleted(id));
+        events.publishEvent(AuditEvent.of(AuditAction.PRODUCT_DELETED, id, 0));
     }
 }
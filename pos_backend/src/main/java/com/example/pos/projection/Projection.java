@@ -0,0 +1,24 @@
+package com.example.pos.projection;
+
+import com.example.pos.event.DomainEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A read model kept up to date from committed domain events.
+ *
+ * All methods are called from the dispatcher's single worker thread, so
+ * implementations need no locking for their own state; they only have to
+ * publish whatever request threads read safely.
+ */
+public interface Projection {
+
+    /** Oldest sales a rebuild has to replay; null for the whole sale history. */
+    LocalDateTime replayFrom();
+
+    /** Drops all state ahead of a replay. */
+    void reset();
+
+    void apply(List<DomainEvent> events);
+}
@@ -0,0 +1,263 @@
+package com.example.pos.projection;
+
+import com.example.pos.event.DomainEvent;
+import com.example.pos.event.SaleCompletedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Feeds committed domain events to every Projection, off the request thread.
+ *
+ * Events are queued after commit on a bounded queue and applied in batches by
+ * one worker thread. A full queue blocks the committing thread for at most
+ * projection.offer-timeout-ms (backpressure); past that the event is dropped
+ * and a replay is scheduled instead, so checkout never waits on projections
+ * for long and the read models still converge.
+ *
+ * A replay resets all projections and rebuilds them from sale/sale_item and
+ * product on the worker thread. Events still queued from before the replay
+ * are skipped when the replay already covered them.
+ */
+@Slf4j
+@Component
+public class ProjectionDispatcher {
+
+    private record Envelope(DomainEvent event, long committedAt) {
+    }
+
+    private final List<Projection> projections;
+    private final ProjectionHistory history;
+    private final BlockingQueue<Envelope> queue;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final Counter dropped;
+
+    private final AtomicBoolean replayRequested = new AtomicBoolean();
+    private final Thread worker;
+    private volatile boolean running = true;
+    private volatile boolean replaying;
+
+    // Worker thread only
+    private long replayStartedAt = System.nanoTime();
+    private long[] replayedSaleIds = new long[0];
+
+    public ProjectionDispatcher(List<Projection> projections,
+                                ProjectionHistory history,
+                                MeterRegistry meterRegistry,
+                                @Value("${projection.queue-capacity:10000}") int queueCapacity,
+                                @Value("${projection.batch-size:500}") int batchSize,
+                                @Value("${projection.offer-timeout-ms:50}") long offerTimeoutMs) {
+        this.projections = projections;
+        this.history = history;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+
+        this.dropped = Counter.builder("pos.projection.dropped")
+                .description("Events dropped because the projection queue was full")
+                .register(meterRegistry);
+        Gauge.builder("pos.projection.queue", queue, BlockingQueue::size)
+                .description("Events waiting to be applied to projections")
+                .register(meterRegistry);
+
+        this.worker = new Thread(this::run, "projection-dispatcher");
+        this.worker.setDaemon(true);
+    }
+
+    // Projections live in memory: build them once the application is up
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        requestReplay();
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    // ---------------- PUBLISH ----------------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEvent(DomainEvent event) {
+        // A replay that has not started yet will read this commit anyway; don't wait on a full queue
+        if (replayRequested.get()) {
+            dropped.increment();
+            return;
+        }
+        try {
+            if (queue.offer(new Envelope(event, System.nanoTime()), offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.increment();
+        if (replayRequested.compareAndSet(false, true)) {
+            log.warn("Projection queue full, dropping events and scheduling a replay");
+        }
+    }
+
+    public void requestReplay() {
+        replayRequested.set(true);
+    }
+
+    public boolean isReplaying() {
+        return replaying || replayRequested.get();
+    }
+
+    // ---------------- WORKER ----------------
+
+    private void run() {
+        List<Envelope> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                if (replayRequested.getAndSet(false)) {
+                    replay();
+                }
+
+                Envelope first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                dispatch(batch.stream()
+                        .filter(this::notReplayed)
+                        .map(Envelope::event)
+                        .toList());
+                batch.clear();
+
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Projection replay failed, retrying", ex);
+                batch.clear();
+                sleepQuietly();
+                requestReplay();
+            }
+        }
+    }
+
+    private void dispatch(List<DomainEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        for (Projection projection : projections) {
+            try {
+                projection.apply(events);
+            } catch (RuntimeException ex) {
+                log.error("Projection {} failed on a batch of {} events",
+                        projection.getClass().getSimpleName(), events.size(), ex);
+            }
+        }
+    }
+
+    private void replay() {
+        replaying = true;
+        try {
+            long startedAt = System.nanoTime();
+            projections.forEach(Projection::reset);
+
+            List<DomainEvent> buffer = new ArrayList<>(batchSize);
+            history.readStock(event -> buffer(buffer, event));
+            flush(buffer);
+
+            LongList saleIds = new LongList();
+            history.readSales(replayFrom(), event -> {
+                saleIds.add(event.saleId());
+                buffer(buffer, event);
+            });
+            flush(buffer);
+
+            replayStartedAt = startedAt;
+            replayedSaleIds = saleIds.toArray();
+            log.info("Projections rebuilt from {} sales", replayedSaleIds.length);
+        } finally {
+            replaying = false;
+        }
+    }
+
+    private LocalDateTime replayFrom() {
+        LocalDateTime from = LocalDateTime.MAX;
+        for (Projection projection : projections) {
+            LocalDateTime needed = projection.replayFrom();
+            if (needed == null) {
+                return null;
+            }
+            if (needed.isBefore(from)) {
+                from = needed;
+            }
+        }
+        return from == LocalDateTime.MAX ? null : from;
+    }
+
+    // Committed before the replay started: its effect is already in the tables the
+    // replay read. Sales committed while it ran may or may not have been read, so
+    // those are checked against the replayed ids (sorted, as read in id order).
+    private boolean notReplayed(Envelope envelope) {
+        if (envelope.committedAt() - replayStartedAt < 0) {
+            return false;
+        }
+        return !(envelope.event() instanceof SaleCompletedEvent sale)
+                || Arrays.binarySearch(replayedSaleIds, sale.saleId()) < 0;
+    }
+
+    private void buffer(List<DomainEvent> buffer, DomainEvent event) {
+        buffer.add(event);
+        if (buffer.size() >= batchSize) {
+            flush(buffer);
+        }
+    }
+
+    private void flush(List<DomainEvent> buffer) {
+        dispatch(List.copyOf(buffer));
+        buffer.clear();
+    }
+
+    private static void sleepQuietly() {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class LongList {
+
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.pos.projection;
+
+import com.example.pos.event.SaleCompletedEvent;
+import com.example.pos.event.StockChangedEvent;
+import com.example.pos.product.UnitType;
+import com.example.pos.stock.StockJournal;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Rebuilds the event stream from the tables, for projection replays.
+ *
+ * Rows are streamed (fetch size, inside a transaction so the PostgreSQL
+ * driver uses a cursor). The transaction is deliberately not read-only:
+ * a replay has to see everything committed before it started, which a
+ * lagging read replica might not.
+ */
+@Component
+public class ProjectionHistory {
+
+    private static final String SALES = """
+            select s.id, s.store_id, s.timestamp, s.total_amount, u.username,
+                   i.product_id, i.product_name, i.unit_type, i.quantity, i.price_at_sale
+            from sale s
+            join users u on u.id = s.cashier_id
+            join sale_item i on i.sale_id = s.id
+            where s.timestamp >= ?
+            order by s.id, i.id
+            """;
+
+    private static final String PRODUCTS = """
+            select p.id, p.name, p.unit_type
+            from product p
+            """;
+
+    private static final String STORES = "select id from store order by id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockJournal stockJournal;
+
+    public ProjectionHistory(DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             StockJournal stockJournal) {
+        this.stockJournal = stockJournal;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /** Every product's level in every store, store by store. */
+    public void readStock(Consumer<StockChangedEvent> consumer) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (long storeId : jdbcTemplate.queryForList(STORES, Long.class)) {
+                Map<Long, BigDecimal> stock = stockJournal.currentAll(storeId);
+                jdbcTemplate.query(PRODUCTS, rs -> {
+                    long id = rs.getLong("id");
+                    consumer.accept(new StockChangedEvent(
+                            storeId,
+                            id,
+                            rs.getString("name"),
+                            UnitType.valueOf(rs.getString("unit_type")),
+                            stock.getOrDefault(id, BigDecimal.ZERO)
+                    ));
+                });
+            }
+        });
+    }
+
+    /** Sales from the given time (null: all), in sale id order. */
+    public void readSales(LocalDateTime from, Consumer<SaleCompletedEvent> consumer) {
+
+        Timestamp since = Timestamp.valueOf(from != null ? from : LocalDateTime.of(1970, 1, 1, 0, 0));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            SaleAssembler assembler = new SaleAssembler(consumer);
+            jdbcTemplate.query(SALES, rs -> {
+                assembler.row(
+                        rs.getLong("id"),
+                        rs.getLong("store_id"),
+                        rs.getTimestamp("timestamp").toLocalDateTime(),
+                        rs.getBigDecimal("total_amount"),
+                        rs.getString("username"),
+                        new SaleCompletedEvent.Line(
+                                rs.getLong("product_id"),
+                                rs.getString("product_name"),
+                                UnitType.valueOf(rs.getString("unit_type")),
+                                rs.getBigDecimal("quantity"),
+                                rs.getBigDecimal("price_at_sale")
+                        )
+                );
+            }, since);
+            assembler.flush();
+        });
+    }
+
+    // Rows arrive ordered by sale id, so a sale's lines are adjacent
+    private static class SaleAssembler {
+
+        private final Consumer<SaleCompletedEvent> consumer;
+
+        private Long saleId;
+        private Long storeId;
+        private LocalDateTime timestamp;
+        private BigDecimal total;
+        private String cashier;
+        private List<SaleCompletedEvent.Line> lines = new ArrayList<>();
+
+        SaleAssembler(Consumer<SaleCompletedEvent> consumer) {
+            this.consumer = consumer;
+        }
+
+        void row(long id, long store, LocalDateTime ts, BigDecimal amount, String username,
+                 SaleCompletedEvent.Line line) {
+            if (saleId == null || saleId != id) {
+                flush();
+                saleId = id;
+                storeId = store;
+                timestamp = ts;
+                total = amount;
+                cashier = username;
+            }
+            lines.add(line);
+        }
+
+        void flush() {
+            if (saleId != null) {
+                consumer.accept(new SaleCompletedEvent(saleId, storeId, timestamp, cashier, total, List.copyOf(lines)));
+                lines = new ArrayList<>();
+                saleId = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.pos.promotion;
+
+/** The promotion applied to a line and what it takes off, in cents (see Money). */
+public record Discount(long promotionId, String name, long cents) {
+}
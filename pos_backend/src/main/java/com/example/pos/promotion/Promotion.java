@@ -0,0 +1,52 @@
+package com.example.pos.promotion;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Entity
+@Getter @Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Promotion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PromotionType type;
+
+    // Target: one product or every product of one category
+    private Long productId;
+
+    private Long categoryId;
+
+    // PERCENT_OFF
+    private BigDecimal percent;
+
+    // MULTI_BUY
+    private Integer buyQuantity;
+
+    private Integer payQuantity;
+
+    // Daily window, e.g. a happy hour; both null for all day
+    private LocalTime startTime;
+
+    private LocalTime endTime;
+
+    // Both optional
+    private LocalDateTime validFrom;
+
+    private LocalDateTime validUntil;
+
+    private boolean active;
+}
@@ -0,0 +1,5 @@
+package com.example.pos.promotion;
+
+/** Published inside the transaction that changes promotions; the rule tables are recompiled after commit. */
+public record PromotionChangedEvent() {
+}
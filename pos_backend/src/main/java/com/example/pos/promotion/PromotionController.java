@@ -0,0 +1,34 @@
+package com.example.pos.promotion;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/promotions")
+@RequiredArgsConstructor
+public class PromotionController {
+
+    private final PromotionService promotionService;
+
+    @GetMapping
+    public List<Promotion> getAll() {
+        return promotionService.findAll();
+    }
+
+    @PostMapping
+    public Promotion create(@RequestBody PromotionRequest request) {
+        return promotionService.create(request);
+    }
+
+    @PutMapping("/{id}")
+    public Promotion update(@PathVariable Long id, @RequestBody PromotionRequest request) {
+        return promotionService.update(id, request);
+    }
+
+    @DeleteMapping("/{id}")
+    public void delete(@PathVariable Long id) {
+        promotionService.delete(id);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.pos.promotion;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Holds the compiled PromotionTable that checkout and carts price with.
+ * It is compiled on first use and again after every committed promotion
+ * change (also those of other instances, see cache.InvalidationListener).
+ */
+@Slf4j
+@Component
+public class PromotionEngine {
+
+    private final PromotionRepository promotionRepository;
+    private final TransactionTemplate primaryRead;
+
+    private volatile PromotionTable table;
+
+    public PromotionEngine(PromotionRepository promotionRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.promotionRepository = promotionRepository;
+        // Not read-only, so a change is never compiled from a lagging read replica
+        this.primaryRead = new TransactionTemplate(transactionManager);
+    }
+
+    public PromotionTable current() {
+        PromotionTable current = table;
+        return current != null ? current : compile();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPromotionChanged(PromotionChangedEvent event) {
+        compile();
+    }
+
+    // Serialized so an older compile can never replace a newer table
+    private synchronized PromotionTable compile() {
+        long started = System.nanoTime();
+        PromotionTable compiled = primaryRead.execute(status ->
+                PromotionTable.compile(promotionRepository.findByActiveTrue(), LocalDateTime.now()));
+        table = compiled;
+        log.info("Compiled {} active promotions in {} ms", compiled.size(), (System.nanoTime() - started) / 1_000_000);
+        return compiled;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.pos.promotion;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface PromotionRepository extends JpaRepository<Promotion, Long> {
+
+    List<Promotion> findByActiveTrue();
+}
@@ -0,0 +1,24 @@
+package com.example.pos.promotion;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Data
+public class PromotionRequest {
+    private String name;
+    private PromotionType type;
+    private Long productId;
+    private Long categoryId;
+    private BigDecimal percent;
+    private Integer buyQuantity;
+    private Integer payQuantity;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private LocalDateTime validFrom;
+    private LocalDateTime validUntil;
+    // Defaults to true on create
+    private Boolean active;
+}
@@ -0,0 +1,155 @@
+package com.example.pos.promotion;
+
+import com.example.pos.cache.CacheInvalidation;
+import com.example.pos.category.CategoryRepository;
+import com.example.pos.common.Money;
+import com.example.pos.product.Product;
+import com.example.pos.product.ProductRepository;
+import com.example.pos.product.UnitType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class PromotionService {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final PromotionRepository promotionRepository;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher events;
+
+    @Transactional(readOnly = true)
+    public List<Promotion> findAll() {
+        return promotionRepository.findAll();
+    }
+
+    public Promotion create(PromotionRequest request) {
+        Promotion promotion = new Promotion();
+        apply(promotion, request);
+        promotion.setActive(request.getActive() == null || request.getActive());
+        return save(promotion);
+    }
+
+    public Promotion update(Long id, PromotionRequest request) {
+        Promotion promotion = promotionRepository.findById(id)
+                .orElseThrow(() ->
+                        new ResponseStatusException(
+                                HttpStatus.NOT_FOUND,
+                                "Promotion not found"
+                        ));
+        apply(promotion, request);
+        if (request.getActive() != null) {
+            promotion.setActive(request.getActive());
+        }
+        return save(promotion);
+    }
+
+    public void delete(Long id) {
+
+        if (!promotionRepository.existsById(id)) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    "Promotion not found"
+            );
+        }
+
+        promotionRepository.deleteById(id);
+        changed(id);
+    }
+
+    // ---------------- HELPERS ----------------
+
+    private Promotion save(Promotion promotion) {
+        Promotion saved = promotionRepository.save(promotion);
+        changed(saved.getId());
+        return saved;
+    }
+
+    // Recompiled here after commit, and on the other instances through the cache bus
+    private void changed(Long id) {
+        events.publishEvent(new PromotionChangedEvent());
+        events.publishEvent(CacheInvalidation.promotion(id));
+    }
+
+    // PromotionTable relies on everything checked here
+    private void apply(Promotion promotion, PromotionRequest request) {
+
+        if (!StringUtils.hasText(request.getName())) {
+            throw badRequest("Promotion name is required");
+        }
+        if (request.getType() == null) {
+            throw badRequest("Promotion type is required");
+        }
+        if ((request.getProductId() == null) == (request.getCategoryId() == null)) {
+            throw badRequest("A promotion applies to either a product or a category");
+        }
+
+        Product product = null;
+        if (request.getProductId() != null) {
+            product = productRepository.findById(request.getProductId())
+                    .orElseThrow(() -> badRequest("Product not found with ID: " + request.getProductId()));
+        } else if (!categoryRepository.existsById(request.getCategoryId())) {
+            throw badRequest("Category not found with ID: " + request.getCategoryId());
+        }
+
+        switch (request.getType()) {
+            case PERCENT_OFF -> {
+                BigDecimal percent = request.getPercent();
+                if (percent == null || percent.signum() <= 0 || percent.compareTo(HUNDRED) > 0) {
+                    throw badRequest("Percent must be greater than 0 and at most 100");
+                }
+                if (percent.stripTrailingZeros().scale() > Money.SCALE) {
+                    throw badRequest("Percent cannot have more than 2 decimal places");
+                }
+            }
+            case MULTI_BUY -> {
+                Integer buy = request.getBuyQuantity();
+                Integer pay = request.getPayQuantity();
+                if (buy == null || pay == null || buy < 2 || pay < 1 || pay >= buy) {
+                    throw badRequest("Multi-buy needs a buy quantity of at least 2 and a smaller pay quantity");
+                }
+                if (product != null && product.getUnitType() != UnitType.UNIT) {
+                    throw badRequest("Multi-buy only applies to products sold by unit");
+                }
+            }
+        }
+
+        if ((request.getStartTime() == null) != (request.getEndTime() == null)) {
+            throw badRequest("Start and end time must be set together");
+        }
+        if (request.getStartTime() != null && request.getStartTime().equals(request.getEndTime())) {
+            throw badRequest("Start and end time must differ");
+        }
+        if (request.getValidFrom() != null && request.getValidUntil() != null
+                && !request.getValidFrom().isBefore(request.getValidUntil())) {
+            throw badRequest("Valid from must be before valid until");
+        }
+
+        promotion.setName(request.getName().trim());
+        promotion.setType(request.getType());
+        promotion.setProductId(request.getProductId());
+        promotion.setCategoryId(request.getCategoryId());
+        promotion.setPercent(request.getType() == PromotionType.PERCENT_OFF ? request.getPercent() : null);
+        promotion.setBuyQuantity(request.getType() == PromotionType.MULTI_BUY ? request.getBuyQuantity() : null);
+        promotion.setPayQuantity(request.getType() == PromotionType.MULTI_BUY ? request.getPayQuantity() : null);
+        promotion.setStartTime(request.getStartTime());
+        promotion.setEndTime(request.getEndTime());
+        promotion.setValidFrom(request.getValidFrom());
+        promotion.setValidUntil(request.getValidUntil());
+    }
+
+    private static ResponseStatusException badRequest(String reason) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, reason);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.pos.promotion;
+
+import com.example.pos.common.Money;
+import com.example.pos.common.Quantity;
+import com.example.pos.product.Product;
+import com.example.pos.product.UnitType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The active promotions compiled into lookup tables: rules by product id and
+ * by category id, with percentages and time windows reduced to primitives.
+ * Pricing a line only looks at the rules of its product and of its category,
+ * so a basket costs O(lines + matching rules) however many promotions exist.
+ *
+ * Immutable; PromotionEngine swaps in a new table whenever promotions change.
+ * Rules outside their date range are skipped at lookup (and dropped by the
+ * next compile once they have ended).
+ */
+public final class PromotionTable {
+
+    public static final PromotionTable EMPTY = new PromotionTable(Map.of(), Map.of(), 0);
+
+    private static final Rule[] NONE = new Rule[0];
+
+    // Everything a lookup needs; startSecond is -1 for rules without a daily window
+    private record Rule(long id, String name, PromotionType type, long basisPoints, int buy, int pay,
+                        int startSecond, int endSecond, LocalDateTime validFrom, LocalDateTime validUntil) {
+
+        boolean appliesAt(LocalDateTime at, int secondOfDay) {
+            if (validFrom != null && at.isBefore(validFrom)) {
+                return false;
+            }
+            if (validUntil != null && !at.isBefore(validUntil)) {
+                return false;
+            }
+            if (startSecond < 0) {
+                return true;
+            }
+            // A window like 22:00-02:00 runs across midnight
+            return startSecond <= endSecond
+                    ? secondOfDay >= startSecond && secondOfDay < endSecond
+                    : secondOfDay >= startSecond || secondOfDay < endSecond;
+        }
+
+        long discount(UnitType unitType, long unitPrice, long quantity, long gross) {
+            return switch (type) {
+                case PERCENT_OFF -> Money.percent(gross, basisPoints);
+                case MULTI_BUY -> {
+                    if (unitType != UnitType.UNIT) {
+                        yield 0;
+                    }
+                    long free = quantity / Quantity.ONE / buy * (buy - pay);
+                    yield Math.min(gross, Money.times(unitPrice, free * Quantity.ONE));
+                }
+            };
+        }
+    }
+
+    private final Map<Long, Rule[]> byProduct;
+    private final Map<Long, Rule[]> byCategory;
+    private final int size;
+
+    private PromotionTable(Map<Long, Rule[]> byProduct, Map<Long, Rule[]> byCategory, int size) {
+        this.byProduct = byProduct;
+        this.byCategory = byCategory;
+        this.size = size;
+    }
+
+    // ---------------- COMPILE ----------------
+
+    /** Indexes the active promotions that have not ended by now; expects them validated (PromotionService). */
+    public static PromotionTable compile(Collection<Promotion> promotions, LocalDateTime now) {
+
+        Map<Long, List<Rule>> byProduct = new HashMap<>();
+        Map<Long, List<Rule>> byCategory = new HashMap<>();
+        int size = 0;
+
+        List<Promotion> ordered = new ArrayList<>(promotions);
+        ordered.sort(Comparator.comparing(Promotion::getId));
+
+        for (Promotion promotion : ordered) {
+            if (!promotion.isActive()
+                    || (promotion.getValidUntil() != null && !promotion.getValidUntil().isAfter(now))) {
+                continue;
+            }
+            Rule rule = new Rule(
+                    promotion.getId(),
+                    promotion.getName(),
+                    promotion.getType(),
+                    promotion.getPercent() == null ? 0 : Money.of(promotion.getPercent()),
+                    promotion.getBuyQuantity() == null ? 0 : promotion.getBuyQuantity(),
+                    promotion.getPayQuantity() == null ? 0 : promotion.getPayQuantity(),
+                    promotion.getStartTime() == null ? -1 : promotion.getStartTime().toSecondOfDay(),
+                    promotion.getEndTime() == null ? -1 : promotion.getEndTime().toSecondOfDay(),
+                    promotion.getValidFrom(),
+                    promotion.getValidUntil()
+            );
+            if (promotion.getProductId() != null) {
+                byProduct.computeIfAbsent(promotion.getProductId(), id -> new ArrayList<>()).add(rule);
+            } else {
+                byCategory.computeIfAbsent(promotion.getCategoryId(), id -> new ArrayList<>()).add(rule);
+            }
+            size++;
+        }
+
+        return new PromotionTable(toArrays(byProduct), toArrays(byCategory), size);
+    }
+
+    private static Map<Long, Rule[]> toArrays(Map<Long, List<Rule>> rules) {
+        Map<Long, Rule[]> arrays = new HashMap<>(rules.size() * 4 / 3 + 1);
+        rules.forEach((id, list) -> arrays.put(id, list.toArray(NONE)));
+        return arrays;
+    }
+
+    // ---------------- LOOKUP ----------------
+
+    /**
+     * The largest discount among the rules of the product and of its category that
+     * apply at that moment, or null. Ties go to the product's own rule, then to the
+     * older promotion. Amounts in cents, quantity in hundredths (Money, Quantity).
+     */
+    public Discount best(Product product, long unitPrice, long quantity, long gross, LocalDateTime at) {
+
+        Rule[] productRules = byProduct.getOrDefault(product.getId(), NONE);
+        Rule[] categoryRules = product.getCategory() == null
+                ? NONE
+                : byCategory.getOrDefault(product.getCategory().getId(), NONE);
+        if (productRules.length == 0 && categoryRules.length == 0) {
+            return null;
+        }
+
+        int secondOfDay = at.toLocalTime().toSecondOfDay();
+        Rule best = null;
+        long bestCents = 0;
+
+        int count = productRules.length + categoryRules.length;
+        for (int i = 0; i < count; i++) {
+            Rule rule = i < productRules.length ? productRules[i] : categoryRules[i - productRules.length];
+            if (!rule.appliesAt(at, secondOfDay)) {
+                continue;
+            }
+            long cents = rule.discount(product.getUnitType(), unitPrice, quantity, gross);
+            if (cents > bestCents) {
+                best = rule;
+                bestCents = cents;
+            }
+        }
+
+        return best == null ? null : new Discount(best.id(), best.name(), bestCents);
+    }
+
+    /** Number of compiled rules. */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.pos.promotion;
+
+public enum PromotionType {
+    // percent off the line
+    PERCENT_OFF,
+    // buy buyQuantity units, pay for payQuantity (UNIT products only)
+    MULTI_BUY
+}
@@ -0,0 +1,206 @@
+package com.example.pos.report;
+
+import com.example.pos.common.Money;
+import com.example.pos.common.Quantity;
+import com.example.pos.event.DomainEvent;
+import com.example.pos.event.SaleCompletedEvent;
+import com.example.pos.event.StockChangedEvent;
+import com.example.pos.projection.Projection;
+import com.example.pos.report.dto.DailyRevenueDTO;
+import com.example.pos.report.dto.DashboardDTO;
+import com.example.pos.report.dto.LowStockDTO;
+import com.example.pos.report.dto.TopProductDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Admin dashboard read model, per store: revenue per day and best sellers over
+ * the last projection.dashboard.days days, plus products at or below the
+ * low-stock threshold. Maintained from events; request threads only read the
+ * immutable DashboardDTOs published after each batch. A batch re-renders only
+ * the stores it touched (all of them once the day rolls over).
+ */
+@Component
+public class DashboardProjection implements Projection {
+
+    private final int days;
+    private final int topLimit;
+    private final BigDecimal lowStockThreshold;
+
+    // Worker thread only
+    private final Map<Long, StoreTotals> stores = new HashMap<>();
+    private LocalDate renderedFor = LocalDate.now();
+    private boolean wasReset;
+
+    private volatile Map<Long, DashboardDTO> views = Map.of();
+
+    public DashboardProjection(@Value("${projection.dashboard.days:30}") int days,
+                               @Value("${projection.dashboard.top-limit:10}") int topLimit,
+                               @Value("${projection.dashboard.low-stock-threshold:10}") BigDecimal lowStockThreshold) {
+        this.days = days;
+        this.topLimit = topLimit;
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    public DashboardDTO view(long storeId) {
+        DashboardDTO view = views.get(storeId);
+        return view != null ? view : render(new StoreTotals());
+    }
+
+    // ---------------- PROJECTION ----------------
+
+    @Override
+    public LocalDateTime replayFrom() {
+        return windowStart().atStartOfDay();
+    }
+
+    @Override
+    public void reset() {
+        stores.clear();
+        wasReset = true;
+    }
+
+    @Override
+    public void apply(List<DomainEvent> events) {
+
+        LocalDate windowStart = windowStart();
+        Set<Long> touched = new HashSet<>();
+
+        for (DomainEvent event : events) {
+            if (event instanceof SaleCompletedEvent sale) {
+                LocalDate day = sale.timestamp().toLocalDate();
+                if (day.isBefore(windowStart)) {
+                    continue;
+                }
+                store(sale.storeId()).byDay.computeIfAbsent(day, d -> new DayTotals()).add(sale);
+                touched.add(sale.storeId());
+
+            } else if (event instanceof StockChangedEvent change) {
+                if (change.stock() == null) {
+                    // Deleted: gone from every store
+                    stores.forEach((storeId, totals) -> {
+                        if (totals.stock.remove(change.productId()) != null) {
+                            touched.add(storeId);
+                        }
+                    });
+                } else {
+                    store(change.storeId()).stock.put(change.productId(), change);
+                    touched.add(change.storeId());
+                }
+            }
+        }
+
+        // Views from before a reset are replaced as a whole, dropping stores without state
+        LocalDate today = LocalDate.now();
+        if (wasReset || !today.equals(renderedFor)) {
+            touched.addAll(stores.keySet());
+            renderedFor = today;
+        }
+        if (touched.isEmpty() && !wasReset) {
+            return;
+        }
+
+        Map<Long, DashboardDTO> next = wasReset ? new HashMap<>() : new HashMap<>(views);
+        wasReset = false;
+        for (Long storeId : touched) {
+            StoreTotals totals = stores.get(storeId);
+            totals.byDay.headMap(windowStart).clear();
+            next.put(storeId, render(totals));
+        }
+        views = Map.copyOf(next);
+    }
+
+    private StoreTotals store(Long storeId) {
+        return stores.computeIfAbsent(storeId, id -> new StoreTotals());
+    }
+
+    // ---------------- VIEW ----------------
+
+    private DashboardDTO render(StoreTotals store) {
+
+        LocalDate today = LocalDate.now();
+        DayTotals todayTotals = store.byDay.getOrDefault(today, new DayTotals());
+
+        Map<Long, ProductTotals> top = new HashMap<>();
+        store.byDay.values().forEach(totals ->
+                totals.products.forEach((productId, product) -> {
+                    ProductTotals sum = top.computeIfAbsent(productId, id -> new ProductTotals(product.name));
+                    sum.quantity = Math.addExact(sum.quantity, product.quantity);
+                })
+        );
+
+        return DashboardDTO.builder()
+                .today(today)
+                .todaySales(todayTotals.sales)
+                .todayRevenue(Money.toDecimal(todayTotals.revenue))
+                .dailyRevenue(store.byDay.entrySet().stream()
+                        .map(e -> DailyRevenueDTO.builder()
+                                .date(e.getKey())
+                                .total(Money.toDecimal(e.getValue().revenue))
+                                .build())
+                        .toList())
+                .topProducts(top.entrySet().stream()
+                        .sorted((a, b) -> Long.compare(b.getValue().quantity, a.getValue().quantity))
+                        .limit(topLimit)
+                        .map(e -> TopProductDTO.builder()
+                                .productId(e.getKey())
+                                .name(e.getValue().name)
+                                .quantity(Quantity.toDecimal(e.getValue().quantity))
+                                .build())
+                        .toList())
+                .lowStock(store.stock.values().stream()
+                        .filter(p -> p.stock().compareTo(lowStockThreshold) <= 0)
+                        .sorted(Comparator.comparing(StockChangedEvent::stock))
+                        .map(p -> LowStockDTO.builder()
+                                .id(p.productId())
+                                .name(p.productName())
+                                .stock(p.stock())
+                                .unitType(p.unitType())
+                                .build())
+                        .toList())
+                .asOf(LocalDateTime.now())
+                .build();
+    }
+
+    private LocalDate windowStart() {
+        return LocalDate.now().minusDays(days - 1L);
+    }
+
+    // ---------------- STATE ----------------
+
+    private static class StoreTotals {
+        final SortedMap<LocalDate, DayTotals> byDay = new TreeMap<>();
+        final Map<Long, StockChangedEvent> stock = new HashMap<>();
+    }
+
+    // Revenue in cents, quantities in hundredths (see Money / Quantity)
+    private static class DayTotals {
+        long sales;
+        long revenue;
+        final Map<Long, ProductTotals> products = new HashMap<>();
+
+        void add(SaleCompletedEvent sale) {
+            sales++;
+            revenue = Money.add(revenue, Money.of(sale.totalAmount()));
+            for (SaleCompletedEvent.Line line : sale.lines()) {
+                ProductTotals product = products.computeIfAbsent(
+                        line.productId(), id -> new ProductTotals(line.productName()));
+                product.quantity = Math.addExact(product.quantity, Quantity.of(line.quantity()));
+            }
+        }
+    }
+
+    private static class ProductTotals {
+        final String name;
+        long quantity;
+
+        ProductTotals(String name) {
+            this.name = name;
+        }
+    }
+}
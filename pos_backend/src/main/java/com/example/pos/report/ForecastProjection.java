@@ -0,0 +1,153 @@
+package com.example.pos.report;
+
+import com.example.pos.common.Quantity;
+import com.example.pos.event.DomainEvent;
+import com.example.pos.event.SaleCompletedEvent;
+import com.example.pos.event.StockChangedEvent;
+import com.example.pos.product.UnitType;
+import com.example.pos.projection.Projection;
+import com.example.pos.report.dto.ReorderSuggestionDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Demand forecast read model, per store: each product's stock and its
+ * Velocity, an exponentially weighted daily sales rate with a half-life of
+ * projection.forecast.half-life-days. Sales update it as they commit; a
+ * replay rebuilds it from the last projection.forecast.history-days of
+ * sale_item, older days weighing next to nothing.
+ *
+ * Entries are immutable and replaced one at a time, so request threads
+ * compute suggestions straight from the live maps.
+ */
+@Component
+public class ForecastProjection implements Projection {
+
+    private record Item(String name, UnitType unitType, BigDecimal stock, Velocity velocity) {
+    }
+
+    private final double alpha;
+    private final int historyDays;
+
+    private volatile Map<Long, Map<Long, Item>> stores = new ConcurrentHashMap<>();
+
+    public ForecastProjection(@Value("${projection.forecast.half-life-days:7}") double halfLifeDays,
+                              @Value("${projection.forecast.history-days:90}") int historyDays) {
+        this.alpha = Velocity.alpha(halfLifeDays);
+        this.historyDays = historyDays;
+    }
+
+    // ---------------- PROJECTION ----------------
+
+    @Override
+    public LocalDateTime replayFrom() {
+        return LocalDate.now().minusDays(historyDays).atStartOfDay();
+    }
+
+    @Override
+    public void reset() {
+        stores = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void apply(List<DomainEvent> events) {
+        Map<Long, Map<Long, Item>> current = stores;
+
+        for (DomainEvent event : events) {
+            if (event instanceof SaleCompletedEvent sale) {
+                long day = sale.timestamp().toLocalDate().toEpochDay();
+                Map<Long, Item> store = store(current, sale.storeId());
+                for (SaleCompletedEvent.Line line : sale.lines()) {
+                    long quantity = Quantity.of(line.quantity());
+                    store.compute(line.productId(), (id, item) -> item == null
+                            ? new Item(line.productName(), line.unitType(), null, Velocity.NONE.plus(day, quantity, alpha))
+                            : new Item(item.name(), item.unitType(), item.stock(), item.velocity().plus(day, quantity, alpha)));
+                }
+
+            } else if (event instanceof StockChangedEvent change) {
+                if (change.stock() == null) {
+                    // Deleted: gone from every store
+                    current.values().forEach(store -> store.remove(change.productId()));
+                } else {
+                    store(current, change.storeId()).compute(change.productId(), (id, item) -> new Item(
+                            change.productName(),
+                            change.unitType(),
+                            change.stock(),
+                            item == null ? Velocity.NONE : item.velocity()));
+                }
+            }
+        }
+    }
+
+    private static Map<Long, Item> store(Map<Long, Map<Long, Item>> stores, Long storeId) {
+        return stores.computeIfAbsent(storeId, id -> new ConcurrentHashMap<>());
+    }
+
+    // ---------------- VIEW ----------------
+
+    /**
+     * Products whose stock will not last leadTimeDays + coverDays at their
+     * current rate, soonest out first, with the quantity that would bring
+     * them up to that much cover (whole units for UNIT products).
+     * Products without a complete day of sales yet are left out.
+     */
+    public List<ReorderSuggestionDTO> suggestions(long storeId, int leadTimeDays, int coverDays) {
+
+        if (leadTimeDays < 0 || coverDays < 1) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Lead time cannot be negative and cover must be at least one day"
+            );
+        }
+
+        long today = LocalDate.now().toEpochDay();
+        int horizon = leadTimeDays + coverDays;
+        List<ReorderSuggestionDTO> suggestions = new ArrayList<>();
+
+        stores.getOrDefault(storeId, Map.of()).forEach((productId, item) -> {
+            double rate = item.velocity().ratePerDay(today, alpha);
+            if (rate <= 0) {
+                return;
+            }
+            long stock = item.stock() == null ? 0 : Quantity.of(item.stock());
+            double missing = rate * horizon - stock;
+            if (missing <= 0) {
+                return;
+            }
+
+            // Hundredths, rounded up to what can be ordered
+            long step = item.unitType() == UnitType.UNIT ? Quantity.ONE : 1;
+            long suggested = (long) Math.ceil(missing / step) * step;
+
+            suggestions.add(ReorderSuggestionDTO.builder()
+                    .productId(productId)
+                    .name(item.name())
+                    .unitType(item.unitType())
+                    .stock(Quantity.toDecimal(stock))
+                    .dailyRate(decimal(rate / Quantity.ONE, 2))
+                    .daysOfCover(decimal(Math.max(0, stock) / rate, 1))
+                    .suggestedQuantity(Quantity.toDecimal(suggested))
+                    .build());
+        });
+
+        suggestions.sort(Comparator.comparing(ReorderSuggestionDTO::getDaysOfCover)
+                .thenComparing(ReorderSuggestionDTO::getProductId));
+        return suggestions;
+    }
+
+    private static BigDecimal decimal(double value, int scale) {
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.pos.report;
 
+import com.example.pos.admission.Admission;
+import com.example.pos.admission.AdmissionClass;
 import com.example.pos.report.dto.*;
+import com.example.pos.projection.ProjectionDispatcher;
+import com.example.pos.store.StoreContext;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -12,13 +16,16 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/reports")
 @RequiredArgsConstructor
-@PreAuthorize("hasRole('ADMIN')")
 public class ReportController {
 
     private final ReportService reportService;
+    private final DashboardProjection dashboardProjection;
+    private final ForecastProjection forecastProjection;
+    private final ProjectionDispatcher projectionDispatcher;
 
     // 1. Sales summary
     @GetMapping("/sales-summary")
+    @Admission(AdmissionClass.REPORTING)
     public SalesSummaryDTO salesSummary(
             @RequestParam LocalDate from,
             @RequestParam LocalDate to) {
@@ -27,12 +34,14 @@ public class ReportController {
 
     // 2. Daily revenue
     @GetMapping("/daily-revenue")
+    @Admission(AdmissionClass.REPORTING)
     public List<DailyRevenueDTO> dailyRevenue() {
         return reportService.getDailyRevenue();
     }
 
     // 3. Top products
     @GetMapping("/top-products")
+    @Admission(AdmissionClass.REPORTING)
     public List<TopProductDTO> topProducts(
             @RequestParam(defaultValue = "5") int limit) {
         return reportService.getTopProducts(limit);
@@ -40,8 +49,30 @@ public class ReportController {
 
     // 4. Low stock
     @GetMapping("/low-stock")
+    @Admission(AdmissionClass.REPORTING)
     public List<LowStockDTO> lowStock(
             @RequestParam(defaultValue = "10") BigDecimal threshold) {
         return reportService.getLowStock(threshold);
     }
+
+    // 5. Dashboard for the request's store (projected from sale events, no table scans)
+    @GetMapping("/dashboard")
+    public DashboardDTO dashboard() {
+        return dashboardProjection.view(StoreContext.currentId());
+    }
+
+    // 6. Reorder suggestions for the request's store, from the projected sales velocity
+    @GetMapping("/reorder-suggestions")
+    public List<ReorderSuggestionDTO> reorderSuggestions(
+            @RequestParam(defaultValue = "7") int leadTimeDays,
+            @RequestParam(defaultValue = "14") int coverDays) {
+        return forecastProjection.suggestions(StoreContext.currentId(), leadTimeDays, coverDays);
+    }
+
+    // Rebuilds all projections from the sale tables in the background
+    @PostMapping("/projections/replay")
+    public ResponseEntity<Void> replayProjections() {
+        projectionDispatcher.requestReplay();
+        return ResponseEntity.accepted().build();
+    }
 }
@@ -1,67 +1,100 @@
 package com.example.pos.report;
 
+import com.example.pos.archive.ArchiveSegment;
+import com.example.pos.archive.SaleArchive;
+import com.example.pos.common.Money;
+import com.example.pos.common.Quantity;
+import com.example.pos.product.Product;
 import com.example.pos.product.ProductRepository;
 import com.example.pos.report.dto.*;
 import com.example.pos.sale.Sale;
+import com.example.pos.sale.SaleItem;
 import com.example.pos.sale.SaleRepository;
+import com.example.pos.stock.StockService;
+import com.example.pos.store.StoreContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ReportService {
 
     private final SaleRepository saleRepository;
     private final ProductRepository productRepository;
+    private final SaleArchive saleArchive;
+    private final StockService stockService;
+
+    // Hot tables hold sales from saleArchive.archivedUntil() onwards, the archive everything before.
+    // Every report covers the request's store only.
 
     // 1. Sales summary (date range)
     public SalesSummaryDTO getSalesSummary(LocalDate from, LocalDate to) {
 
-        List<Sale> sales = saleRepository.findAll().stream()
-                .filter(s ->
-                        !s.getTimestamp().toLocalDate().isBefore(from) &&
-                        !s.getTimestamp().toLocalDate().isAfter(to))
-                .toList();
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        LocalDateTime boundary = saleArchive.archivedUntil();
+        long storeId = StoreContext.currentId();
 
-        BigDecimal totalRevenue = sales.stream()
-                .map(Sale::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        List<Sale> sales = saleRepository.findAllInRange(
+                storeId,
+                max(start, boundary),
+                end
+        );
 
-        BigDecimal totalQuantitySold = sales.stream()
-                .flatMap(s -> s.getItems().stream())
-                .map(i -> i.getQuantity())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Cents and hundredths, the archive's scale too
+        long totalRevenue = 0;
+        long totalQuantitySold = 0;
+        for (Sale sale : sales) {
+            totalRevenue = Money.add(totalRevenue, Money.of(sale.getTotalAmount()));
+            for (SaleItem item : sale.getItems()) {
+                totalQuantitySold = Math.addExact(totalQuantitySold, Quantity.of(item.getQuantity()));
+            }
+        }
+
+        ArchiveTotals archived = new ArchiveTotals();
+        if (start.isBefore(boundary)) {
+            saleArchive.scan(storeId, start, min(end, boundary), archived::add);
+        }
 
         return SalesSummaryDTO.builder()
-                .totalSales((long) sales.size())
-                .totalRevenue(totalRevenue)
-                .totalItemsSold(totalQuantitySold)
+                .totalSales(sales.size() + archived.sales)
+                .totalRevenue(Money.toDecimal(Money.add(totalRevenue, archived.amount)))
+                .totalItemsSold(Quantity.toDecimal(Math.addExact(totalQuantitySold, archived.quantity)))
                 .build();
     }
 
     // 2. Daily revenue
     public List<DailyRevenueDTO> getDailyRevenue() {
 
-        Map<LocalDate, BigDecimal> dailyTotals = new HashMap<>();
+        // Cents per day, hot and archived alike
+        long storeId = StoreContext.currentId();
+        Map<LocalDate, long[]> dailyTotals = new HashMap<>();
 
-        for (Sale sale : saleRepository.findAll()) {
-            LocalDate date = sale.getTimestamp().toLocalDate();
-            dailyTotals.put(
-                    date,
-                    dailyTotals.getOrDefault(date, BigDecimal.ZERO)
-                            .add(sale.getTotalAmount())
-            );
+        for (Sale sale : saleRepository.findAllSince(storeId, saleArchive.archivedUntil())) {
+            long[] day = dailyTotals.computeIfAbsent(sale.getTimestamp().toLocalDate(), d -> new long[1]);
+            day[0] = Money.add(day[0], Money.of(sale.getTotalAmount()));
         }
 
+        saleArchive.scanAll(storeId, (saleId, epochSecond, productId, quantity, amount) -> {
+            long[] day = dailyTotals.computeIfAbsent(
+                    ArchiveSegment.toLocalDateTime(epochSecond).toLocalDate(),
+                    d -> new long[1]
+            );
+            day[0] = Money.add(day[0], amount);
+        });
+
         return dailyTotals.entrySet().stream()
                 .map(e -> DailyRevenueDTO.builder()
                         .date(e.getKey())
-                        .total(e.getValue())
+                        .total(Money.toDecimal(e.getValue()[0]))
                         .build())
                 .sorted(Comparator.comparing(DailyRevenueDTO::getDate))
                 .toList();
@@ -70,37 +103,49 @@ public class ReportService {
     // 3. Top selling products (by quantity)
     public List<TopProductDTO> getTopProducts(int limit) {
 
-        Map<Long, TopProductDTO> map = new HashMap<>();
+        // Hundredths per product; hot lines carry the name they were sold under
+        long storeId = StoreContext.currentId();
+        Map<Long, ProductTotals> map = new HashMap<>();
 
-        saleRepository.findAll().forEach(sale ->
+        saleRepository.findAllSince(storeId, saleArchive.archivedUntil()).forEach(sale ->
                 sale.getItems().forEach(item -> {
-                    map.compute(item.getProduct().getId(), (k, v) -> {
-                        if (v == null) {
-                            return TopProductDTO.builder()
-                                    .productId(k)
-                                    .name(item.getProduct().getName())
-                                    .quantity(item.getQuantity())
-                                    .build();
-                        }
-                        v.setQuantity(
-                                v.getQuantity().add(item.getQuantity())
-                        );
-                        return v;
-                    });
+                    ProductTotals totals = map.computeIfAbsent(
+                            item.getProduct().getId(), id -> new ProductTotals(item.getProductName()));
+                    totals.quantity = Math.addExact(totals.quantity, Quantity.of(item.getQuantity()));
                 })
         );
 
-        return map.values().stream()
-                .sorted((a, b) ->
-                        b.getQuantity().compareTo(a.getQuantity()))
+        saleArchive.scanAll(storeId, (saleId, epochSecond, productId, quantity, amount) -> {
+            ProductTotals totals = map.computeIfAbsent(productId, id -> new ProductTotals(null));
+            totals.quantity = Math.addExact(totals.quantity, quantity);
+        });
+
+        // Archived-only products take their current name
+        List<Long> unnamed = map.entrySet().stream()
+                .filter(e -> e.getValue().name == null)
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!unnamed.isEmpty()) {
+            Map<Long, String> names = productRepository.findAllById(unnamed).stream()
+                    .collect(Collectors.toMap(Product::getId, Product::getName));
+            unnamed.forEach(id -> map.get(id).name = names.getOrDefault(id, "Product #" + id));
+        }
+
+        return map.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().quantity, a.getValue().quantity))
                 .limit(limit)
+                .map(e -> TopProductDTO.builder()
+                        .productId(e.getKey())
+                        .name(e.getValue().name)
+                        .quantity(Quantity.toDecimal(e.getValue().quantity))
+                        .build())
                 .toList();
     }
 
     // 4. Low stock alerts
     public List<LowStockDTO> getLowStock(BigDecimal threshold) {
 
-        return productRepository.findAll().stream()
+        return stockService.fill(StoreContext.currentId(), productRepository.findAll()).stream()
                 .filter(p -> p.getStock().compareTo(threshold) <= 0)
                 .map(p -> LowStockDTO.builder()
                         .id(p.getId())
@@ -110,4 +155,40 @@ public class ReportService {
                         .build())
                 .collect(Collectors.toList());
     }
+
+    // ---------------- HELPERS ----------------
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static class ProductTotals {
+        String name;
+        long quantity;
+
+        ProductTotals(String name) {
+            this.name = name;
+        }
+    }
+
+    // Archived lines come sorted by (timestamp, sale id), so a sale's lines are adjacent
+    private static class ArchiveTotals {
+        long sales;
+        long quantity;
+        long amount;
+        long lastSaleId = -1;
+
+        void add(long saleId, long epochSecond, long productId, long lineQuantity, long lineAmount) {
+            if (saleId != lastSaleId) {
+                sales++;
+                lastSaleId = saleId;
+            }
+            quantity = Math.addExact(quantity, lineQuantity);
+            amount = Money.add(amount, lineAmount);
+        }
+    }
 }
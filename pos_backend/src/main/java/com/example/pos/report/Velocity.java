@@ -0,0 +1,59 @@
+package com.example.pos.report;
+
+/**
+ * A product's sales rate in one store as an exponentially weighted daily
+ * average, kept incrementally: sales of the current day accumulate in
+ * openQuantity and are folded in once a later day starts. Days without
+ * sales count as zero. weightedSum / weight is the average, weight
+ * correcting for the days before the first sale (which are not counted).
+ *
+ * Immutable; quantities in hundredths (see Quantity), days as epoch days.
+ */
+record Velocity(long openDay, long openQuantity, double weightedSum, double weight) {
+
+    static final Velocity NONE = new Velocity(Long.MIN_VALUE, 0, 0, 0);
+
+    /** Smoothing factor for a half-life in days: after it, a day weighs half as much. */
+    static double alpha(double halfLifeDays) {
+        return 1 - Math.pow(0.5, 1 / halfLifeDays);
+    }
+
+    Velocity plus(long day, long quantity, double alpha) {
+        if (openDay == Long.MIN_VALUE) {
+            return new Velocity(day, quantity, weightedSum, weight);
+        }
+        // A late sale from an earlier day counts on the open one
+        if (day <= openDay) {
+            return new Velocity(openDay, Math.addExact(openQuantity, quantity), weightedSum, weight);
+        }
+        Velocity folded = foldedThrough(day - 1, alpha);
+        return new Velocity(day, quantity, folded.weightedSum, folded.weight);
+    }
+
+    /**
+     * Average daily quantity over the complete days before today, or -1
+     * while there is none (no sales yet, or only today's).
+     */
+    double ratePerDay(long today, double alpha) {
+        if (openDay == Long.MIN_VALUE) {
+            return -1;
+        }
+        Velocity folded = openDay < today ? foldedThrough(today - 1, alpha) : this;
+        return folded.weight > 0 ? folded.weightedSum / folded.weight : -1;
+    }
+
+    // Folds the open day and then the empty days up to lastDay (inclusive)
+    private Velocity foldedThrough(long lastDay, double alpha) {
+        double keep = 1 - alpha;
+        double sum = weightedSum * keep + alpha * openQuantity;
+        double w = weight * keep + alpha;
+
+        long emptyDays = lastDay - openDay;
+        if (emptyDays > 0) {
+            double decay = Math.pow(keep, emptyDays);
+            sum *= decay;
+            w = w * decay + (1 - decay);
+        }
+        return new Velocity(lastDay, 0, sum, w);
+    }
+}
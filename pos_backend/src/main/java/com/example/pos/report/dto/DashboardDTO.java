@@ -0,0 +1,24 @@
+package com.example.pos.report.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DashboardDTO {
+
+    private LocalDate today;
+    private long todaySales;
+    private BigDecimal todayRevenue;
+    private List<DailyRevenueDTO> dailyRevenue;
+    private List<TopProductDTO> topProducts;
+    private List<LowStockDTO> lowStock;
+    private LocalDateTime asOf;
+}
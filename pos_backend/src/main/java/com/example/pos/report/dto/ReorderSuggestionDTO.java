@@ -0,0 +1,21 @@
+package com.example.pos.report.dto;
+
+import com.example.pos.product.UnitType;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter @Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReorderSuggestionDTO {
+    private Long productId;
+    private String name;
+    private UnitType unitType;
+    private BigDecimal stock;
+    // Smoothed average of units (or kg) sold per day
+    private BigDecimal dailyRate;
+    private BigDecimal daysOfCover;
+    private BigDecimal suggestedQuantity;
+}
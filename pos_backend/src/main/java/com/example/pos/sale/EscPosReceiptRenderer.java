@@ -0,0 +1,132 @@
+package com.example.pos.sale;
+
+import com.example.pos.sale.dto.ReceiptItemDTO;
+import com.example.pos.sale.dto.ReceiptResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Lays a receipt out for a fixed-width thermal printer.
+ * With escPos=false the same layout is produced as plain text.
+ */
+@Component
+public class EscPosReceiptRenderer {
+
+    private static final byte ESC = 0x1B;
+    private static final byte GS = 0x1D;
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final int columns;
+
+    public EscPosReceiptRenderer(@Value("${receipt.printer-columns:42}") int columns) {
+        this.columns = columns;
+    }
+
+    public byte[] render(ReceiptResponseDTO receipt, boolean escPos) {
+
+        Out out = new Out(escPos);
+
+        out.command(ESC, '@');                       // initialise
+
+        out.command(ESC, 'a', 1);                    // centre
+        out.command(ESC, 'E', 1);                    // bold on
+        out.line(receipt.getShop().getName());
+        out.command(ESC, 'E', 0);
+        out.line(receipt.getShop().getAddress());
+        out.line(receipt.getShop().getPhone());
+        out.command(ESC, 'a', 0);                    // left
+
+        out.line(repeat('-'));
+        out.line("Invoice: " + receipt.getInvoiceNumber());
+        out.line("Date:    " + receipt.getDateTime().format(DATE_TIME));
+        out.line("Cashier: " + receipt.getCashier());
+        out.line(repeat('-'));
+
+        for (ReceiptItemDTO item : receipt.getItems()) {
+            boolean discounted = item.getDiscount() != null && item.getDiscount().signum() > 0;
+            out.line(truncate(item.getName()));
+            // A discounted line shows its price before the discount, then the discount
+            out.line(spread(
+                    "  " + plain(item.getQty()) + " x " + plain(item.getUnitPrice()),
+                    plain(discounted ? item.getTotal().add(item.getDiscount()) : item.getTotal())
+            ));
+            if (discounted) {
+                out.line(spread("  " + item.getPromotion(), "-" + plain(item.getDiscount())));
+            }
+        }
+
+        out.line(repeat('-'));
+        out.command(ESC, 'E', 1);
+        out.line(spread("TOTAL", plain(receipt.getTotalAmount())));
+        out.command(ESC, 'E', 0);
+
+        out.command(ESC, 'a', 1);
+        out.line("");
+        out.line(receipt.getFooter());
+        out.command(ESC, 'a', 0);
+
+        out.command(ESC, 'd', 4);                    // feed 4 lines
+        out.command(GS, 'V', 66, 0);                 // partial cut
+
+        return out.toByteArray();
+    }
+
+    // ---------------- HELPERS ----------------
+
+    private String spread(String left, String right) {
+        int gap = columns - left.length() - right.length();
+        if (gap < 1) {
+            return truncate(left) + "\n" + " ".repeat(Math.max(0, columns - right.length())) + right;
+        }
+        return left + " ".repeat(gap) + right;
+    }
+
+    private String truncate(String value) {
+        return value.length() <= columns ? value : value.substring(0, columns);
+    }
+
+    private String repeat(char c) {
+        return String.valueOf(c).repeat(columns);
+    }
+
+    private static String plain(BigDecimal value) {
+        return value == null ? "" : value.toPlainString();
+    }
+
+    private static class Out {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+        private final boolean escPos;
+
+        Out(boolean escPos) {
+            this.escPos = escPos;
+        }
+
+        void command(byte prefix, int... args) {
+            if (!escPos) {
+                return;
+            }
+            bytes.write(prefix);
+            for (int arg : args) {
+                bytes.write(arg);
+            }
+        }
+
+        void line(String text) {
+            if (text != null) {
+                // Printers use a single-byte code page; anything outside Latin-1 becomes '?'
+                bytes.writeBytes(text.getBytes(StandardCharsets.ISO_8859_1));
+            }
+            bytes.write('\n');
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.pos.sale;
+
+import com.example.pos.sale.dto.ReceiptItemDTO;
+import com.example.pos.sale.dto.ReceiptResponseDTO;
+import com.example.pos.sale.dto.ShopDTO;
+import com.example.pos.store.Store;
+import com.example.pos.store.StoreContext;
+import com.example.pos.store.StoreRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+@Service
+@RequiredArgsConstructor
+public class ReceiptService {
+
+    private final SaleRepository saleRepository;
+    private final StoreRepository storeRepository;
+    private final ReceiptStore receiptStore;
+    private final EscPosReceiptRenderer renderer;
+    private final PlatformTransactionManager transactionManager;
+
+    // Shop info, for whatever a store leaves blank
+    @Value("${shop.name}")
+    private String shopName;
+
+    @Value("${shop.address}")
+    private String shopAddress;
+
+    @Value("${shop.phone}")
+    private String shopPhone;
+
+    // ---------------- SNAPSHOT ----------------
+
+    /**
+     * Renders the receipt from the sale being created. Stored only once the
+     * sale's transaction commits.
+     */
+    public void snapshot(Sale sale) {
+
+        RenderedReceipt rendered = render(build(sale));
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                receiptStore.put(sale.getId(), rendered);
+            }
+        });
+    }
+
+    // ---------------- READ ----------------
+
+    public ReceiptResponseDTO getReceipt(Long saleId) {
+        return getRendered(saleId).receipt();
+    }
+
+    public byte[] getEscPos(Long saleId) {
+        return getRendered(saleId).escPos();
+    }
+
+    public byte[] getPlainText(Long saleId) {
+        return renderer.render(getRendered(saleId).receipt(), false);
+    }
+
+    // ---------------- HELPERS ----------------
+
+    // Other stores' receipts are not found, like their sales
+    private RenderedReceipt getRendered(Long saleId) {
+        RenderedReceipt rendered = receiptStore.get(saleId)
+                .orElseGet(() -> rebuild(saleId));
+
+        Long storeId = rendered.receipt().getShop().getStoreId();
+        if ((storeId != null ? storeId : Store.DEFAULT_ID) != StoreContext.currentId()) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    "Sale not found"
+            );
+        }
+        return rendered;
+    }
+
+    // Evicted from the store (or never stored): the sale lines carry their own snapshot
+    private RenderedReceipt rebuild(Long saleId) {
+
+        // Read-only work may be served by a lagging replica; a sale it has not
+        // seen yet is looked up again on the primary
+        RenderedReceipt rendered = load(saleId, true);
+        if (rendered == null) {
+            rendered = load(saleId, false);
+        }
+        if (rendered == null) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    "Sale not found"
+            );
+        }
+
+        receiptStore.put(saleId, rendered);
+        return rendered;
+    }
+
+    private RenderedReceipt load(Long saleId, boolean readOnly) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(readOnly);
+        return tx.execute(status -> saleRepository.findById(saleId)
+                .map(sale -> render(build(sale)))
+                .orElse(null));
+    }
+
+    private ReceiptResponseDTO build(Sale sale) {
+
+        return ReceiptResponseDTO.builder()
+                .invoiceNumber(sale.getInvoiceNumber())
+                .dateTime(sale.getTimestamp())
+                .cashier(sale.getCashier().getUsername())
+                .items(
+                        sale.getItems().stream().map(item ->
+                                ReceiptItemDTO.builder()
+                                        .name(item.getProductName())
+                                        .qty(item.getQuantity())
+                                        .unitPrice(item.getUnitPrice())
+                                        .total(item.getPriceAtSale())
+                                        .discount(item.getDiscount())
+                                        .promotion(item.getPromotionName())
+                                        .build()
+                        ).toList()
+                )
+                .totalAmount(sale.getTotalAmount())
+                .shop(shop(sale.getStoreId()))
+                .footer("Thank you for shopping!")
+                .build();
+    }
+
+    private ShopDTO shop(Long storeId) {
+        Store store = storeRepository.findById(storeId).orElse(null);
+        return ShopDTO.builder()
+                .storeId(storeId)
+                .name(store != null && StringUtils.hasText(store.getName()) ? store.getName() : shopName)
+                .address(store != null && StringUtils.hasText(store.getAddress()) ? store.getAddress() : shopAddress)
+                .phone(store != null && StringUtils.hasText(store.getPhone()) ? store.getPhone() : shopPhone)
+                .build();
+    }
+
+    private RenderedReceipt render(ReceiptResponseDTO receipt) {
+        return new RenderedReceipt(receipt, renderer.render(receipt, true));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.pos.sale;
+
+import com.example.pos.sale.dto.ReceiptResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Receipts never change once the sale commits, so they are kept in a
+ * size-bounded LRU in memory and written to disk as a fallback for entries
+ * that have been evicted (or for after a restart). The files carry the sale
+ * time as their modification time and go when the sales are archived.
+ */
+@Slf4j
+@Component
+public class ReceiptStore {
+
+    private final Path directory;
+    private final JsonMapper jsonMapper;
+    private final Map<Long, RenderedReceipt> cache;
+
+    public ReceiptStore(@Value("${receipt.dir:receipts}") String directory,
+                        @Value("${receipt.cache.max-entries:2000}") int maxEntries,
+                        JsonMapper jsonMapper) throws IOException {
+        this.directory = Files.createDirectories(Path.of(directory));
+        this.jsonMapper = jsonMapper;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, RenderedReceipt> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    public Optional<RenderedReceipt> get(Long saleId) {
+
+        RenderedReceipt cached = cache.get(saleId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Path json = jsonFile(saleId);
+        Path escPos = escPosFile(saleId);
+        if (!Files.exists(json) || !Files.exists(escPos)) {
+            return Optional.empty();
+        }
+
+        try {
+            RenderedReceipt loaded = new RenderedReceipt(
+                    jsonMapper.readValue(json.toFile(), ReceiptResponseDTO.class),
+                    Files.readAllBytes(escPos)
+            );
+            cache.put(saleId, loaded);
+            return Optional.of(loaded);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not read stored receipt for sale {}", saleId, ex);
+            return Optional.empty();
+        }
+    }
+
+    public void put(Long saleId, RenderedReceipt receipt) {
+
+        cache.put(saleId, receipt);
+
+        try {
+            FileTime soldAt = fileTime(receipt.receipt().getDateTime());
+            write(escPosFile(saleId), receipt.escPos(), soldAt);
+            write(jsonFile(saleId), jsonMapper.writeValueAsBytes(receipt.receipt()), soldAt);
+        } catch (IOException | RuntimeException ex) {
+            // The in-memory copy is still served; a miss later just re-renders from the DB
+            log.warn("Could not store receipt for sale {}", saleId, ex);
+        }
+    }
+
+    // Sales before this time have left the hot tables: their receipts go too. Returns the files deleted
+    public int pruneBefore(LocalDateTime before) {
+
+        synchronized (cache) {
+            cache.values().removeIf(receipt -> receipt.receipt().getDateTime().isBefore(before));
+        }
+
+        FileTime cutoff = fileTime(before);
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.{json,escpos,tmp}")) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).compareTo(cutoff) < 0 && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException ex) {
+            // What is left is retried with the next archived month
+            log.warn("Could not prune receipts before {}", before, ex);
+        }
+        return deleted;
+    }
+
+    private void write(Path target, byte[] bytes, FileTime soldAt) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(tmp, bytes);
+        // Also for receipts re-rendered long after the sale, so pruning by age stays exact
+        Files.setLastModifiedTime(tmp, soldAt);
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static FileTime fileTime(LocalDateTime time) {
+        return FileTime.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private Path jsonFile(Long saleId) {
+        return directory.resolve(saleId + ".json");
+    }
+
+    private Path escPosFile(Long saleId) {
+        return directory.resolve(saleId + ".escpos");
+    }
+}
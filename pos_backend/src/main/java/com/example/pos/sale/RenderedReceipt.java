@@ -0,0 +1,9 @@
+package com.example.pos.sale;
+
+import com.example.pos.sale.dto.ReceiptResponseDTO;
+
+/**
+ * A receipt as it was at sale time, plus its ready-to-print ESC/POS bytes.
+ */
+public record RenderedReceipt(ReceiptResponseDTO receipt, byte[] escPos) {
+}
@@ -1,5 +1,6 @@
 package com.example.pos.sale;
 
+import com.example.pos.shift.Shift;
 import com.example.pos.user.User;
 import jakarta.persistence.*;
 import lombok.*;
@@ -29,6 +30,14 @@ public class Sale {
     @ManyToOne
     private User cashier;
 
+    // Store the sale was made in (see Store)
+    @Column(nullable = false)
+    private Long storeId;
+
+    // null for sales made outside a shift (e.g. by an admin)
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Shift shift;
+
     @OneToMany(mappedBy = "sale", cascade = CascadeType.ALL)
     private List<SaleItem> items;
 }
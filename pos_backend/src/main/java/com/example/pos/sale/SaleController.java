@@ -1,11 +1,20 @@
 package com.example.pos.sale;
 
+import com.example.pos.admission.Admission;
+import com.example.pos.admission.AdmissionClass;
 import com.example.pos.sale.dto.ReceiptResponseDTO;
 import com.example.pos.sale.dto.SaleResponseDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -14,21 +23,26 @@ import java.util.List;
 public class SaleController {
 
     private final SaleService saleService;
+    private final ReceiptService receiptService;
 
     @PostMapping
+    @Admission(AdmissionClass.CHECKOUT)
     public SaleResponseDTO createSale(@RequestBody CreateSaleRequest request,
                                       Authentication authentication) {
         return saleService.createSale(request, authentication.getName());
     }
 
     @GetMapping("/get-all")
+    @Admission(AdmissionClass.REPORTING)
     public List<SaleResponseDTO> getAllSales() {
         return saleService.getAllSales();
     }
 
     @GetMapping("/my-sales")
-    public List<SaleResponseDTO> mySales(Authentication authentication) {
-        return saleService.getSalesByCashier(authentication.getName());
+    public PagedModel<SaleResponseDTO> mySales(Authentication authentication,
+                                               @PageableDefault(size = 50, sort = "timestamp", direction = Sort.Direction.DESC)
+                                               Pageable pageable) {
+        return new PagedModel<>(saleService.getSalesByCashier(authentication.getName(), pageable));
     }
 
     @GetMapping("/{id}")
@@ -38,6 +52,20 @@ public class SaleController {
 
     @GetMapping("/{id}/receipt")
     public ReceiptResponseDTO getReceipt(@PathVariable Long id) {
-        return saleService.generateReceipt(id);
+        return receiptService.getReceipt(id);
+    }
+
+    // Ready-to-print bytes for thermal printers; format=text drops the ESC/POS control codes
+    @GetMapping("/{id}/receipt/print")
+    public ResponseEntity<byte[]> printReceipt(@PathVariable Long id,
+                                               @RequestParam(defaultValue = "escpos") String format) {
+        if (format.equalsIgnoreCase("text")) {
+            return ResponseEntity.ok()
+                    .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.ISO_8859_1))
+                    .body(receiptService.getPlainText(id));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(receiptService.getEscPos(id));
     }
 }
@@ -1,6 +1,7 @@
 package com.example.pos.sale;
 
 import com.example.pos.product.Product;
+import com.example.pos.product.UnitType;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -17,13 +18,31 @@ public class SaleItem {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Product product;
 
     private BigDecimal quantity;
 
+    // Line total (unit price × quantity), net of the discount
     private BigDecimal priceAtSale;
 
+    // Promotion snapshot at sale time; discount is 0 and the promotion null without one
+    private BigDecimal discount;
+
+    private Long promotionId;
+
+    private String promotionName;
+
+    // Product snapshot at sale time; reads never need to join product
+    private String productName;
+
+    private BigDecimal unitPrice;
+
+    @Enumerated(EnumType.STRING)
+    private UnitType unitType;
+
+    private Long categoryId;
+
     @ManyToOne
     private Sale sale;
 }
@@ -1,6 +1,44 @@
 package com.example.pos.sale;
 
+import com.example.pos.archive.ArchiveRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
 
 public interface SaleItemRepository extends JpaRepository<SaleItem, Long> {
+
+    @Query("""
+            select count(i)
+            from SaleItem i join i.sale s
+            where s.timestamp >= :from and s.timestamp < :to
+            """)
+    long countArchiveRows(@Param("from") LocalDateTime from,
+                          @Param("to") LocalDateTime to);
+
+    // Streamed through a server-side cursor (needs the caller's transaction); close the stream
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("""
+            select new com.example.pos.archive.ArchiveRow(
+                s.id, s.storeId, s.timestamp, i.product.id, i.quantity, i.priceAtSale)
+            from SaleItem i join i.sale s
+            where s.timestamp >= :from and s.timestamp < :to
+            order by s.timestamp, s.id
+            """)
+    Stream<ArchiveRow> streamArchiveRows(@Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("""
+            delete from SaleItem i
+            where i.sale.id in (select s.id from Sale s where s.timestamp >= :from and s.timestamp < :to)
+            """)
+    int deleteBySaleTimestampRange(@Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to);
 }
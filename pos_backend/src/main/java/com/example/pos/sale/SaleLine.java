@@ -0,0 +1,33 @@
+package com.example.pos.sale;
+
+import com.example.pos.common.Money;
+import com.example.pos.common.Quantity;
+import com.example.pos.product.Product;
+import com.example.pos.promotion.Discount;
+import com.example.pos.promotion.PromotionTable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A validated and priced basket line, ready to be committed as a SaleItem.
+ * lineTotal (net of the discount) and discount are in cents (see Money);
+ * promotionId and promotionName are null when no promotion applied.
+ */
+public record SaleLine(Long productId, BigDecimal quantity, BigDecimal unitPrice, long lineTotal,
+                       long discount, Long promotionId, String promotionName) {
+
+    // price × quantity (UNIT or KG) in cents, rounded per line like price_at_sale
+    // so the sale total always equals the sum of its lines
+    public static SaleLine of(Product product, BigDecimal quantity, PromotionTable promotions, LocalDateTime at) {
+        long unitPrice = Money.of(product.getPrice());
+        long units = Quantity.of(quantity);
+        long gross = Money.times(unitPrice, units);
+        Discount discount = promotions.best(product, unitPrice, units, gross, at);
+        if (discount == null) {
+            return new SaleLine(product.getId(), quantity, product.getPrice(), gross, 0, null, null);
+        }
+        return new SaleLine(product.getId(), quantity, product.getPrice(), gross - discount.cents(),
+                discount.cents(), discount.promotionId(), discount.name());
+    }
+}
@@ -1,6 +1,42 @@
 package com.example.pos.sale;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 public interface SaleRepository extends JpaRepository<Sale, Long> {
+
+    Page<Sale> findByShiftId(Long shiftId, Pageable pageable);
+
+    List<Sale> findByStoreId(Long storeId);
+
+    Optional<Sale> findByIdAndStoreId(Long id, Long storeId);
+
+    @Query(value = "select nextval('invoice_number_seq')", nativeQuery = true)
+    long nextInvoiceNumber();
+
+    // Half-open range [from, to) so it can be served by idx_sale_store_timestamp
+    @Query("select s from Sale s where s.storeId = :storeId and s.timestamp >= :from and s.timestamp < :to")
+    List<Sale> findAllInRange(@Param("storeId") Long storeId,
+                              @Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to);
+
+    @Query("select s from Sale s where s.storeId = :storeId and s.timestamp >= :from")
+    List<Sale> findAllSince(@Param("storeId") Long storeId,
+                            @Param("from") LocalDateTime from);
+
+    @Query("select min(s.timestamp) from Sale s")
+    LocalDateTime findEarliestTimestamp();
+
+    @Modifying
+    @Query("delete from Sale s where s.timestamp >= :from and s.timestamp < :to")
+    int deleteInRange(@Param("from") LocalDateTime from,
+                      @Param("to") LocalDateTime to);
 }
@@ -1,12 +1,28 @@
 package com.example.pos.sale;
 
+import com.example.pos.common.Money;
+import com.example.pos.common.Quantity;
+import com.example.pos.event.SaleCompletedEvent;
+import com.example.pos.event.StockChangedEvent;
+import com.example.pos.product.CatalogChangedEvent;
 import com.example.pos.product.Product;
 import com.example.pos.product.ProductRepository;
+import com.example.pos.promotion.PromotionEngine;
+import com.example.pos.promotion.PromotionTable;
 import com.example.pos.sale.dto.*;
+import com.example.pos.shift.Shift;
+import com.example.pos.shift.ShiftService;
+import com.example.pos.stock.StockMovement;
+import com.example.pos.stock.StockMovementType;
+import com.example.pos.stock.StockReservations;
+import com.example.pos.stock.StockService;
+import com.example.pos.store.StoreContext;
 import com.example.pos.user.User;
 import com.example.pos.user.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,8 +31,10 @@ import org.springframework.web.server.ResponseStatusException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -26,82 +44,120 @@ public class SaleService {
     private final SaleRepository saleRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final ReceiptService receiptService;
+    private final ShiftService shiftService;
+    private final ApplicationEventPublisher events;
+    private final StockService stockService;
+    private final StockReservations stockReservations;
+    private final PromotionEngine promotionEngine;
 
-    // Shop info
-    @Value("${shop.name}")
-    private String shopName;
+    // ---------------- CREATE SALE ----------------
 
-    @Value("${shop.address}")
-    private String shopAddress;
+    public SaleResponseDTO createSale(CreateSaleRequest request, String cashierUsername) {
 
-    @Value("${shop.phone}")
-    private String shopPhone;
+        PromotionTable promotions = promotionEngine.current();
+        LocalDateTime now = LocalDateTime.now();
 
-    // ---------------- CREATE SALE ----------------
+        List<SaleLine> lines = new ArrayList<>();
+        for (CreateSaleItemRequest itemReq : request.getItems()) {
 
-    public SaleResponseDTO createSale(CreateSaleRequest request, String cashierUsername) {
+            checkQuantity(itemReq.getQuantity());
 
-        User cashier = userRepository.findByUsername(cashierUsername)
+            Product product = productRepository.findById(itemReq.getProductId())
+                    .orElseThrow(() ->
+                            new ResponseStatusException(
+                                    HttpStatus.BAD_REQUEST,
+                                    "Product not found with ID: " + itemReq.getProductId()
+                            ));
+
+            lines.add(SaleLine.of(product, itemReq.getQuantity(), promotions, now));
+        }
+
+        return checkout(lines, cashierUsername, null);
+    }
+
+    /**
+     * Commits lines that were validated and priced beforehand: locks the stock,
+     * checks it and writes the sale. Open carts' reservations are not for sale,
+     * except those of holder (the cart being checked out; null for direct sales).
+     */
+    public SaleResponseDTO checkout(List<SaleLine> lines, String cashierUsername, String holder) {
+
+        User cashier = userRepository.findCachedByUsername(cashierUsername)
                 .orElseThrow(() ->
                         new ResponseStatusException(
                                 HttpStatus.BAD_REQUEST,
                                 "Cashier not found"
                         ));
 
-        BigDecimal total = BigDecimal.ZERO;
+        long storeId = StoreContext.currentId();
+        long total = 0;
         List<SaleItem> saleItems = new ArrayList<>();
 
-        for (CreateSaleItemRequest itemReq : request.getItems()) {
+        // Locks the basket's products in this store (ascending id) until commit; stock is read under the locks
+        Map<Long, BigDecimal> stock = stockService.lockForUpdate(
+                storeId,
+                lines.stream()
+                        .map(SaleLine::productId)
+                        .filter(Objects::nonNull)
+                        .toList()
+        );
+        Map<Long, Product> touched = new LinkedHashMap<>();
 
-            if (itemReq.getQuantity() == null ||
-                itemReq.getQuantity().compareTo(BigDecimal.ZERO) <= 0) {
-                throw new ResponseStatusException(
-                        HttpStatus.BAD_REQUEST,
-                        "Invalid quantity"
-                );
-            }
+        for (SaleLine line : lines) {
 
-            Product product = productRepository.findById(itemReq.getProductId())
+            // Cached; a product deleted since the line was priced is the client's problem, not the FK's
+            Product product = productRepository.findById(line.productId())
                     .orElseThrow(() ->
                             new ResponseStatusException(
                                     HttpStatus.BAD_REQUEST,
-                                    "Product not found with ID: " + itemReq.getProductId()
+                                    "Product not found with ID: " + line.productId()
                             ));
 
             // Stock check (works for UNIT & KG)
-            if (product.getStock().compareTo(itemReq.getQuantity()) < 0) {
+            BigDecimal available = stock.getOrDefault(product.getId(), BigDecimal.ZERO);
+            long reserved = stockReservations.reservedByOthers(storeId, product.getId(), holder);
+            if (Quantity.of(available) - reserved < Quantity.of(line.quantity())) {
                 throw new ResponseStatusException(
                         HttpStatus.BAD_REQUEST,
                         "Insufficient stock for " + product.getName()
                 );
             }
 
-            // Deduct stock
-            product.setStock(
-                    product.getStock().subtract(itemReq.getQuantity())
-            );
-            productRepository.save(product);
-
-            // price × quantity (UNIT or KG)
-            BigDecimal lineTotal =
-                    product.getPrice().multiply(itemReq.getQuantity());
+            // Deduct stock (journaled below, once the sale has an id)
+            stock.put(product.getId(), available.subtract(line.quantity()));
+            product.setStock(stock.get(product.getId()));
+            touched.put(product.getId(), product);
 
-            total = total.add(lineTotal);
+            total = Money.add(total, line.lineTotal());
 
             saleItems.add(
                     SaleItem.builder()
                             .product(product)
-                            .quantity(itemReq.getQuantity())
-                            .priceAtSale(lineTotal)
+                            .quantity(line.quantity())
+                            .priceAtSale(Money.toDecimal(line.lineTotal()))
+                            .discount(Money.toDecimal(line.discount()))
+                            .promotionId(line.promotionId())
+                            .promotionName(line.promotionName())
+                            .productName(product.getName())
+                            .unitPrice(line.unitPrice())
+                            .unitType(product.getUnitType())
+                            .categoryId(product.getCategory() != null
+                                    ? product.getCategory().getId()
+                                    : null)
                             .build()
             );
         }
 
+        Shift shift = shiftService.findOpen(cashierUsername).orElse(null);
+
         Sale sale = Sale.builder()
                 .invoiceNumber(generateInvoiceNumber())
                 .cashier(cashier)
+                .storeId(storeId)
+                .shift(shift)
                 .timestamp(LocalDateTime.now())
-                .totalAmount(total)
+                .totalAmount(Money.toDecimal(total))
                 .items(saleItems)
                 .build();
 
@@ -109,26 +165,52 @@ public class SaleService {
 
         Sale savedSale = saleRepository.save(sale);
 
+        stockService.record(saleItems.stream()
+                .map(item -> StockMovement.of(
+                        storeId,
+                        item.getProduct().getId(),
+                        StockMovementType.SALE,
+                        item.getQuantity().negate(),
+                        savedSale.getId(),
+                        cashierUsername,
+                        savedSale.getInvoiceNumber()
+                ))
+                .toList());
+        touched.values().forEach(product -> events.publishEvent(StockChangedEvent.of(storeId, product)));
+
+        receiptService.snapshot(savedSale);
+
+        if (shift != null) {
+            shiftService.recordSale(shift, savedSale);
+        }
+
+        events.publishEvent(CatalogChangedEvent.stock(storeId));
+        events.publishEvent(SaleCompletedEvent.of(savedSale));
+
         return mapToResponse(savedSale);
     }
 
     // ---------------- READ ----------------
 
+    @Transactional(readOnly = true)
     public List<SaleResponseDTO> getAllSales() {
-        return saleRepository.findAll().stream()
+        return saleRepository.findByStoreId(StoreContext.currentId()).stream()
                 .map(this::mapToResponse)
                 .toList();
     }
 
-    public List<SaleResponseDTO> getSalesByCashier(String username) {
-        return saleRepository.findAll().stream()
-                .filter(s -> s.getCashier().getUsername().equals(username))
-                .map(this::mapToResponse)
-                .toList();
+    // Scoped to the cashier's open shift; empty when no shift is open
+    public Page<SaleResponseDTO> getSalesByCashier(String username, Pageable pageable) {
+        return shiftService.findOpen(username)
+                .map(shift -> saleRepository.findByShiftId(shift.getId(), pageable))
+                .orElseGet(() -> Page.empty(pageable))
+                .map(this::mapToResponse);
     }
 
+    // Other stores' sales are not found
+    @Transactional(readOnly = true)
     public SaleResponseDTO getSaleById(Long id) {
-        return saleRepository.findById(id)
+        return saleRepository.findByIdAndStoreId(id, StoreContext.currentId())
                 .map(this::mapToResponse)
                 .orElseThrow(() ->
                         new ResponseStatusException(
@@ -137,50 +219,27 @@ public class SaleService {
                         ));
     }
 
-    // ---------------- RECEIPT ----------------
+    // ---------------- HELPERS ----------------
 
-    public ReceiptResponseDTO generateReceipt(Long saleId) {
+    public static void checkQuantity(BigDecimal quantity) {
 
-        Sale sale = saleRepository.findById(saleId)
-                .orElseThrow(() ->
-                        new ResponseStatusException(
-                                HttpStatus.NOT_FOUND,
-                                "Sale not found"
-                        ));
+        if (quantity == null || quantity.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Invalid quantity"
+            );
+        }
 
-        return ReceiptResponseDTO.builder()
-                .invoiceNumber(sale.getInvoiceNumber())
-                .dateTime(sale.getTimestamp())
-                .cashier(sale.getCashier().getUsername())
-                .items(
-                        sale.getItems().stream().map(item ->
-                                ReceiptItemDTO.builder()
-                                        .name(item.getProduct().getName())
-                                        .qty(item.getQuantity())
-                                        .unitPrice(item.getProduct().getPrice())
-                                        .total(item.getPriceAtSale())
-                                        .build()
-                        ).toList()
-                )
-                .totalAmount(sale.getTotalAmount())
-                .shop(
-                        ShopDTO.builder()
-                                .name(shopName)
-                                .address(shopAddress)
-                                .phone(shopPhone)
-                                .build()
-                )
-                .footer("Thank you for shopping!")
-                .build();
+        if (quantity.stripTrailingZeros().scale() > Quantity.SCALE) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Quantity cannot have more than 2 decimal places"
+            );
+        }
     }
 
-    // ---------------- HELPERS ----------------
-
     private String generateInvoiceNumber() {
-        return "INV-" + UUID.randomUUID()
-                .toString()
-                .substring(0, 8)
-                .toUpperCase();
+        return InvoiceNumberGenerator.generate(saleRepository.nextInvoiceNumber());
     }
 
     private SaleResponseDTO mapToResponse(Sale sale) {
@@ -196,9 +255,11 @@ public class SaleService {
                                 .map(item ->
                                         SaleItemResponseDTO.builder()
                                                 .productId(item.getProduct().getId())
-                                                .productName(item.getProduct().getName())
+                                                .productName(item.getProductName())
                                                 .quantity(item.getQuantity())
-                                                .unitPrice(item.getProduct().getPrice())
+                                                .unitPrice(item.getUnitPrice())
+                                                .discount(item.getDiscount())
+                                                .promotionName(item.getPromotionName())
                                                 .lineTotal(item.getPriceAtSale())
                                                 .build()
                                 ).toList()
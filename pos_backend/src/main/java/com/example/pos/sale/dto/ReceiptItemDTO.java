@@ -1,15 +1,22 @@
 package com.example.pos.sale.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class ReceiptItemDTO {
 
     private String name;
     private BigDecimal qty;
     private BigDecimal unitPrice;
+    // Line total, net of the discount
     private BigDecimal total;
+    private BigDecimal discount;
+    private String promotion;
 }
@@ -13,5 +13,7 @@ public class SaleItemResponseDTO {
     private String productName;
     private BigDecimal quantity;
     private BigDecimal unitPrice;
+    private BigDecimal discount;
+    private String promotionName;
     private BigDecimal lineTotal;
 }
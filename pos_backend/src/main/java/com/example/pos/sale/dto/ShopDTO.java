@@ -1,12 +1,18 @@
 package com.example.pos.sale.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class ShopDTO {
 
+    // Receipts stored before stores existed have none: the default store
+    private Long storeId;
     private String name;
     private String address;
     private String phone;
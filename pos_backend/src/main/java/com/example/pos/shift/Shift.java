@@ -0,0 +1,40 @@
+package com.example.pos.shift;
+
+import com.example.pos.user.User;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Getter @Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Shift {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false)
+    private User cashier;
+
+    @Column(nullable = false)
+    private LocalDateTime openedAt;
+
+    // null while the shift is open
+    private LocalDateTime closedAt;
+
+    // Running totals, incremented by every sale committed in the shift
+    private long saleCount;
+
+    private BigDecimal revenue;
+
+    private long lineCount;
+
+    private BigDecimal unitsSold;
+
+    private BigDecimal kgSold;
+}
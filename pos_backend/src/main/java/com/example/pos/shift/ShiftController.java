@@ -0,0 +1,29 @@
+package com.example.pos.shift;
+
+import com.example.pos.shift.dto.ShiftReportDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/shifts")
+@RequiredArgsConstructor
+public class ShiftController {
+
+    private final ShiftService shiftService;
+
+    @PostMapping("/open")
+    public ShiftReportDTO open(Authentication authentication) {
+        return shiftService.open(authentication.getName());
+    }
+
+    @PostMapping("/close")
+    public ShiftReportDTO close(Authentication authentication) {
+        return shiftService.close(authentication.getName());
+    }
+
+    @GetMapping("/current")
+    public ShiftReportDTO current(Authentication authentication) {
+        return shiftService.current(authentication.getName());
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.pos.shift;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface ShiftRepository extends JpaRepository<Shift, Long> {
+
+    Optional<Shift> findByCashierUsernameAndClosedAtIsNull(String username);
+
+    // Single-statement increment, so concurrent sales in one shift never lose an update;
+    // 0 once the shift is closed
+    @Modifying
+    @Query("""
+            update Shift s
+            set s.saleCount = s.saleCount + 1,
+                s.revenue = s.revenue + :revenue,
+                s.lineCount = s.lineCount + :lines,
+                s.unitsSold = s.unitsSold + :units,
+                s.kgSold = s.kgSold + :kg
+            where s.id = :id and s.closedAt is null
+            """)
+    int recordSale(@Param("id") Long id,
+                   @Param("revenue") BigDecimal revenue,
+                   @Param("lines") long lines,
+                   @Param("units") BigDecimal units,
+                   @Param("kg") BigDecimal kg);
+
+    // Stamps closed_at only, so it never overwrites a concurrent increment; 0 if already closed
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Shift s set s.closedAt = :now where s.id = :id and s.closedAt is null")
+    int close(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
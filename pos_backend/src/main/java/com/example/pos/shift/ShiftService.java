@@ -0,0 +1,146 @@
+package com.example.pos.shift;
+
+import com.example.pos.common.Quantity;
+import com.example.pos.product.UnitType;
+import com.example.pos.sale.Sale;
+import com.example.pos.sale.SaleItem;
+import com.example.pos.shift.dto.ShiftReportDTO;
+import com.example.pos.user.User;
+import com.example.pos.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class ShiftService {
+
+    private final ShiftRepository shiftRepository;
+    private final UserRepository userRepository;
+
+    // ---------------- OPEN / CLOSE ----------------
+
+    public ShiftReportDTO open(String cashierUsername) {
+
+        if (findOpen(cashierUsername).isPresent()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Shift already open"
+            );
+        }
+
+        User cashier = userRepository.findCachedByUsername(cashierUsername)
+                .orElseThrow(() ->
+                        new ResponseStatusException(
+                                HttpStatus.BAD_REQUEST,
+                                "Cashier not found"
+                        ));
+
+        Shift shift = Shift.builder()
+                .cashier(cashier)
+                .openedAt(LocalDateTime.now())
+                .revenue(BigDecimal.ZERO)
+                .unitsSold(BigDecimal.ZERO)
+                .kgSold(BigDecimal.ZERO)
+                .build();
+
+        return mapToReport(shiftRepository.save(shift));
+    }
+
+    // Z-report: the totals are already maintained, closing just stamps the shift.
+    // The totals are re-read after the stamp: a sale that got its increment in
+    // first is in them, any later one is refused by recordSale.
+    public ShiftReportDTO close(String cashierUsername) {
+
+        Long shiftId = findOpen(cashierUsername)
+                .map(Shift::getId)
+                .orElseThrow(ShiftService::noOpenShift);
+
+        if (shiftRepository.close(shiftId, LocalDateTime.now()) == 0) {
+            throw noOpenShift();
+        }
+
+        return mapToReport(shiftRepository.findById(shiftId).orElseThrow());
+    }
+
+    // ---------------- READ ----------------
+
+    // Running totals the till has just written: not read-only, so never served by a lagging replica
+    public ShiftReportDTO current(String cashierUsername) {
+        return findOpen(cashierUsername)
+                .map(this::mapToReport)
+                .orElseThrow(() ->
+                        new ResponseStatusException(
+                                HttpStatus.NOT_FOUND,
+                                "No open shift"
+                        ));
+    }
+
+    public Optional<Shift> findOpen(String cashierUsername) {
+        return shiftRepository.findByCashierUsernameAndClosedAtIsNull(cashierUsername);
+    }
+
+    // ---------------- RUNNING TOTALS ----------------
+
+    // Runs inside createSale's transaction, so the totals commit (or roll back) with the sale
+    public void recordSale(Shift shift, Sale sale) {
+
+        long units = 0;
+        long kg = 0;
+
+        for (SaleItem item : sale.getItems()) {
+            if (item.getUnitType() == UnitType.KG) {
+                kg = Math.addExact(kg, Quantity.of(item.getQuantity()));
+            } else {
+                units = Math.addExact(units, Quantity.of(item.getQuantity()));
+            }
+        }
+
+        int updated = shiftRepository.recordSale(
+                shift.getId(),
+                sale.getTotalAmount(),
+                sale.getItems().size(),
+                Quantity.toDecimal(units),
+                Quantity.toDecimal(kg)
+        );
+
+        // Closed since createSale looked it up: roll the sale back rather than add to a Z-report already printed
+        if (updated == 0) {
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT,
+                    "Shift was closed during the sale"
+            );
+        }
+    }
+
+    // ---------------- HELPERS ----------------
+
+    private static ResponseStatusException noOpenShift() {
+        return new ResponseStatusException(
+                HttpStatus.BAD_REQUEST,
+                "No open shift"
+        );
+    }
+
+    private ShiftReportDTO mapToReport(Shift shift) {
+
+        return ShiftReportDTO.builder()
+                .shiftId(shift.getId())
+                .cashierUsername(shift.getCashier().getUsername())
+                .openedAt(shift.getOpenedAt())
+                .closedAt(shift.getClosedAt())
+                .saleCount(shift.getSaleCount())
+                .revenue(shift.getRevenue())
+                .lineCount(shift.getLineCount())
+                .unitsSold(shift.getUnitsSold())
+                .kgSold(shift.getKgSold())
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.pos.shift.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ShiftReportDTO {
+
+    private Long shiftId;
+    private String cashierUsername;
+    private LocalDateTime openedAt;
+    private LocalDateTime closedAt;
+    private long saleCount;
+    private BigDecimal revenue;
+    private long lineCount;
+    private BigDecimal unitsSold;
+    private BigDecimal kgSold;
+}
@@ -0,0 +1,54 @@
+package com.example.pos.stock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodically folds each product's journal tail in each store into its stock_snapshot row,
+ * keeping current-stock reads short. Movements are never deleted; they are
+ * the audit trail and back the as-of queries.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockCompactionJob {
+
+    private final StockJournal journal;
+    private final StockService stockService;
+
+    @Value("${stock.compaction.batch-size:200}")
+    private int batchSize;
+
+    // Movement ids up to here were looked at by an earlier run. A row that was still
+    // uncommitted then is picked up with its product's next movement; until then it
+    // simply stays in that product's tail.
+    private long compactedThrough;
+
+    @Scheduled(cron = "${stock.compaction.cron:0 */5 * * * *}")
+    public void compact() {
+
+        long upTo = journal.maxMovementId();
+        Map<Long, List<Long>> tails = journal.productsWithTail(compactedThrough);
+
+        int compacted = 0;
+        for (Map.Entry<Long, List<Long>> store : tails.entrySet()) {
+            long storeId = store.getKey();
+            List<Long> productIds = store.getValue();
+            for (int i = 0; i < productIds.size(); i += batchSize) {
+                compacted += stockService.compact(storeId, productIds.subList(i, Math.min(i + batchSize, productIds.size())));
+            }
+        }
+        compactedThrough = upTo;
+
+        if (compacted > 0) {
+            log.info("Compacted stock journal for {} products in {} stores (movements up to id {})",
+                    compacted, tails.size(), upTo);
+        }
+    }
+}
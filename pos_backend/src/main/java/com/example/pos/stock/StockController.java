@@ -0,0 +1,62 @@
+package com.example.pos.stock;
+
+import com.example.pos.stock.dto.StockAdjustmentRequest;
+import com.example.pos.stock.dto.StockLevelDTO;
+import com.example.pos.store.StoreContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/products/{productId}/stock")
+@RequiredArgsConstructor
+public class StockController {
+
+    private final StockService stockService;
+
+    // Current stock in the request's store, or stock as of a past moment (?asOf=2026-01-31T23:59:59)
+    @GetMapping
+    public StockLevelDTO stock(@PathVariable Long productId,
+                               @RequestParam(required = false)
+                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return StockLevelDTO.builder()
+                .productId(productId)
+                .stock(asOf == null
+                        ? stockService.current(StoreContext.currentId(), productId)
+                        : stockService.asOf(StoreContext.currentId(), productId, asOf))
+                .asOf(asOf == null ? LocalDateTime.now() : asOf)
+                .build();
+    }
+
+    // Audit trail, newest first
+    @GetMapping("/movements")
+    public PagedModel<StockMovement> movements(@PathVariable Long productId,
+                                               @PageableDefault(size = 50) Pageable pageable) {
+        return new PagedModel<>(stockService.movements(StoreContext.currentId(), productId, pageable));
+    }
+
+    // Restock or manual adjustment (signed quantity)
+    @PostMapping("/movements")
+    public StockLevelDTO adjust(@PathVariable Long productId,
+                                @RequestBody StockAdjustmentRequest request,
+                                Authentication authentication) {
+        return StockLevelDTO.builder()
+                .productId(productId)
+                .stock(stockService.adjust(
+                        StoreContext.currentId(),
+                        productId,
+                        request.getType(),
+                        request.getQuantity(),
+                        request.getNote(),
+                        authentication.getName()
+                ))
+                .asOf(LocalDateTime.now())
+                .build();
+    }
+}
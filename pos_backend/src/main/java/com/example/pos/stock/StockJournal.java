@@ -0,0 +1,186 @@
+package com.example.pos.stock;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * JDBC access to stock_movement and stock_snapshot.
+ *
+ * Stock is kept per store. Current stock of a product in a store = its
+ * snapshot + the store's movements after the snapshot's last_movement_id.
+ * Writers for a product hold its StockLocks lock in that store, so the
+ * movement ids of one (product, store) grow in commit order and compaction
+ * under the same lock never skips an in-flight row.
+ */
+@Repository
+public class StockJournal {
+
+    private static final String INSERT = """
+            insert into stock_movement (store_id, product_id, type, quantity, sale_id, username, note, created_at)
+            values (?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String CURRENT = """
+            select p.id,
+                   coalesce(s.stock, 0) + coalesce((
+                       select sum(m.quantity)
+                       from stock_movement m
+                       where m.product_id = p.id
+                         and m.store_id = :storeId
+                         and m.id > coalesce(s.last_movement_id, 0)
+                   ), 0) as stock
+            from product p
+            left join stock_snapshot s on s.product_id = p.id and s.store_id = :storeId
+            """;
+
+    private static final String COMPACT = """
+            insert into stock_snapshot (product_id, store_id, stock, last_movement_id, taken_at)
+            select m.product_id, m.store_id, coalesce(s.stock, 0) + sum(m.quantity), max(m.id), :now
+            from stock_movement m
+            left join stock_snapshot s on s.product_id = m.product_id and s.store_id = m.store_id
+            where m.product_id in (:ids)
+              and m.store_id = :storeId
+              and m.id > coalesce(s.last_movement_id, 0)
+            group by m.product_id, m.store_id, s.stock
+            on conflict (product_id, store_id) do update
+                set stock = excluded.stock,
+                    last_movement_id = excluded.last_movement_id,
+                    taken_at = excluded.taken_at
+            """;
+
+    private static final RowMapper<StockMovement> MOVEMENT = (rs, i) -> new StockMovement(
+            rs.getLong("id"),
+            rs.getLong("store_id"),
+            rs.getLong("product_id"),
+            StockMovementType.valueOf(rs.getString("type")),
+            rs.getBigDecimal("quantity"),
+            (Long) rs.getObject("sale_id"),
+            rs.getString("username"),
+            rs.getString("note"),
+            rs.getTimestamp("created_at").toLocalDateTime()
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public StockJournal(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    // ---------------- WRITE ----------------
+
+    public void append(List<StockMovement> movements) {
+        jdbcTemplate.batchUpdate(INSERT, movements, movements.size(), (ps, m) -> {
+            ps.setLong(1, m.storeId());
+            ps.setLong(2, m.productId());
+            ps.setString(3, m.type().name());
+            ps.setBigDecimal(4, m.quantity());
+            if (m.saleId() != null) {
+                ps.setLong(5, m.saleId());
+            } else {
+                ps.setNull(5, Types.BIGINT);
+            }
+            ps.setString(6, m.username());
+            ps.setString(7, m.note());
+            ps.setTimestamp(8, Timestamp.valueOf(m.createdAt()));
+        });
+    }
+
+    /** One statement for a whole restock list: the arrays are unnested side by side. */
+    public int appendRestock(long storeId, Long[] productIds, BigDecimal[] quantities, String username, String note) {
+        return namedJdbcTemplate.update("""
+                insert into stock_movement (store_id, product_id, type, quantity, username, note, created_at)
+                select :storeId, r.product_id, 'RESTOCK', r.quantity, :username, :note, :now
+                from unnest(cast(:ids as bigint[]), cast(:quantities as numeric[])) as r(product_id, quantity)
+                """, new MapSqlParameterSource()
+                .addValue("storeId", storeId)
+                .addValue("ids", productIds)
+                .addValue("quantities", quantities)
+                .addValue("username", username)
+                .addValue("note", note)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now())));
+    }
+
+    /** Folds the store's tails of the given products into their snapshots (caller holds their locks). */
+    public int compact(long storeId, Collection<Long> productIds) {
+        return namedJdbcTemplate.update(COMPACT, new MapSqlParameterSource()
+                .addValue("storeId", storeId)
+                .addValue("ids", productIds)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now())));
+    }
+
+    // ---------------- READ ----------------
+
+    public Map<Long, BigDecimal> current(long storeId, Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        Map<Long, BigDecimal> stock = new HashMap<>();
+        namedJdbcTemplate.query(CURRENT + " where p.id in (:ids)",
+                Map.of("storeId", storeId, "ids", productIds),
+                rs -> {
+                    stock.put(rs.getLong("id"), rs.getBigDecimal("stock"));
+                });
+        return stock;
+    }
+
+    public Map<Long, BigDecimal> currentAll(long storeId) {
+        Map<Long, BigDecimal> stock = new HashMap<>();
+        namedJdbcTemplate.query(CURRENT, Map.of("storeId", storeId), rs -> {
+            stock.put(rs.getLong("id"), rs.getBigDecimal("stock"));
+        });
+        return stock;
+    }
+
+    /** Sum of every movement up to and including the given time. */
+    public BigDecimal asOf(long storeId, Long productId, LocalDateTime timestamp) {
+        return jdbcTemplate.queryForObject("""
+                select coalesce(sum(m.quantity), 0)
+                from stock_movement m
+                where m.product_id = ? and m.store_id = ? and m.created_at <= ?
+                """, BigDecimal.class, productId, storeId, Timestamp.valueOf(timestamp));
+    }
+
+    public List<StockMovement> findByProduct(long storeId, Long productId, int limit, long offset) {
+        return jdbcTemplate.query("""
+                select * from stock_movement
+                where product_id = ? and store_id = ?
+                order by id desc
+                limit ? offset ?
+                """, MOVEMENT, productId, storeId, limit, offset);
+    }
+
+    public long countByProduct(long storeId, Long productId) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from stock_movement where product_id = ? and store_id = ?",
+                Long.class, productId, storeId);
+    }
+
+    /** Product ids per store with movements past their snapshot, looking only at movement ids above afterId. */
+    public Map<Long, List<Long>> productsWithTail(long afterId) {
+        Map<Long, List<Long>> products = new TreeMap<>();
+        jdbcTemplate.query("""
+                select distinct m.store_id, m.product_id
+                from stock_movement m
+                left join stock_snapshot s on s.product_id = m.product_id and s.store_id = m.store_id
+                where m.id > ? and m.id > coalesce(s.last_movement_id, 0)
+                """, rs -> {
+            products.computeIfAbsent(rs.getLong("store_id"), id -> new ArrayList<>()).add(rs.getLong("product_id"));
+        }, afterId);
+        return products;
+    }
+
+    public long maxMovementId() {
+        return jdbcTemplate.queryForObject("select coalesce(max(id), 0) from stock_movement", Long.class);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.pos.stock;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * Per-product, per-store write locks: PostgreSQL transaction-scoped advisory
+ * locks, released at commit/rollback. A transaction locks within one store,
+ * always in ascending product id order, so two baskets sharing products cannot
+ * deadlock; baskets in different stores never wait on each other.
+ */
+@Component
+public class StockLocks {
+
+    // First key of the two-int advisory lock form, keeps these apart from any other advisory locks.
+    // The store goes in the top byte; past 255 stores ids wrap and share keys, which only costs contention.
+    private static final int NAMESPACE = 0x53544b; // "STK"
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockLocks(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Must run inside a transaction; blocks until every lock is held. */
+    public void lock(long storeId, Collection<Long> productIds) {
+        int key = NAMESPACE | (int) (storeId << 24);
+        productIds.stream()
+                .distinct()
+                .sorted()
+                .forEach(id -> jdbcTemplate.queryForList(
+                        "select pg_advisory_xact_lock(?, ?)",
+                        key, Math.toIntExact(id)
+                ));
+    }
+}
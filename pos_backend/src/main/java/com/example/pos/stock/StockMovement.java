@@ -0,0 +1,23 @@
+package com.example.pos.stock;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** One journal row; quantity is signed (sales negative). id is null until written. */
+public record StockMovement(
+        Long id,
+        Long storeId,
+        Long productId,
+        StockMovementType type,
+        BigDecimal quantity,
+        Long saleId,
+        String username,
+        String note,
+        LocalDateTime createdAt
+) {
+
+    public static StockMovement of(Long storeId, Long productId, StockMovementType type, BigDecimal quantity,
+                                   Long saleId, String username, String note) {
+        return new StockMovement(null, storeId, productId, type, quantity, saleId, username, note, LocalDateTime.now());
+    }
+}
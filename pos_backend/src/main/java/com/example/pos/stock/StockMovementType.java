@@ -0,0 +1,7 @@
+package com.example.pos.stock;
+
+public enum StockMovementType {
+    SALE,
+    ADJUSTMENT,
+    RESTOCK
+}
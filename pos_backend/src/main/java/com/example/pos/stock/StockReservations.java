@@ -0,0 +1,71 @@
+package com.example.pos.stock;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stock promised to open carts, in hundredths (see Quantity), held in memory
+ * until the cart checks out, is abandoned or expires.
+ *
+ * Reservations are advisory: the journal stays the only stock record and
+ * checkout still checks it under the product locks. They only make a product
+ * that open carts already hold look unavailable to other carts and direct
+ * sales, so the shortage shows when the item is scanned, not at payment.
+ * They are per instance: carts on another instance do not see them.
+ */
+@Component
+public class StockReservations {
+
+    private record Key(long storeId, long productId) {
+    }
+
+    // (store, product) -> holder -> reserved quantity; entries are updated inside compute, one key at a time
+    private final Map<Key, Map<String, Long>> reserved = new ConcurrentHashMap<>();
+
+    /**
+     * Sets the holder's reservation of the product to quantity if that plus what
+     * others hold fits in available; otherwise leaves it unchanged and returns false.
+     */
+    public boolean reserve(long storeId, long productId, String holder, long quantity, long available) {
+        boolean[] granted = new boolean[1];
+        reserved.compute(new Key(storeId, productId), (key, holders) -> {
+            Map<String, Long> next = holders == null ? new HashMap<>() : holders;
+            if (heldByOthers(next, holder) + quantity <= available) {
+                next.put(holder, quantity);
+                granted[0] = true;
+            }
+            return next.isEmpty() ? null : next;
+        });
+        return granted[0];
+    }
+
+    public void release(long storeId, long productId, String holder) {
+        reserved.computeIfPresent(new Key(storeId, productId), (key, holders) -> {
+            holders.remove(holder);
+            return holders.isEmpty() ? null : holders;
+        });
+    }
+
+    /** What holders other than this one (null: anyone) have reserved of the product. */
+    public long reservedByOthers(long storeId, long productId, String holder) {
+        long[] sum = new long[1];
+        reserved.computeIfPresent(new Key(storeId, productId), (key, holders) -> {
+            sum[0] = heldByOthers(holders, holder);
+            return holders;
+        });
+        return sum[0];
+    }
+
+    private static long heldByOthers(Map<String, Long> holders, String holder) {
+        long sum = 0;
+        for (Map.Entry<String, Long> entry : holders.entrySet()) {
+            if (!entry.getKey().equals(holder)) {
+                sum += entry.getValue();
+            }
+        }
+        return sum;
+    }
+}
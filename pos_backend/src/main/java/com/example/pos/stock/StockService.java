@@ -0,0 +1,281 @@
+package com.example.pos.stock;
+
+import com.example.pos.event.StockChangedEvent;
+import com.example.pos.product.CatalogChangedEvent;
+import com.example.pos.product.Product;
+import com.example.pos.product.ProductRepository;
+import com.example.pos.product.UnitType;
+import com.example.pos.stock.dto.BulkRestockRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StockService {
+
+    private final StockJournal journal;
+    private final StockLocks locks;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher events;
+
+    // ---------------- SALES ----------------
+
+    /**
+     * Locks the products in the store until the surrounding transaction ends and
+     * returns their current stock there, so the caller can check and deduct
+     * without races.
+     */
+    public Map<Long, BigDecimal> lockForUpdate(long storeId, Collection<Long> productIds) {
+        locks.lock(storeId, productIds);
+        return journal.current(storeId, productIds);
+    }
+
+    public void record(List<StockMovement> movements) {
+        if (!movements.isEmpty()) {
+            journal.append(movements);
+        }
+    }
+
+    // ---------------- ADJUSTMENTS ----------------
+
+    public BigDecimal adjust(long storeId, Long productId, StockMovementType type, BigDecimal quantity,
+                             String note, String username) {
+
+        if (type == null || type == StockMovementType.SALE) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Movement type must be RESTOCK or ADJUSTMENT"
+            );
+        }
+        if (quantity == null || quantity.signum() == 0) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Quantity must not be zero"
+            );
+        }
+        if (type == StockMovementType.RESTOCK && quantity.signum() < 0) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Restock quantity must be positive"
+            );
+        }
+
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Product not found"
+                ));
+        checkScale(product.getUnitType(), quantity);
+
+        BigDecimal current = lockForUpdate(storeId, List.of(productId)).getOrDefault(productId, BigDecimal.ZERO);
+        BigDecimal updated = current.add(quantity);
+
+        if (updated.signum() < 0) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Stock cannot go below zero (current: " + current.toPlainString() + ")"
+            );
+        }
+
+        journal.append(List.of(StockMovement.of(storeId, productId, type, quantity, null, username, note)));
+
+        product.setStock(updated);
+        events.publishEvent(CatalogChangedEvent.stock(storeId));
+        events.publishEvent(StockChangedEvent.of(storeId, product));
+        return updated;
+    }
+
+    /**
+     * Restocks a list of products in one journal insert. All or nothing: any unknown
+     * product, non-positive quantity or quantity off the unit's scale rejects the list.
+     * Returns the new stock levels.
+     */
+    public Map<Long, BigDecimal> restock(long storeId, List<BulkRestockRequest.Item> items, String note, String username) {
+
+        if (items == null || items.isEmpty()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Nothing to restock"
+            );
+        }
+
+        Map<Long, BigDecimal> quantities = new TreeMap<>();
+        for (BulkRestockRequest.Item item : items) {
+            if (item.getProductId() == null || item.getQuantity() == null || item.getQuantity().signum() <= 0) {
+                throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST,
+                        "Every item needs a product ID and a positive quantity"
+                );
+            }
+            if (quantities.put(item.getProductId(), item.getQuantity()) != null) {
+                throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST,
+                        "Product " + item.getProductId() + " is listed more than once"
+                );
+            }
+        }
+
+        Map<Long, Product> products = new HashMap<>();
+        productRepository.findAllById(quantities.keySet()).forEach(p -> products.put(p.getId(), p));
+        List<Long> missing = quantities.keySet().stream().filter(id -> !products.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    "Product not found: " + missing
+            );
+        }
+        quantities.forEach((id, quantity) -> checkScale(products.get(id).getUnitType(), quantity));
+
+        locks.lock(storeId, quantities.keySet());
+        journal.appendRestock(
+                storeId,
+                quantities.keySet().toArray(Long[]::new),
+                quantities.values().toArray(BigDecimal[]::new),
+                username,
+                note
+        );
+        Map<Long, BigDecimal> levels = journal.current(storeId, quantities.keySet());
+
+        events.publishEvent(CatalogChangedEvent.stock(storeId));
+        products.values().forEach(product -> {
+            product.setStock(levels.get(product.getId()));
+            events.publishEvent(StockChangedEvent.of(storeId, product));
+        });
+        return levels;
+    }
+
+    /** Product form: records the difference to the requested level in the store as an adjustment. */
+    public void setLevel(long storeId, Product product, BigDecimal target) {
+
+        BigDecimal requested = target != null ? target : BigDecimal.ZERO;
+        BigDecimal current = lockForUpdate(storeId, List.of(product.getId())).getOrDefault(product.getId(), BigDecimal.ZERO);
+        BigDecimal delta = requested.subtract(current);
+
+        if (delta.signum() != 0) {
+            journal.append(List.of(StockMovement.of(
+                    storeId, product.getId(), StockMovementType.ADJUSTMENT, delta, null, currentUsername(), "Set on product"
+            )));
+        }
+        product.setStock(requested);
+    }
+
+    /** Bulk import, products that already existed: like setLevel, one batch for all of them. */
+    public void setLevels(long storeId, Map<Long, BigDecimal> targets, String note) {
+
+        if (targets.isEmpty()) {
+            return;
+        }
+        Map<Long, BigDecimal> current = lockForUpdate(storeId, targets.keySet());
+        String username = currentUsername();
+
+        List<StockMovement> movements = new ArrayList<>();
+        targets.forEach((productId, target) -> {
+            BigDecimal delta = target.subtract(current.getOrDefault(productId, BigDecimal.ZERO));
+            if (delta.signum() != 0) {
+                movements.add(StockMovement.of(storeId, productId, StockMovementType.ADJUSTMENT, delta, null, username, note));
+            }
+        });
+        record(movements);
+    }
+
+    /** Bulk import, products inserted in this transaction: nobody else can see them yet, so no locks. */
+    public void openingBalances(long storeId, Map<Long, BigDecimal> levels, String note) {
+
+        String username = currentUsername();
+        record(levels.entrySet().stream()
+                .filter(e -> e.getValue().signum() != 0)
+                .map(e -> StockMovement.of(storeId, e.getKey(), StockMovementType.ADJUSTMENT, e.getValue(), null, username, note))
+                .toList());
+    }
+
+    // ---------------- READ ----------------
+
+    /** Sets each product's stock to its level in the store. */
+    @Transactional(readOnly = true)
+    public <T extends Collection<Product>> T fill(long storeId, T products) {
+        // Whole catalog: one pass over all snapshots beats a long IN list
+        Map<Long, BigDecimal> stock = products.size() > 100
+                ? journal.currentAll(storeId)
+                : journal.current(storeId, products.stream().map(Product::getId).toList());
+        products.forEach(p -> p.setStock(stock.getOrDefault(p.getId(), BigDecimal.ZERO)));
+        return products;
+    }
+
+    @Transactional(readOnly = true)
+    public Product fill(long storeId, Product product) {
+        fill(storeId, List.of(product));
+        return product;
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal current(long storeId, Long productId) {
+        return journal.current(storeId, List.of(productId)).getOrDefault(productId, BigDecimal.ZERO);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> current(long storeId, Collection<Long> productIds) {
+        return journal.current(storeId, productIds);
+    }
+
+    @Transactional(readOnly = true)
+    public BigDecimal asOf(long storeId, Long productId, LocalDateTime timestamp) {
+        return journal.asOf(storeId, productId, timestamp);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<StockMovement> movements(long storeId, Long productId, Pageable pageable) {
+        return new PageImpl<>(
+                journal.findByProduct(storeId, productId, pageable.getPageSize(), pageable.getOffset()),
+                pageable,
+                journal.countByProduct(storeId, productId)
+        );
+    }
+
+    // ---------------- COMPACTION ----------------
+
+    public int compact(long storeId, List<Long> productIds) {
+        locks.lock(storeId, productIds);
+        return journal.compact(storeId, productIds);
+    }
+
+    // ---------------- HELPERS ----------------
+
+    public static void checkScale(UnitType unitType, BigDecimal quantity) {
+        if (unitType == UnitType.KG && quantity.stripTrailingZeros().scale() > 2) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Stock for KG unit type cannot have more than 2 decimal places"
+            );
+        }
+        if (unitType == UnitType.UNIT && quantity.stripTrailingZeros().scale() > 0) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Stock for UNIT unit type must be a whole number"
+            );
+        }
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.pos.stock.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class BulkRestockRequest {
+    private List<Item> items;
+    private String note;
+
+    @Data
+    public static class Item {
+        private Long productId;
+        private BigDecimal quantity;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.pos.stock.dto;
+
+import com.example.pos.stock.StockMovementType;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class StockAdjustmentRequest {
+    private StockMovementType type;
+    private BigDecimal quantity;
+    private String note;
+}
@@ -0,0 +1,18 @@
+package com.example.pos.stock.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StockLevelDTO {
+
+    private Long productId;
+    private BigDecimal stock;
+    private LocalDateTime asOf;
+}
@@ -0,0 +1,36 @@
+package com.example.pos.store;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+/**
+ * A branch. Users, sales and stock belong to one store; the catalog is shared.
+ * Name, address and phone print on the receipt; blanks fall back to shop.*.
+ */
+@Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "store")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Store {
+
+    // Created by the migration; everything from before stores existed belongs to it
+    public static final long DEFAULT_ID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private String code;
+
+    private String name;
+
+    private String address;
+
+    private String phone;
+}
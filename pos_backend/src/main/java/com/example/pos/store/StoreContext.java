@@ -0,0 +1,23 @@
+package com.example.pos.store;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * The store the current request works in. JwtAuthenticationFilter puts it in
+ * the authentication details; without one (scheduled jobs, tests) it is the
+ * default store, so a single-store deployment never has to think about it.
+ */
+public final class StoreContext {
+
+    private StoreContext() {
+    }
+
+    public static long currentId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getDetails() instanceof Long storeId) {
+            return storeId;
+        }
+        return Store.DEFAULT_ID;
+    }
+}
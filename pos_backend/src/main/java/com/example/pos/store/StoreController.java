@@ -0,0 +1,35 @@
+package com.example.pos.store;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stores")
+@RequiredArgsConstructor
+public class StoreController {
+
+    private final StoreService storeService;
+
+    @PostMapping
+    public Store create(@RequestBody Store store) {
+        return storeService.create(store);
+    }
+
+    @GetMapping
+    public List<Store> getAll() {
+        return storeService.findAll();
+    }
+
+    // The store this request works in (the token's, or X-Store-Id for admins)
+    @GetMapping("/current")
+    public Store current() {
+        return storeService.findById(StoreContext.currentId());
+    }
+
+    @PutMapping("/{id}")
+    public Store update(@PathVariable Long id, @RequestBody Store store) {
+        return storeService.update(id, store);
+    }
+}
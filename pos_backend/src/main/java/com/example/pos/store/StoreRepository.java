@@ -0,0 +1,18 @@
+package com.example.pos.store;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
+
+public interface StoreRepository extends JpaRepository<Store, Long> {
+
+    boolean existsByCodeIgnoreCase(String code);
+
+    // Background jobs walk every store; served from the query cache until a store is written
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Store> findAll();
+}
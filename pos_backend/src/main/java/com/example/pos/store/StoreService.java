@@ -0,0 +1,81 @@
+package com.example.pos.store;
+
+import com.example.pos.cache.CacheInvalidation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StoreService {
+
+    private final StoreRepository storeRepository;
+    private final ApplicationEventPublisher events;
+
+    public Store create(Store store) {
+
+        if (store.getCode() == null || store.getCode().isBlank()) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Store code is required"
+            );
+        }
+
+        String normalizedCode = store.getCode().trim().toUpperCase();
+
+        if (storeRepository.existsByCodeIgnoreCase(normalizedCode)) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Store with this code already exists"
+            );
+        }
+
+        store.setId(null);
+        store.setCode(normalizedCode);
+        Store saved = storeRepository.save(store);
+        events.publishEvent(CacheInvalidation.store(saved.getId()));
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Store> findAll() {
+        return storeRepository.findAll();
+    }
+
+    @Transactional(readOnly = true)
+    public Store findById(Long id) {
+        return storeRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Store not found"
+                ));
+    }
+
+    // The code is the store's identity (tokens, logs); only receipt details change
+    public Store update(Long id, Store updated) {
+        Store store = findById(id);
+        store.setName(updated.getName());
+        store.setAddress(updated.getAddress());
+        store.setPhone(updated.getPhone());
+        Store saved = storeRepository.save(store);
+        events.publishEvent(CacheInvalidation.store(id));
+        return saved;
+    }
+
+    /** For writers that assign a store: unknown ids are the client's mistake, not a 500 from the FK. */
+    @Transactional(readOnly = true)
+    public void checkExists(Long id) {
+        if (!storeRepository.existsById(id)) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Store not found with ID: " + id
+            );
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.pos.tracing;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+
+/**
+ * Timings of the request running on the current thread: named phases and the
+ * SQL statements it executed. Started and ended by TracingFilter; the record
+ * methods are no-ops on threads without a trace (schedulers, async listeners).
+ */
+public final class RequestTrace {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    /** One executed statement; sql is the text as prepared, without parameter values. */
+    public record SqlTiming(String sql, long nanos) {
+    }
+
+    private final String id;
+    private final int maxStatements;
+    private final long started = System.nanoTime();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private final List<SqlTiming> statements = new ArrayList<>();
+    private int statementCount;
+    private long sqlNanos;
+    private long handlerStarted;
+    private long bodyStarted;
+    private long handlerEnded;
+    private long ended;
+    private String user;
+
+    private RequestTrace(String id, int maxStatements) {
+        this.id = id;
+        this.maxStatements = maxStatements;
+    }
+
+    static RequestTrace begin(String id, int maxStatements) {
+        RequestTrace trace = new RequestTrace(id, maxStatements);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static RequestTrace current() {
+        return CURRENT.get();
+    }
+
+    /** Adds nanos to the named phase of the current request, if any. */
+    public static void record(String phase, long nanos) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            trace.phases.merge(phase, nanos, Long::sum);
+        }
+    }
+
+    // ---------------- MARKS ----------------
+
+    void sql(String sql, long nanos) {
+        statementCount++;
+        sqlNanos += nanos;
+        if (statements.size() < maxStatements) {
+            statements.add(new SqlTiming(sql, nanos));
+        }
+    }
+
+    void handlerStarted(String user) {
+        this.user = user;
+        handlerStarted = System.nanoTime();
+    }
+
+    // Right before the message converter writes the body
+    void bodyStarted() {
+        if (bodyStarted == 0) {
+            bodyStarted = System.nanoTime();
+        }
+    }
+
+    void handlerEnded() {
+        if (handlerEnded == 0) {
+            handlerEnded = System.nanoTime();
+        }
+    }
+
+    void finish() {
+        ended = System.nanoTime();
+    }
+
+    // ---------------- READ ----------------
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getSqlNanos() {
+        return sqlNanos;
+    }
+
+    public List<SqlTiming> getStatements() {
+        return statements;
+    }
+
+    public long getTotalNanos() {
+        return (ended != 0 ? ended : System.nanoTime()) - started;
+    }
+
+    /**
+     * All phases known so far: the recorded ones, then app (handler up to the body
+     * write), ser (body write) and db (all statements). Entries can overlap.
+     */
+    public Map<String, Long> phases() {
+        Map<String, Long> all = new LinkedHashMap<>(phases);
+        if (handlerStarted != 0) {
+            long appEnd = bodyStarted != 0 ? bodyStarted : handlerEnded;
+            if (appEnd != 0) {
+                all.put("app", appEnd - handlerStarted);
+            }
+            if (bodyStarted != 0 && handlerEnded != 0) {
+                all.put("ser", handlerEnded - bodyStarted);
+            }
+        }
+        all.put("db", sqlNanos);
+        return all;
+    }
+
+    /**
+     * Server-Timing header value, e.g. jwt;dur=0.4, app;dur=12.1, db;dur=8.0;desc="5 queries", total;dur=13.2.
+     * total only once the request is complete.
+     */
+    public String serverTiming(boolean complete) {
+        StringBuilder header = new StringBuilder();
+        phases().forEach((name, nanos) -> {
+            header.append(name).append(";dur=").append(millis(nanos));
+            if (name.equals("db")) {
+                header.append(";desc=\"").append(statementCount).append(statementCount == 1 ? " query\"" : " queries\"");
+            }
+            header.append(", ");
+        });
+        if (complete) {
+            header.append("total;dur=").append(millis(getTotalNanos()));
+        } else {
+            header.setLength(header.length() - 2);
+        }
+        return header.toString();
+    }
+
+    static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.pos.tracing;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Times every statement executed on a traced request's thread. Connections
+ * taken outside a request are handed out untouched.
+ *
+ * Only execute* calls are timed (not fetching the rows of a result set), which
+ * is where the database time of this app's queries goes.
+ */
+public class TracingDataSource extends DelegatingDataSource {
+
+    public TracingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return traced(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return traced(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private static Connection traced(Connection connection) {
+        RequestTrace trace = RequestTrace.current();
+        if (trace == null) {
+            return connection;
+        }
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            return switch (method.getName()) {
+                case "prepareCall" -> proxy(CallableStatement.class, statementHandler(result, sql, trace));
+                case "prepareStatement" -> proxy(PreparedStatement.class, statementHandler(result, sql, trace));
+                case "createStatement" -> proxy(Statement.class, statementHandler(result, null, trace));
+                default -> result;
+            };
+        });
+    }
+
+    private static InvocationHandler statementHandler(Object statement, String preparedSql, RequestTrace trace) {
+        return (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            if (method.getName().startsWith("executeBatch") || method.getName().startsWith("executeLargeBatch")) {
+                sql = (sql != null ? sql : "") + " [batch]";
+            }
+            long started = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                trace.sql(sql != null ? sql.strip() : "?", System.nanoTime() - started);
+            }
+        };
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(TracingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.pos.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Outermost filter: gives every request a correlation id (X-Request-Id, taken
+ * from the caller when it sends a sane one) in the MDC and the response, traces
+ * it, sends the timings in Server-Timing and logs requests slower than
+ * tracing.slow-request-ms, with their statements, to the pos.slow-requests logger.
+ *
+ * Headers cannot change once the body starts going out. Message converters
+ * flush after writing, so explicit flushes are held back until the chain returns:
+ * a body that fits the container buffer is still uncommitted here and gets the
+ * complete Server-Timing. A larger one, or one that reaches its Content-Length,
+ * is already out and keeps the partial header ResponseTimingAdvice set just
+ * before it was written (without ser and total).
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TracingFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID = "X-Request-Id";
+    public static final String SERVER_TIMING = "Server-Timing";
+    public static final String MDC_KEY = "requestId";
+
+    private static final Logger slowLog = LoggerFactory.getLogger("pos.slow-requests");
+    private static final Pattern SANE_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final JsonMapper jsonMapper;
+    private final boolean enabled;
+    private final long slowRequestMs;
+    private final int maxStatements;
+
+    public TracingFilter(JsonMapper jsonMapper,
+                         @Value("${tracing.enabled:true}") boolean enabled,
+                         @Value("${tracing.slow-request-ms:1000}") long slowRequestMs,
+                         @Value("${tracing.max-statements:100}") int maxStatements) {
+        this.jsonMapper = jsonMapper;
+        this.enabled = enabled;
+        this.slowRequestMs = slowRequestMs;
+        this.maxStatements = maxStatements;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String incoming = request.getHeader(REQUEST_ID);
+        String id = incoming != null && SANE_ID.matcher(incoming).matches()
+                ? incoming
+                : UUID.randomUUID().toString();
+
+        RequestTrace trace = RequestTrace.begin(id, maxStatements);
+        MDC.put(MDC_KEY, id);
+        response.setHeader(REQUEST_ID, id);
+        try {
+            filterChain.doFilter(request, new DeferredFlushResponse(response));
+        } finally {
+            trace.handlerEnded();
+            trace.finish();
+            if (!response.isCommitted()) {
+                response.setHeader(SERVER_TIMING, trace.serverTiming(true));
+            }
+            if (trace.getTotalNanos() >= slowRequestMs * 1_000_000) {
+                logSlow(trace, request, response.getStatus());
+            }
+            RequestTrace.end();
+            MDC.remove(MDC_KEY);
+        }
+    }
+
+    // One JSON line per slow request
+    private void logSlow(RequestTrace trace, HttpServletRequest request, int status) {
+        Map<String, String> phases = new LinkedHashMap<>();
+        trace.phases().forEach((name, nanos) -> phases.put(name, RequestTrace.millis(nanos)));
+
+        List<Map<String, String>> statements = trace.getStatements().stream()
+                .map(s -> Map.of("sql", s.sql(), "ms", RequestTrace.millis(s.nanos())))
+                .toList();
+
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("requestId", trace.getId());
+        entry.put("method", request.getMethod());
+        entry.put("uri", request.getQueryString() == null
+                ? request.getRequestURI()
+                : request.getRequestURI() + "?" + request.getQueryString());
+        entry.put("user", trace.getUser());
+        entry.put("status", status);
+        entry.put("totalMs", RequestTrace.millis(trace.getTotalNanos()));
+        entry.put("phasesMs", phases);
+        entry.put("sqlCount", trace.getStatementCount());
+        entry.put("statements", statements);
+        if (trace.getStatementCount() > statements.size()) {
+            entry.put("statementsOmitted", trace.getStatementCount() - statements.size());
+        }
+        slowLog.warn(jsonMapper.writeValueAsString(entry));
+    }
+
+    // ---------------- RESPONSE ----------------
+
+    private static final class DeferredFlushResponse extends HttpServletResponseWrapper {
+
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        DeferredFlushResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream target = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        target.write(b);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        target.write(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() {
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        target.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return target.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        target.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(super.getWriter()) {
+                    @Override
+                    public void flush() {
+                    }
+                };
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() {
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.pos.user;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Username lookup through Hibernate's natural-id API, so repeated lookups
+ * (every authenticated request, every sale) are answered from the
+ * user-by-username and user cache regions instead of a query.
+ */
+public interface UserNaturalIdLookup {
+
+    // Needs a session that outlives the unwrap() call, also from the JWT filter
+    @Transactional(readOnly = true)
+    Optional<User> findCachedByUsername(String username);
+}
@@ -3,6 +3,6 @@ package com.example.pos.user;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdLookup {
     Optional<User> findByUsername(String username);
 }
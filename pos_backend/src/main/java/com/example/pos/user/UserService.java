@@ -1,24 +1,46 @@
 package com.example.pos.user;
 
+import com.example.pos.audit.AuditAction;
+import com.example.pos.audit.AuditEvent;
+import com.example.pos.cache.CacheInvalidation;
+import com.example.pos.store.StoreContext;
+import com.example.pos.store.StoreService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
+@Transactional
 public class UserService {
 
     private final UserRepository userRepository;
+    private final StoreService storeService;
+    private final ApplicationEventPublisher events;
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, StoreService storeService, ApplicationEventPublisher events) {
         this.userRepository = userRepository;
+        this.storeService = storeService;
+        this.events = events;
     }
 
     // CREATE user (admin creates cashier or admin)
     public User createUser(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+
+        // Without a store, the user joins the creating admin's store
+        if (user.getStoreId() == null) {
+            user.setStoreId(StoreContext.currentId());
+        } else {
+            storeService.checkExists(user.getStoreId());
+        }
+        User saved = userRepository.save(user);
+        events.publishEvent(CacheInvalidation.user(saved.getId()));
+        events.publishEvent(AuditEvent.of(AuditAction.USER_CREATED, saved.getId(), 0));
+        return saved;
     }
 
     // READ all users
@@ -38,15 +60,27 @@ public class UserService {
         existing.setUsername(updatedUser.getUsername());
         existing.setRole(updatedUser.getRole());
 
+        // Moving to another store takes effect with the user's next login
+        if (updatedUser.getStoreId() != null) {
+            storeService.checkExists(updatedUser.getStoreId());
+            existing.setStoreId(updatedUser.getStoreId());
+        }
+
         // update password only if new password is provided
         if (updatedUser.getPassword() != null && !updatedUser.getPassword().isEmpty()) {
             existing.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
         }
-        return userRepository.save(existing);
+        User saved = userRepository.save(existing);
+        // Other instances must not keep authenticating with the old role or username
+        events.publishEvent(CacheInvalidation.user(id));
+        events.publishEvent(AuditEvent.of(AuditAction.USER_UPDATED, id, 0));
+        return saved;
     }
 
     // DELETE user
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        events.publishEvent(CacheInvalidation.user(id));
+        events.publishEvent(AuditEvent.of(AuditAction.USER_DELETED, id, 0));
     }
 }
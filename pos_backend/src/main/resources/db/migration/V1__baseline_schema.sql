@@ -0,0 +1,39 @@
+-- Baseline schema, matching what Hibernate used to create with ddl-auto=update.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate).
+
+create table if not exists users (
+    id       bigint generated by default as identity primary key,
+    username varchar(255) not null unique,
+    password varchar(255) not null,
+    role     varchar(255) not null check (role in ('ADMIN', 'CASHIER'))
+);
+
+create table if not exists category (
+    id   bigint generated by default as identity primary key,
+    name varchar(255) not null unique
+);
+
+create table if not exists product (
+    id          bigint generated by default as identity primary key,
+    name        varchar(255),
+    price       numeric(38, 2) not null,
+    stock       numeric(38, 2),
+    category_id bigint references category (id),
+    unit_type   varchar(255) not null check (unit_type in ('UNIT', 'KG'))
+);
+
+create table if not exists sale (
+    id             bigint generated by default as identity primary key,
+    invoice_number varchar(255) not null unique,
+    total_amount   numeric(38, 2),
+    timestamp      timestamp(6),
+    cashier_id     bigint references users (id)
+);
+
+create table if not exists sale_item (
+    id            bigint generated by default as identity primary key,
+    product_id    bigint references product (id),
+    quantity      numeric(38, 2),
+    price_at_sale numeric(38, 2),
+    sale_id       bigint references sale (id)
+);
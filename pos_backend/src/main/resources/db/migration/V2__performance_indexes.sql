@@ -0,0 +1,14 @@
+-- Reports filter sales by date range, my-sales by cashier.
+create index if not exists idx_sale_timestamp on sale (timestamp);
+create index if not exists idx_sale_cashier_id on sale (cashier_id);
+
+-- Sale items are always loaded per sale; product_id backs the FK check on product delete.
+create index if not exists idx_sale_item_sale_id on sale_item (sale_id);
+create index if not exists idx_sale_item_product_id on sale_item (product_id);
+
+-- existsByCategoryId (category delete guard).
+create index if not exists idx_product_category_id on product (category_id);
+
+-- existsByNameIgnoreCase is generated as upper(name) = upper(?).
+create index if not exists idx_product_name_upper on product (upper(name));
+create index if not exists idx_category_name_upper on category (upper(name));
@@ -0,0 +1,21 @@
+-- Sale lines keep what the product looked like when it was sold, so history
+-- does not change when a product is renamed or repriced.
+alter table sale_item add column if not exists product_name varchar(255);
+alter table sale_item add column if not exists unit_price numeric(38, 2);
+alter table sale_item add column if not exists unit_type varchar(255) check (unit_type in ('UNIT', 'KG'));
+alter table sale_item add column if not exists category_id bigint;
+
+-- Backfill: the name/unit/category can only come from the current product; the
+-- unit price is recovered from the stored line total where possible.
+update sale_item i
+set product_name = p.name,
+    unit_type    = p.unit_type,
+    category_id  = p.category_id,
+    unit_price   = case
+                       when i.quantity is not null and i.quantity <> 0
+                           then round(i.price_at_sale / i.quantity, 2)
+                       else p.price
+                   end
+from product p
+where p.id = i.product_id
+  and i.product_name is null;
@@ -0,0 +1,19 @@
+create table if not exists shift (
+    id          bigint generated by default as identity primary key,
+    cashier_id  bigint         not null references users (id),
+    opened_at   timestamp(6)   not null,
+    closed_at   timestamp(6),
+    sale_count  bigint         not null default 0,
+    revenue     numeric(38, 2) not null default 0,
+    line_count  bigint         not null default 0,
+    units_sold  numeric(38, 2) not null default 0,
+    kg_sold     numeric(38, 2) not null default 0
+);
+
+-- At most one open shift per cashier; also serves the "current shift" lookup
+create unique index if not exists uq_shift_open_per_cashier on shift (cashier_id) where closed_at is null;
+
+alter table sale add column if not exists shift_id bigint references shift (id);
+
+-- my-sales: one shift's sales, newest first
+create index if not exists idx_sale_shift_timestamp on sale (shift_id, timestamp desc);
@@ -0,0 +1,37 @@
+-- Every stock change is appended here instead of overwriting product.stock.
+-- quantity is signed: sales are negative, restocks positive, adjustments either.
+-- sale_id has no FK: archived sales are deleted from the hot tables.
+create table if not exists stock_movement (
+    id          bigint generated by default as identity primary key,
+    product_id  bigint         not null references product (id) on delete cascade,
+    type        varchar(20)    not null,
+    quantity    numeric(38, 2) not null,
+    sale_id     bigint,
+    username    varchar(255),
+    note        varchar(255),
+    created_at  timestamp(6)   not null
+);
+
+-- Current stock: snapshot plus the tail after last_movement_id
+create index if not exists idx_stock_movement_product_id on stock_movement (product_id, id) include (quantity);
+-- Stock as of a timestamp
+create index if not exists idx_stock_movement_product_created on stock_movement (product_id, created_at) include (quantity);
+
+-- Compacted balance per product: sum of its movements up to last_movement_id
+create table if not exists stock_snapshot (
+    product_id        bigint         primary key references product (id) on delete cascade,
+    stock             numeric(38, 2) not null,
+    last_movement_id  bigint         not null,
+    taken_at          timestamp(6)   not null
+);
+
+-- Opening balance from the old column, folded straight into the snapshot
+insert into stock_movement (product_id, type, quantity, note, created_at)
+select p.id, 'ADJUSTMENT', coalesce(p.stock, 0), 'Opening balance', now()
+from product p;
+
+insert into stock_snapshot (product_id, stock, last_movement_id, taken_at)
+select m.product_id, m.quantity, m.id, m.created_at
+from stock_movement m;
+
+alter table product drop column stock;
@@ -0,0 +1,3 @@
+-- Invoice numbers were 8 random hex digits: collisions against the unique
+-- constraint become likely after tens of thousands of sales.
+create sequence if not exists invoice_number_seq;
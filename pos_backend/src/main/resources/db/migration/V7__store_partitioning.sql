@@ -0,0 +1,42 @@
+-- One deployment serves several branches. The catalog (product, category) is
+-- shared; users, sales and stock belong to a store. Everything that existed
+-- before is store 1, whose receipt details stay in the shop.* properties until
+-- they are filled in here.
+create table if not exists store (
+    id       bigint generated by default as identity primary key,
+    code     varchar(32)  not null unique,
+    name     varchar(255),
+    address  varchar(255),
+    phone    varchar(64)
+);
+
+insert into store (code)
+select 'MAIN'
+where not exists (select 1 from store);
+
+-- Backfilled through the default, which is then dropped: every writer has to say which store
+alter table users add column if not exists store_id bigint not null default 1 references store (id);
+alter table users alter column store_id drop default;
+
+alter table sale add column if not exists store_id bigint not null default 1 references store (id);
+alter table sale alter column store_id drop default;
+
+alter table stock_movement add column if not exists store_id bigint not null default 1 references store (id);
+alter table stock_movement alter column store_id drop default;
+
+alter table stock_snapshot add column if not exists store_id bigint not null default 1 references store (id);
+alter table stock_snapshot alter column store_id drop default;
+
+-- Reports and sale lists: one store's sales in a date range
+create index if not exists idx_sale_store_timestamp on sale (store_id, timestamp);
+
+-- Stock reads are per (product, store); product first still serves the on-delete cascade
+drop index if exists idx_stock_movement_product_id;
+drop index if exists idx_stock_movement_product_created;
+create index if not exists idx_stock_movement_product_store_id
+    on stock_movement (product_id, store_id, id) include (quantity);
+create index if not exists idx_stock_movement_product_store_created
+    on stock_movement (product_id, store_id, created_at) include (quantity);
+
+alter table stock_snapshot drop constraint if exists stock_snapshot_pkey;
+alter table stock_snapshot add primary key (product_id, store_id);
@@ -0,0 +1,30 @@
+-- Promotions on a product or on a whole category. Percent-off rules take a
+-- percentage off the line; multi-buy rules ("3 for 2") make every buy_quantity-th
+-- group of units cost pay_quantity units. Either may be limited to a date range
+-- and to a daily time window (start_time..end_time, across midnight if start > end).
+create table if not exists promotion (
+    id            bigint generated by default as identity primary key,
+    name          varchar(255) not null,
+    type          varchar(32)  not null check (type in ('PERCENT_OFF', 'MULTI_BUY')),
+    product_id    bigint references product (id) on delete cascade,
+    category_id   bigint references category (id) on delete cascade,
+    percent       numeric(5, 2),
+    buy_quantity  integer,
+    pay_quantity  integer,
+    start_time    time(0),
+    end_time      time(0),
+    valid_from    timestamp(6),
+    valid_until   timestamp(6),
+    active        boolean      not null default true,
+    check ((product_id is null) <> (category_id is null))
+);
+
+-- Compiled into lookup tables from the active rows on every change
+create index if not exists idx_promotion_active on promotion (active) where active;
+
+-- What each line was discounted by, and which promotion did it. price_at_sale
+-- stays the amount charged for the line, so totals and reports are net.
+-- The promotion is a snapshot like the product columns: no foreign key.
+alter table sale_item add column if not exists discount numeric(38, 2) not null default 0;
+alter table sale_item add column if not exists promotion_id bigint;
+alter table sale_item add column if not exists promotion_name varchar(255);
@@ -0,0 +1,19 @@
+-- Transactional outbox: messages for downstream integrations, written in the
+-- same transaction as the sale or product change they describe and deleted
+-- once a relay has delivered them. A failed delivery is retried from
+-- available_at on, later each time.
+create table if not exists outbox_event (
+    id             bigint generated by default as identity primary key,
+    aggregate_type varchar(32)  not null,
+    aggregate_id   bigint       not null,
+    store_id       bigint,
+    event_type     varchar(64)  not null,
+    payload        jsonb        not null,
+    created_at     timestamp(6) not null default now(),
+    available_at   timestamp(6) not null default now(),
+    attempts       integer      not null default 0,
+    last_error     varchar(1000)
+);
+
+-- Relays claim the oldest deliverable rows (for update skip locked)
+create index if not exists idx_outbox_event_available on outbox_event (available_at, id);
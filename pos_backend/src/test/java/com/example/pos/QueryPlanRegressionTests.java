@@ -0,0 +1,174 @@
+package com.example.pos;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs EXPLAIN for the hot repository queries against a local PostgreSQL
+ * seeded with realistic row counts, and fails if any of them degrades to a
+ * sequential scan.
+ *
+ * Point POS_PLAN_TEST_DB_URL (plus _USER / _PASSWORD) at a scratch database;
+ * the test works in its own schema and drops it afterwards.
+ */
+@EnabledIfEnvironmentVariable(named = "POS_PLAN_TEST_DB_URL", matches = ".+")
+class QueryPlanRegressionTests {
+
+    private static final String SCHEMA = "pos_plan_test";
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        String url = System.getenv("POS_PLAN_TEST_DB_URL");
+        String user = System.getenv("POS_PLAN_TEST_DB_USER");
+        String password = System.getenv("POS_PLAN_TEST_DB_PASSWORD");
+
+        connection = DriverManager.getConnection(url, user, password);
+        execute("drop schema if exists " + SCHEMA + " cascade");
+
+        Flyway.configure()
+                .dataSource(url, user, password)
+                .schemas(SCHEMA)
+                .createSchemas(true)
+                .load()
+                .migrate();
+
+        execute("set search_path to " + SCHEMA);
+        execute("""
+                insert into store (code)
+                select 'STORE' || g from generate_series(2, 4) g
+                """);
+        execute("""
+                insert into users (username, password, role, store_id)
+                select 'cashier' || g, 'x', 'CASHIER', (g % 4) + 1 from generate_series(1, 50) g
+                """);
+        execute("""
+                insert into category (name)
+                select 'Category ' || g from generate_series(1, 500) g
+                """);
+        execute("""
+                insert into product (name, price, category_id, unit_type)
+                select 'Product ' || g, (g % 1000) + 0.99, (g % 500) + 1, 'UNIT'
+                from generate_series(1, 20000) g
+                """);
+        execute("""
+                insert into sale (invoice_number, total_amount, timestamp, cashier_id, store_id)
+                select 'INV-' || g, 10.00, now() - (g || ' minutes')::interval, (g % 50) + 1, (g % 50) % 4 + 1
+                from generate_series(1, 200000) g
+                """);
+        execute("""
+                insert into sale_item (product_id, quantity, price_at_sale, sale_id)
+                select (g % 20000) + 1, 1, 10.00, (g % 200000) + 1
+                from generate_series(1, 600000) g
+                """);
+        execute("""
+                insert into stock_movement (store_id, product_id, type, quantity, sale_id, created_at)
+                select (g % 4) + 1, (g % 20000) + 1, 'SALE', -1, (g % 200000) + 1, now() - (g || ' seconds')::interval
+                from generate_series(1, 600000) g
+                """);
+        execute("""
+                insert into stock_snapshot (product_id, store_id, stock, last_movement_id, taken_at)
+                select m.product_id, m.store_id, 100, max(m.id) - 5, now()
+                from stock_movement m group by m.product_id, m.store_id
+                """);
+        execute("analyze");
+    }
+
+    @AfterAll
+    static void dropSchema() throws SQLException {
+        if (connection != null) {
+            execute("drop schema if exists " + SCHEMA + " cascade");
+            connection.close();
+        }
+    }
+
+    @Test
+    void productNameLookupUsesIndex() throws SQLException {
+        assertNoSeqScan("select p.id from product p where upper(p.name) = upper('Product 123') fetch first 1 rows only");
+    }
+
+    @Test
+    void categoryNameLookupUsesIndex() throws SQLException {
+        assertNoSeqScan("select c.id from category c where upper(c.name) = upper('Category 12') fetch first 1 rows only");
+    }
+
+    @Test
+    void productsByCategoryUsesIndex() throws SQLException {
+        assertNoSeqScan("select p.id from product p where p.category_id = 42 fetch first 1 rows only");
+    }
+
+    @Test
+    void salesInDateRangeUsesIndex() throws SQLException {
+        assertNoSeqScan("""
+                select s.* from sale s
+                where s.store_id = 2
+                  and s.timestamp >= date_trunc('day', now()) - interval '1 day'
+                  and s.timestamp < date_trunc('day', now())
+                """);
+    }
+
+    @Test
+    void salesByCashierUsesIndex() throws SQLException {
+        assertNoSeqScan("select s.* from sale s where s.cashier_id = 7");
+    }
+
+    @Test
+    void saleItemsBySaleUsesIndex() throws SQLException {
+        assertNoSeqScan("select i.* from sale_item i where i.sale_id = 1234");
+    }
+
+    @Test
+    void saleItemsByProductUsesIndex() throws SQLException {
+        assertNoSeqScan("select i.id from sale_item i where i.product_id = 55 fetch first 1 rows only");
+    }
+
+    @Test
+    void currentStockReadsOnlyTheJournalTail() throws SQLException {
+        assertNoSeqScan("""
+                select p.id,
+                       coalesce(s.stock, 0) + coalesce((
+                           select sum(m.quantity) from stock_movement m
+                           where m.product_id = p.id and m.store_id = 2 and m.id > coalesce(s.last_movement_id, 0)
+                       ), 0)
+                from product p
+                left join stock_snapshot s on s.product_id = p.id and s.store_id = 2
+                where p.id in (17, 4711)
+                """);
+    }
+
+    @Test
+    void stockAsOfUsesIndex() throws SQLException {
+        assertNoSeqScan("""
+                select coalesce(sum(m.quantity), 0) from stock_movement m
+                where m.product_id = 42 and m.store_id = 2 and m.created_at <= now() - interval '1 hour'
+                """);
+    }
+
+    private static void assertNoSeqScan(String sql) throws SQLException {
+        String plan;
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("explain (format json) " + sql)) {
+            rs.next();
+            plan = rs.getString(1);
+        }
+        assertFalse(plan.contains("\"Seq Scan\""), () -> "Sequential scan in plan for:\n" + sql + "\n" + plan);
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Statement st = connection.createStatement()) {
+            st.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.pos.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionLimiterTests {
+
+    @Test
+    void rejectsAtOnceWhenQueueIsFull() throws Exception {
+        AdmissionLimiter limiter = new AdmissionLimiter(1, 1, 10_000, 1);
+        assertTrue(limiter.acquire());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> waiter = executor.submit(limiter::acquire);
+            while (limiter.queued() == 0) {
+                Thread.sleep(5);
+            }
+
+            // Queue of one is taken: no wait at all
+            long started = System.nanoTime();
+            assertFalse(limiter.acquire());
+            assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(1));
+
+            limiter.release();
+            assertTrue(waiter.get(5, TimeUnit.SECONDS));
+            assertEquals(1, limiter.active());
+            assertEquals(0, limiter.queued());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void waiterTimesOut() throws Exception {
+        AdmissionLimiter limiter = new AdmissionLimiter(1, 4, 50, 1);
+        assertTrue(limiter.acquire());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertFalse(executor.submit(limiter::acquire).get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, limiter.queued());
+        assertEquals(1, limiter.active());
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.pos.archive;
+
+import com.example.pos.store.Store;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArchiveSegmentTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsAndScansOnlyTheRequestedRange() throws Exception {
+        YearMonth month = YearMonth.of(2024, 3);
+        List<ArchiveRow> rows = List.of(
+                new ArchiveRow(1L, 1L, LocalDateTime.of(2024, 3, 1, 9, 0), 10L, new BigDecimal("2"), new BigDecimal("5.00")),
+                new ArchiveRow(1L, 1L, LocalDateTime.of(2024, 3, 1, 9, 0), 11L, new BigDecimal("0.75"), new BigDecimal("3.38")),
+                new ArchiveRow(2L, 1L, LocalDateTime.of(2024, 3, 15, 12, 30), 10L, new BigDecimal("1"), new BigDecimal("2.50")),
+                new ArchiveRow(3L, 1L, LocalDateTime.of(2024, 3, 31, 23, 59), 12L, new BigDecimal("4"), new BigDecimal("8.00"))
+        );
+
+        ArchiveSegment.write(dir.resolve("sales-2024-03.seg"), month, rows);
+        ArchiveSegment segment = ArchiveSegment.open(dir.resolve("sales-2024-03.seg"));
+
+        assertEquals(month, segment.getMonth());
+        assertEquals(4, segment.getRowCount());
+
+        List<long[]> seen = new ArrayList<>();
+        segment.scan(
+                1L,
+                ArchiveSegment.epochSecond(LocalDateTime.of(2024, 3, 1, 9, 0)),
+                ArchiveSegment.epochSecond(LocalDateTime.of(2024, 3, 31, 0, 0)),
+                (saleId, ts, productId, quantity, amount) -> seen.add(new long[]{saleId, productId, quantity, amount})
+        );
+
+        assertEquals(3, seen.size());
+        assertEquals(75, seen.get(1)[2]);
+        assertEquals(338, seen.get(1)[3]);
+        assertEquals(2, seen.get(2)[0]);
+
+        assertFalse(segment.overlaps(
+                ArchiveSegment.epochSecond(LocalDateTime.of(2024, 4, 1, 0, 0)),
+                ArchiveSegment.epochSecond(LocalDateTime.of(2024, 5, 1, 0, 0))
+        ));
+    }
+
+    @Test
+    void scansOnlyTheRequestedStore() throws Exception {
+        List<ArchiveRow> rows = List.of(
+                new ArchiveRow(1L, 1L, LocalDateTime.of(2024, 3, 1, 9, 0), 10L, new BigDecimal("2"), new BigDecimal("5.00")),
+                new ArchiveRow(2L, 2L, LocalDateTime.of(2024, 3, 1, 9, 5), 10L, new BigDecimal("1"), new BigDecimal("2.50")),
+                new ArchiveRow(3L, 1L, LocalDateTime.of(2024, 3, 2, 9, 0), 11L, new BigDecimal("3"), new BigDecimal("6.00"))
+        );
+        ArchiveSegment segment = ArchiveSegment.write(dir.resolve("sales-2024-03.seg"), YearMonth.of(2024, 3), rows);
+
+        List<Long> store1 = new ArrayList<>();
+        segment.scan(1L, Long.MIN_VALUE, Long.MAX_VALUE, (saleId, ts, productId, quantity, amount) -> store1.add(saleId));
+        List<Long> store2 = new ArrayList<>();
+        segment.scan(2L, Long.MIN_VALUE, Long.MAX_VALUE, (saleId, ts, productId, quantity, amount) -> store2.add(saleId));
+
+        assertEquals(List.of(1L, 3L), store1);
+        assertEquals(List.of(2L), store2);
+    }
+
+    @Test
+    void readsVersionOneSegmentsAsTheDefaultStore() throws Exception {
+        // Header plus the five columns of the first format, one row
+        ByteBuffer v1 = ByteBuffer.allocate(32 + 5 * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        long ts = ArchiveSegment.epochSecond(LocalDateTime.of(2023, 7, 4, 10, 0));
+        v1.putInt(0x50534131).putInt(1).putInt(1).putInt(202307).putLong(ts).putLong(ts);
+        v1.putLong(ts).putLong(42L).putLong(7L).putLong(150L).putLong(999L);
+        Path file = dir.resolve("sales-2023-07.seg");
+        Files.write(file, v1.array());
+
+        ArchiveSegment segment = ArchiveSegment.open(file);
+
+        List<long[]> seen = new ArrayList<>();
+        segment.scan(Store.DEFAULT_ID, Long.MIN_VALUE, Long.MAX_VALUE,
+                (saleId, t, productId, quantity, amount) -> seen.add(new long[]{saleId, productId, quantity, amount}));
+        segment.scan(2L, Long.MIN_VALUE, Long.MAX_VALUE,
+                (saleId, t, productId, quantity, amount) -> seen.add(new long[]{-1}));
+
+        assertEquals(1, seen.size());
+        assertEquals(42, seen.get(0)[0]);
+        assertEquals(999, seen.get(0)[3]);
+    }
+
+    @Test
+    void rejectsSegmentsBeyondTheMappingLimit() throws Exception {
+        // 32-byte header and six 8-byte columns per row must stay within 2 GB
+        assertEquals(2_147_483_600, ArchiveSegment.bytes(44_739_241));
+        assertThrows(IllegalStateException.class, () -> ArchiveSegment.bytes(44_739_242));
+
+        Path file = dir.resolve("sales-2024-01.seg");
+        try (RandomAccessFile sparse = new RandomAccessFile(file.toFile(), "rw")) {
+            sparse.setLength(3L << 30);
+        }
+        assertThrows(IllegalStateException.class, () -> ArchiveSegment.open(file));
+    }
+
+    @Test
+    void refusesRowsThatDoNotMatchTheCountAndLeavesNoFile() {
+        Path path = dir.resolve("sales-2024-03.seg");
+        List<ArchiveRow> rows = List.of(
+                new ArchiveRow(1L, 1L, LocalDateTime.of(2024, 3, 1, 9, 0), 10L, new BigDecimal("2"), new BigDecimal("5.00")),
+                new ArchiveRow(2L, 1L, LocalDateTime.of(2024, 3, 2, 9, 0), 10L, new BigDecimal("1"), new BigDecimal("2.50"))
+        );
+
+        assertThrows(IllegalStateException.class,
+                () -> ArchiveSegment.write(path, YearMonth.of(2024, 3), 3, rows.iterator()));
+        assertThrows(IllegalStateException.class,
+                () -> ArchiveSegment.write(path, YearMonth.of(2024, 3), 1, rows.iterator()));
+
+        assertFalse(Files.exists(path));
+        assertFalse(Files.exists(dir.resolve("sales-2024-03.seg.tmp")));
+    }
+}
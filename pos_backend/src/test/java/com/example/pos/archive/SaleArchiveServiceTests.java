@@ -0,0 +1,156 @@
+package com.example.pos.archive;
+
+import com.example.pos.category.Category;
+import com.example.pos.category.CategoryService;
+import com.example.pos.product.Product;
+import com.example.pos.product.ProductRequest;
+import com.example.pos.product.ProductService;
+import com.example.pos.product.UnitType;
+import com.example.pos.sale.ReceiptStore;
+import com.example.pos.sale.RenderedReceipt;
+import com.example.pos.sale.dto.ReceiptResponseDTO;
+import com.example.pos.store.Store;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Archiving a month end to end: lines streamed from sale_item into a segment,
+ * the hot tables purged and the month's stored receipts deleted.
+ */
+@SpringBootTest(properties = {
+        "jwt.secret=YXJjaGl2ZS10ZXN0LXNlY3JldC1hcmNoaXZlLXRlc3Qtc2VjcmV0LWFyY2hpdmUt",
+        "jwt.expiration=3600000",
+        "shop.name=Test Shop",
+        "shop.address=Test Street",
+        "shop.phone=000",
+        "cors.allowed-origins=http://localhost",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.baseline-on-migrate=false",
+        "audit.enabled=false",
+        "outbox.relay.enabled=false"
+})
+class SaleArchiveServiceTests {
+
+    private static final YearMonth JANUARY = YearMonth.of(2020, 1);
+
+    private static EmbeddedPostgres postgres;
+    private static Path receipts;
+
+    @Autowired private SaleArchiveService saleArchiveService;
+    @Autowired private SaleArchive saleArchive;
+    @Autowired private ReceiptStore receiptStore;
+    @Autowired private ProductService productService;
+    @Autowired private CategoryService categoryService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+
+        // Fresh every run: a segment left behind would mark the month as archived
+        Path archive = Files.createTempDirectory("pos-archive-tests");
+        receipts = Files.createTempDirectory("pos-archive-tests-receipts");
+        registry.add("archive.dir", archive::toString);
+        registry.add("receipt.dir", receipts::toString);
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void archivesTheMonthAndPurgesItsSalesAndReceipts() throws Exception {
+        Product product = product();
+
+        long first = sale(LocalDateTime.of(2020, 1, 3, 10, 0), product, "2", "3.98");
+        sale(LocalDateTime.of(2020, 1, 17, 12, 30), product, "1", "1.99");
+        sale(LocalDateTime.of(2020, 1, 31, 23, 59), product, "3", "5.97");
+        long february = sale(LocalDateTime.of(2020, 2, 1, 0, 0), product, "1", "1.99");
+
+        receiptStore.put(first, receipt(LocalDateTime.of(2020, 1, 3, 10, 0)));
+        receiptStore.put(february, receipt(LocalDateTime.of(2020, 2, 1, 0, 0)));
+
+        saleArchiveService.archiveMonth(JANUARY);
+
+        ArchiveSegment segment = saleArchive.find(JANUARY).orElseThrow();
+        assertEquals(6, segment.getRowCount());
+
+        List<Long> amounts = new ArrayList<>();
+        saleArchive.scanAll(Store.DEFAULT_ID, (saleId, ts, productId, quantity, amount) -> amounts.add(amount));
+        assertEquals(6, amounts.size());
+        assertEquals(2 * (398 + 199 + 597), amounts.stream().mapToLong(Long::longValue).sum());
+
+        assertEquals(1L, count("select count(*) from sale"));
+        assertEquals(february, count("select id from sale"));
+        assertEquals(2L, count("select count(*) from sale_item"));
+
+        assertTrue(Files.notExists(receipts.resolve(first + ".json")));
+        assertTrue(Files.exists(receipts.resolve(february + ".json")));
+    }
+
+    // ---------------- FIXTURES ----------------
+
+    private Product product() {
+        Category category = categoryService.create(new Category(null, "Archive " + UUID.randomUUID()));
+
+        ProductRequest request = new ProductRequest();
+        request.setName("Archive item " + category.getId());
+        request.setPrice(new BigDecimal("1.99"));
+        request.setStock(new BigDecimal("100"));
+        request.setCategoryId(category.getId());
+        request.setUnitType(UnitType.UNIT);
+        return productService.create(request);
+    }
+
+    // Two identical lines per sale, straight into the tables with a past timestamp
+    private long sale(LocalDateTime timestamp, Product product, String quantity, String amount) {
+        Long saleId = jdbcTemplate.queryForObject("""
+                insert into sale (invoice_number, total_amount, timestamp, store_id)
+                values (?, ?, ?, ?) returning id
+                """, Long.class, "ARCH-" + UUID.randomUUID(), new BigDecimal(amount).multiply(BigDecimal.valueOf(2)), timestamp, Store.DEFAULT_ID);
+        for (int i = 0; i < 2; i++) {
+            jdbcTemplate.update("""
+                    insert into sale_item (sale_id, product_id, quantity, price_at_sale, product_name, unit_price, unit_type)
+                    values (?, ?, ?, ?, ?, ?, 'UNIT')
+                    """, saleId, product.getId(), new BigDecimal(quantity), new BigDecimal(amount), product.getName(), product.getPrice());
+        }
+        return saleId;
+    }
+
+    private static RenderedReceipt receipt(LocalDateTime dateTime) {
+        return new RenderedReceipt(
+                ReceiptResponseDTO.builder().invoiceNumber("ARCH").dateTime(dateTime).items(List.of()).build(),
+                new byte[] {0x1B, '@'});
+    }
+
+    // ---------------- HELPERS ----------------
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.pos.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditSegmentTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsRecordsAndResumesAfterTheLastOne() throws Exception {
+        AuditSegment segment = AuditSegment.create(dir, 1, 1_000, 10);
+        segment.append(1_000, AuditAction.SALE_COMPLETED, 7, 1, 1250, "cash1");
+        segment.append(2_000, AuditAction.PRODUCT_UPDATED, 42, 1, 399, "admin");
+        segment.force();
+
+        AuditSegment reopened = AuditSegment.openForAppend(segment.getPath());
+        assertEquals(2, reopened.getCount());
+        assertEquals(3, reopened.nextSequence());
+
+        List<AuditRecord> records = read(AuditFilter.ALL);
+        assertEquals(2, records.size());
+        assertEquals(new AuditRecord(2, 2_000, AuditAction.PRODUCT_UPDATED, 11, 42, 1, 399, "admin"), records.get(1));
+    }
+
+    @Test
+    void aTornRecordEndsTheSegment() throws Exception {
+        AuditSegment segment = AuditSegment.create(dir, 1, 1_000, 10);
+        segment.append(1_000, AuditAction.USER_CREATED, 5, 1, 0, "admin");
+        segment.append(2_000, AuditAction.USER_DELETED, 5, 1, 0, "admin");
+        segment.force();
+
+        // Corrupt the user of the second record, as a crash mid-write would
+        try (FileChannel channel = FileChannel.open(segment.getPath(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), 32 + AuditSegment.RECORD_BYTES + 48);
+        }
+
+        AuditSegment reopened = AuditSegment.openForAppend(segment.getPath());
+        assertEquals(1, reopened.getCount());
+
+        // The writer resumes over it
+        reopened.append(3_000, AuditAction.USER_UPDATED, 6, 1, 0, "admin");
+        reopened.force();
+        assertEquals(List.of(1L, 2L), read(AuditFilter.ALL).stream().map(AuditRecord::sequence).toList());
+    }
+
+    @Test
+    void readsSegmentsInOrderAndFilters() throws Exception {
+        AuditSegment first = AuditSegment.create(dir, 1, 1_000, 2);
+        first.append(1_000, AuditAction.SALE_COMPLETED, 1, 1, 500, "cash1");
+        first.append(2_000, AuditAction.PRODUCT_CREATED, 9, 1, 100, "admin");
+        first.force();
+        assertTrue(first.isFull());
+
+        AuditSegment second = AuditSegment.create(dir, first.nextSequence(), 3_000, 2);
+        second.append(3_000, AuditAction.SALE_COMPLETED, 2, 2, 700, "cash2");
+        second.append(4_000, AuditAction.PRODUCT_DELETED, 9, 1, 0, "admin");
+        second.force();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), sequences(AuditFilter.ALL));
+        assertEquals(List.of(3L, 4L), sequences(new AuditFilter(3_000L, null, null, null, null)));
+        assertEquals(List.of(2L, 4L), sequences(new AuditFilter(null, null, null, AuditEntity.PRODUCT, 9L)));
+        assertEquals(List.of(3L), sequences(new AuditFilter(null, 4_000L, "cash2", null, null)));
+    }
+
+    private List<AuditRecord> read(AuditFilter filter) throws Exception {
+        List<AuditRecord> records = new ArrayList<>();
+        AuditJournalReader.read(dir, filter, records::add);
+        return records;
+    }
+
+    private List<Long> sequences(AuditFilter filter) throws Exception {
+        return read(filter).stream().map(AuditRecord::sequence).toList();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.pos.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvalidationMessageTests {
+
+    @Test
+    void roundTripsAndDropsEntriesOfWholeKinds() {
+        Set<CacheInvalidation> items = new LinkedHashSet<>(List.of(
+                CacheInvalidation.product(12L),
+                CacheInvalidation.category(3L),
+                CacheInvalidation.product(13L),
+                CacheInvalidation.allProducts(),
+                CacheInvalidation.stock(2L)
+        ));
+
+        String payload = new InvalidationMessage("3f2a9c1e", items).encode();
+        assertEquals("3f2a9c1e category:3,product:*,stock:2", payload);
+
+        InvalidationMessage decoded = InvalidationMessage.decode(payload);
+        assertEquals("3f2a9c1e", decoded.origin());
+        assertEquals(Set.of(CacheInvalidation.category(3L), CacheInvalidation.allProducts(), CacheInvalidation.stock(2L)),
+                decoded.invalidations());
+    }
+
+    @Test
+    void oversizedMessagesInvalidateWholeKinds() {
+        Set<CacheInvalidation> items = new LinkedHashSet<>();
+        for (long id = 1_000_000; id < 1_002_000; id++) {
+            items.add(CacheInvalidation.product(id));
+        }
+        items.add(CacheInvalidation.user(7L));
+
+        String payload = new InvalidationMessage("3f2a9c1e", items).encode();
+
+        assertTrue(payload.length() <= InvalidationMessage.MAX_PAYLOAD_BYTES);
+        assertEquals("3f2a9c1e product:*,user:*", payload);
+    }
+
+    @Test
+    void rejectsPayloadsItCannotRead() {
+        assertThrows(IllegalArgumentException.class, () -> InvalidationMessage.decode("3f2a9c1e"));
+        assertThrows(IllegalArgumentException.class, () -> InvalidationMessage.decode("3f2a9c1e shelf:4"));
+        assertThrows(IllegalArgumentException.class, () -> InvalidationMessage.decode("3f2a9c1e product:abc"));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.pos.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTests {
+
+    @Test
+    void lineTotalsMatchBigDecimalHalfUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            BigDecimal price = BigDecimal.valueOf(random.nextInt(1_000_000) - 1_000, 2);
+            BigDecimal quantity = BigDecimal.valueOf(random.nextInt(100_000) + 1, 2);
+
+            BigDecimal expected = price.multiply(quantity).setScale(2, RoundingMode.HALF_UP);
+            long actual = Money.times(Money.of(price), Quantity.of(quantity));
+
+            assertEquals(expected, Money.toDecimal(actual), price + " x " + quantity);
+        }
+    }
+
+    @Test
+    void fastConversionIsExactUpToThirteenDigits() {
+        Random random = new Random(7);
+        for (int i = 0; i < 1_000_000; i++) {
+            long unscaled = random.nextLong() % 10_000_000_000_000L;
+            int scale = random.nextInt(3);
+            BigDecimal value = BigDecimal.valueOf(unscaled, scale);
+
+            assertEquals(value.movePointRight(2).longValueExact(), Money.of(value), value.toPlainString());
+        }
+        assertEquals(999_999_999_999_900L, Money.of(new BigDecimal("9999999999999")));
+        assertEquals(9_999_999_999_999L, Money.of(new BigDecimal("99999999999.99")));
+        assertEquals(123, Quantity.of(new BigDecimal("1.230")));
+    }
+
+    @Test
+    void tiesRoundAwayFromZero() {
+        assertEquals(1, Money.roundHalfUp(50, 100));
+        assertEquals(0, Money.roundHalfUp(49, 100));
+        assertEquals(-1, Money.roundHalfUp(-50, 100));
+        assertEquals(0, Money.roundHalfUp(-49, 100));
+    }
+
+    @Test
+    void conversionsAreExact() {
+        assertEquals(1250, Money.of(new BigDecimal("12.5")));
+        assertEquals(1200, Quantity.of(new BigDecimal("1.2E+1")));
+        assertEquals(new BigDecimal("0.07"), Quantity.toDecimal(7));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.005")));
+        assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.pos.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReadReplicaRoutingTests {
+
+    private DataSource primary;
+    private DataSource replica;
+    private Connection primaryConnection;
+    private Connection replicaConnection;
+    private ReplicaLagMonitor monitor;
+    private DataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection = mock(Connection.class, RETURNS_DEEP_STUBS);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.createStatement().executeQuery(anyString()).getDouble(1)).thenReturn(0.0);
+
+        monitor = new ReplicaLagMonitor(replica, Duration.ofSeconds(5));
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        proxy.setTargetDataSource(primary);
+        proxy.setReadOnlyDataSource(new ReplicaFallbackDataSource(replica, primary, monitor));
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        proxy.afterPropertiesSet();
+        routing = proxy;
+    }
+
+    @Test
+    void readOnlyWorkGoesToHealthyReplica() throws SQLException {
+        monitor.check();
+        clearInvocations(primary, replica);
+
+        try (Connection connection = routing.getConnection()) {
+            connection.setReadOnly(true);
+            connection.prepareStatement("select 1");
+        }
+
+        verify(replica).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void writesStayOnPrimary() throws SQLException {
+        monitor.check();
+        clearInvocations(primary, replica);
+
+        try (Connection connection = routing.getConnection()) {
+            connection.prepareStatement("update product set stock = 1");
+        }
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() throws SQLException {
+        when(replicaConnection.createStatement().executeQuery(anyString()).getDouble(1)).thenReturn(30.0);
+        monitor.check();
+        clearInvocations(primary, replica);
+
+        try (Connection connection = routing.getConnection()) {
+            connection.setReadOnly(true);
+            connection.prepareStatement("select 1");
+        }
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimary() throws SQLException {
+        monitor.check();
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        try (Connection connection = routing.getConnection()) {
+            connection.setReadOnly(true);
+            connection.prepareStatement("select 1");
+        }
+
+        verify(primary).getConnection();
+        assertFalse(monitor.isUsable());
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.pos.config;
+
+import com.example.pos.store.Store;
+import com.example.pos.user.Role;
+import com.example.pos.user.User;
+import com.example.pos.user.UserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Who may reach which endpoint, through the real filter chain with tokens
+ * from the real login. Every controller lives under /api, so a rule written
+ * without the prefix silently falls through to "any authenticated user".
+ */
+@SpringBootTest(properties = {
+        "jwt.secret=c2VjdXJpdHktdGVzdC1zZWNyZXQtc2VjdXJpdHktdGVzdC1zZWNyZXQtMDEyMzQ1",
+        "jwt.expiration=3600000",
+        "shop.name=Test Shop",
+        "shop.address=Test Street",
+        "shop.phone=000",
+        "cors.allowed-origins=http://localhost",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.baseline-on-migrate=false",
+        "receipt.dir=${java.io.tmpdir}/pos-security-tests/receipts",
+        "archive.dir=${java.io.tmpdir}/pos-security-tests/archive",
+        "audit.enabled=false",
+        "outbox.relay.enabled=false"
+})
+@AutoConfigureMockMvc
+class SecurityConfigTests {
+
+    private static final String PASSWORD = "secret";
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JsonMapper jsonMapper;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void users() {
+        user("cashier", Role.CASHIER);
+        user("admin", Role.ADMIN);
+    }
+
+    @Test
+    void cashierCannotChangeStoresOrTheCatalog() throws Exception {
+        String cashier = login("cashier");
+
+        mockMvc.perform(as(cashier, post("/api/stores"), "{\"code\":\"CASHIER\"}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(cashier, put("/api/stores/" + Store.DEFAULT_ID), "{\"code\":\"CASHIER\"}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(cashier, post("/api/categories"), "{\"name\":\"Cashier\"}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(cashier, post("/api/products"), "{\"name\":\"Cashier\"}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void adminCanCreateStores() throws Exception {
+        mockMvc.perform(as(login("admin"), post("/api/stores"), "{\"code\":\"ADMIN\",\"name\":\"Admin\"}"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void cashierCannotChangePromotions() throws Exception {
+        String cashier = login("cashier");
+        String promotion = "{\"name\":\"Cashier\",\"type\":\"PERCENT_OFF\",\"percent\":100}";
+
+        mockMvc.perform(as(cashier, post("/api/promotions"), promotion))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(cashier, put("/api/promotions/1"), promotion))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(cashier, delete("/api/promotions/1"), ""))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void bulkPriceAndRestockAreForAdminsOnly() throws Exception {
+        String cashier = login("cashier");
+
+        mockMvc.perform(as(cashier, post("/api/products/bulk/price"), "{\"categoryId\":1,\"percent\":-50}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(cashier, post("/api/products/bulk/restock"), "{\"items\":[{\"productId\":1,\"quantity\":1}]}"))
+                .andExpect(status().isForbidden());
+
+        // Past security, into the service's own validation
+        mockMvc.perform(as(login("admin"), post("/api/products/bulk/price"), "{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void cashierCannotImportProducts() throws Exception {
+        String cashier = login("cashier");
+
+        mockMvc.perform(post("/api/products/import")
+                        .header("Authorization", "Bearer " + cashier)
+                        .contentType("text/csv")
+                        .content("name,price,stock,categoryId,unitType\nCashier,0.01,1,1,UNIT\n"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/products/import")
+                        .header("Authorization", "Bearer " + cashier)
+                        .contentType("application/x-ndjson")
+                        .content("{\"name\":\"Cashier\",\"price\":0.01}\n"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void cashierCannotAdjustStock() throws Exception {
+        mockMvc.perform(as(login("cashier"), post("/api/products/1/stock/movements"), "{\"quantity\":100}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void reportsAreForAdminsOnly() throws Exception {
+        String cashier = login("cashier");
+
+        mockMvc.perform(as(cashier, post("/api/reports/projections/replay"), ""))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(as(cashier, get("/api/reports/dashboard"), ""))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(as(login("admin"), get("/api/reports/dashboard"), ""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void cartsNeedACashierOrAnAdmin() throws Exception {
+        mockMvc.perform(post("/api/carts"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(as(login("cashier"), post("/api/carts"), ""))
+                .andExpect(status().isOk());
+    }
+
+    // ---------------- HELPERS ----------------
+
+    private void user(String username, Role role) {
+        if (userRepository.findByUsername(username).isEmpty()) {
+            userRepository.save(User.builder()
+                    .username(username)
+                    .password(new BCryptPasswordEncoder().encode(PASSWORD))
+                    .role(role)
+                    .storeId(Store.DEFAULT_ID)
+                    .build());
+        }
+    }
+
+    // Anonymous, so this also proves the login itself stays reachable
+    private String login(String username) throws Exception {
+        String body = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return jsonMapper.readTree(body).get("token").asString();
+    }
+
+    private static MockHttpServletRequestBuilder as(String token, MockHttpServletRequestBuilder request, String json) {
+        return request.header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json);
+    }
+}
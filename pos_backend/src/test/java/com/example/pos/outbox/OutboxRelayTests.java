@@ -0,0 +1,54 @@
+package com.example.pos.outbox;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OutboxRelayTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void backoffDoublesUpToTheMaximum() {
+        assertEquals(1_000, OutboxRelay.backoffMs(0, 1_000, 60_000));
+        assertEquals(2_000, OutboxRelay.backoffMs(1, 1_000, 60_000));
+        assertEquals(32_000, OutboxRelay.backoffMs(5, 1_000, 60_000));
+        assertEquals(60_000, OutboxRelay.backoffMs(6, 1_000, 60_000));
+        assertEquals(60_000, OutboxRelay.backoffMs(Integer.MAX_VALUE, 1_000, 60_000));
+    }
+
+    @Test
+    void fileSinkAppendsOneLinePerMessageWithThePayloadAsJson() throws Exception {
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        FileOutboxSink sink = new FileOutboxSink(jsonMapper, dir.toString());
+
+        sink.deliver(List.of(message(1, "{\"saleId\":7}")));
+        sink.deliver(List.of(message(2, "{\"saleId\":8}")));
+
+        List<Path> files;
+        try (var list = Files.list(dir)) {
+            files = list.toList();
+        }
+        assertEquals(1, files.size());
+        List<String> lines = Files.readAllLines(files.get(0));
+        assertEquals(2, lines.size());
+
+        JsonNode second = jsonMapper.readTree(lines.get(1));
+        assertEquals(2, second.get("id").asLong());
+        assertEquals("sale.completed", second.get("eventType").asString());
+        assertEquals(8, second.get("payload").get("saleId").asLong());
+    }
+
+    private static OutboxMessage message(long id, String payload) {
+        return new OutboxMessage(id, "SALE", id + 6, 1L, "sale.completed", LocalDateTime.now(), 0, payload);
+    }
+}
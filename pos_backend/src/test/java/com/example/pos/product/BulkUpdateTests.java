@@ -0,0 +1,232 @@
+package com.example.pos.product;
+
+import com.example.pos.category.Category;
+import com.example.pos.category.CategoryService;
+import com.example.pos.stock.StockService;
+import com.example.pos.stock.dto.BulkRestockRequest;
+import com.example.pos.store.Store;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The set-based bulk price change and bulk restock, against an embedded
+ * PostgreSQL: the SQL they run and the requests they turn away.
+ */
+@SpringBootTest(properties = {
+        "jwt.secret=YnVsay10ZXN0LXNlY3JldC1idWxrLXRlc3Qtc2VjcmV0LWJ1bGstdGVzdC0wMTIz",
+        "jwt.expiration=3600000",
+        "shop.name=Test Shop",
+        "shop.address=Test Street",
+        "shop.phone=000",
+        "cors.allowed-origins=http://localhost",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.baseline-on-migrate=false",
+        "receipt.dir=${java.io.tmpdir}/pos-bulk-tests/receipts",
+        "archive.dir=${java.io.tmpdir}/pos-bulk-tests/archive",
+        "audit.enabled=false",
+        "outbox.relay.enabled=false"
+})
+class BulkUpdateTests {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired private ProductService productService;
+    @Autowired private CategoryService categoryService;
+    @Autowired private StockService stockService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    // ---------------- PRICES ----------------
+
+    @Test
+    void percentRepricesTheWholeCategoryRoundedToCents() {
+        Category category = category();
+        Product bread = product(category, "Bread", "1.99", "10", UnitType.UNIT);
+        Product cheese = product(category, "Cheese", "12.45", "5.00", UnitType.KG);
+        Product other = product(category(), "Other", "1.99", "10", UnitType.UNIT);
+
+        BulkUpdateResult result = productService.adjustPrices(byCategory(category, "10", null));
+
+        assertEquals(2, result.updated());
+        assertPrice("2.19", bread);
+        assertPrice("13.70", cheese);
+        assertPrice("1.99", other);
+    }
+
+    @Test
+    void amountRepricesOnlyTheListedProducts() {
+        Category category = category();
+        Product bread = product(category, "Bread", "1.99", "10", UnitType.UNIT);
+        Product milk = product(category, "Milk", "0.89", "10", UnitType.UNIT);
+
+        BulkUpdateResult result = productService.adjustPrices(byIds(List.of(bread.getId()), null, "-0.50"));
+
+        assertEquals(1, result.updated());
+        assertPrice("1.49", bread);
+        assertPrice("0.89", milk);
+    }
+
+    @Test
+    void noPriceGoesBelowZero() {
+        Category category = category();
+        Product bread = product(category, "Bread", "1.99", "10", UnitType.UNIT);
+        Product milk = product(category, "Milk", "0.89", "10", UnitType.UNIT);
+
+        assertRejected(HttpStatus.BAD_REQUEST, "Price cannot go below zero",
+                () -> productService.adjustPrices(byCategory(category, null, "-1.00")));
+
+        // All or nothing: bread could have taken it
+        assertPrice("1.99", bread);
+        assertPrice("0.89", milk);
+    }
+
+    @Test
+    void rejectsMalformedPriceChanges() {
+        Category category = category();
+        Product bread = product(category, "Bread", "1.99", "10", UnitType.UNIT);
+
+        assertRejected(HttpStatus.BAD_REQUEST, "Percent must be above -100",
+                () -> productService.adjustPrices(byCategory(category, "-100", null)));
+        assertRejected(HttpStatus.BAD_REQUEST, "Amount cannot have more than 2 decimal places",
+                () -> productService.adjustPrices(byCategory(category, null, "0.005")));
+        assertRejected(HttpStatus.BAD_REQUEST, "Give either a percent or an amount",
+                () -> productService.adjustPrices(byCategory(category, "5", "0.10")));
+
+        BulkPriceRequest both = byCategory(category, "5", null);
+        both.setProductIds(List.of(bread.getId()));
+        assertRejected(HttpStatus.BAD_REQUEST, "Give either a category ID or a list of product IDs",
+                () -> productService.adjustPrices(both));
+
+        assertPrice("1.99", bread);
+    }
+
+    // ---------------- RESTOCK ----------------
+
+    @Test
+    void restockAddsToEveryListedProductAndJournalsIt() {
+        Category category = category();
+        Product bread = product(category, "Bread", "1.99", "10", UnitType.UNIT);
+        Product cheese = product(category, "Cheese", "12.45", "5.25", UnitType.KG);
+
+        Map<Long, BigDecimal> levels = stockService.restock(Store.DEFAULT_ID, List.of(
+                item(bread, "24"),
+                item(cheese, "2.50")
+        ), "Delivery 42", "admin");
+
+        assertEquals(0, new BigDecimal("34").compareTo(levels.get(bread.getId())));
+        assertEquals(0, new BigDecimal("7.75").compareTo(levels.get(cheese.getId())));
+        assertEquals(0, new BigDecimal("34").compareTo(stockService.current(Store.DEFAULT_ID, bread.getId())));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "select count(*) from stock_movement where type = 'RESTOCK' and note = 'Delivery 42' and product_id in (?, ?)",
+                Long.class, bread.getId(), cheese.getId()));
+    }
+
+    @Test
+    void restockRejectsDuplicatesAndQuantitiesOffTheUnitScale() {
+        Category category = category();
+        Product bread = product(category, "Bread", "1.99", "10", UnitType.UNIT);
+        Product cheese = product(category, "Cheese", "12.45", "5.00", UnitType.KG);
+
+        assertRejected(HttpStatus.BAD_REQUEST, "Product " + bread.getId() + " is listed more than once",
+                () -> stockService.restock(Store.DEFAULT_ID, List.of(item(bread, "1"), item(bread, "2")), null, "admin"));
+        assertRejected(HttpStatus.BAD_REQUEST, "Stock for KG unit type cannot have more than 2 decimal places",
+                () -> stockService.restock(Store.DEFAULT_ID, List.of(item(bread, "1"), item(cheese, "0.125")), null, "admin"));
+        assertRejected(HttpStatus.BAD_REQUEST, "Stock for UNIT unit type must be a whole number",
+                () -> stockService.restock(Store.DEFAULT_ID, List.of(item(bread, "1.5")), null, "admin"));
+        assertRejected(HttpStatus.BAD_REQUEST, "Every item needs a product ID and a positive quantity",
+                () -> stockService.restock(Store.DEFAULT_ID, List.of(item(bread, "0")), null, "admin"));
+
+        BulkRestockRequest.Item unknown = new BulkRestockRequest.Item();
+        unknown.setProductId(-1L);
+        unknown.setQuantity(BigDecimal.ONE);
+        assertRejected(HttpStatus.NOT_FOUND, "Product not found: [-1]",
+                () -> stockService.restock(Store.DEFAULT_ID, List.of(item(bread, "1"), unknown), null, "admin"));
+
+        // Nothing of the rejected deliveries was booked
+        assertEquals(0, new BigDecimal("10").compareTo(stockService.current(Store.DEFAULT_ID, bread.getId())));
+        assertEquals(0, new BigDecimal("5").compareTo(stockService.current(Store.DEFAULT_ID, cheese.getId())));
+    }
+
+    // ---------------- FIXTURES ----------------
+
+    private Category category() {
+        return categoryService.create(new Category(null, "Bulk " + UUID.randomUUID()));
+    }
+
+    private Product product(Category category, String name, String price, String stock, UnitType unitType) {
+        ProductRequest request = new ProductRequest();
+        request.setName(name + " " + category.getId());
+        request.setPrice(new BigDecimal(price));
+        request.setStock(new BigDecimal(stock));
+        request.setCategoryId(category.getId());
+        request.setUnitType(unitType);
+        return productService.create(request);
+    }
+
+    private static BulkPriceRequest byCategory(Category category, String percent, String amount) {
+        BulkPriceRequest request = new BulkPriceRequest();
+        request.setCategoryId(category.getId());
+        request.setPercent(percent != null ? new BigDecimal(percent) : null);
+        request.setAmount(amount != null ? new BigDecimal(amount) : null);
+        return request;
+    }
+
+    private static BulkPriceRequest byIds(List<Long> ids, String percent, String amount) {
+        BulkPriceRequest request = new BulkPriceRequest();
+        request.setProductIds(ids);
+        request.setPercent(percent != null ? new BigDecimal(percent) : null);
+        request.setAmount(amount != null ? new BigDecimal(amount) : null);
+        return request;
+    }
+
+    private static BulkRestockRequest.Item item(Product product, String quantity) {
+        BulkRestockRequest.Item item = new BulkRestockRequest.Item();
+        item.setProductId(product.getId());
+        item.setQuantity(new BigDecimal(quantity));
+        return item;
+    }
+
+    // ---------------- HELPERS ----------------
+
+    private void assertPrice(String expected, Product product) {
+        BigDecimal price = jdbcTemplate.queryForObject("select price from product where id = ?", BigDecimal.class, product.getId());
+        assertEquals(0, new BigDecimal(expected).compareTo(price), () -> product.getName() + " costs " + price);
+    }
+
+    private static void assertRejected(HttpStatus status, String reason, Runnable call) {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, call::run);
+        assertEquals(status, ex.getStatusCode());
+        assertEquals(reason, ex.getReason());
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.pos.product;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CatalogSnapshotTests {
+
+    private static final CatalogSnapshot.Snapshot SNAPSHOT = new CatalogSnapshot.Snapshot(1,
+            representation(MediaType.APPLICATION_JSON),
+            representation(CatalogSnapshot.CBOR),
+            representation(CatalogSnapshot.SMILE));
+
+    @Test
+    void highestQValueWins() {
+        assertEquals(MediaType.APPLICATION_JSON, select("application/json;q=1, application/cbor;q=0.1"));
+        assertEquals(CatalogSnapshot.CBOR, select("application/json;q=0.5, application/cbor"));
+        assertEquals(CatalogSnapshot.SMILE, select("application/cbor;q=0.2, application/x-jackson-smile;q=0.9"));
+        assertEquals(CatalogSnapshot.CBOR, select("application/cbor, */*;q=0.1"));
+    }
+
+    @Test
+    void tiesGoToTheTypeListedFirst() {
+        assertEquals(CatalogSnapshot.CBOR, select("application/cbor, application/json"));
+        assertEquals(MediaType.APPLICATION_JSON, select("application/json, application/cbor"));
+    }
+
+    @Test
+    void wildcardsOnlyReachJson() {
+        assertEquals(MediaType.APPLICATION_JSON, select("*/*"));
+        assertEquals(MediaType.APPLICATION_JSON, select("application/*"));
+        assertEquals(MediaType.APPLICATION_JSON, select(""));
+        // The specific q=0 rules JSON out under the wildcard
+        assertEquals(CatalogSnapshot.CBOR, select("*/*, application/json;q=0, application/cbor;q=0.1"));
+    }
+
+    // ---------------- HELPERS ----------------
+
+    private static MediaType select(String accept) {
+        return SNAPSHOT.select(MediaType.parseMediaTypes(accept)).contentType();
+    }
+
+    private static CatalogSnapshot.Representation representation(MediaType type) {
+        return new CatalogSnapshot.Representation(type, "\"1\"", "\"1-gz\"", new byte[0], new byte[0]);
+    }
+}
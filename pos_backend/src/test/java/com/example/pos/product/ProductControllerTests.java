@@ -0,0 +1,30 @@
+package com.example.pos.product;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductControllerTests {
+
+    @Test
+    void gzipNeedsANonZeroQValue() {
+        assertTrue(ProductController.acceptsGzip(List.of("gzip, deflate, br")));
+        assertTrue(ProductController.acceptsGzip(List.of("br;q=1.0, GZIP;q=0.5")));
+        assertTrue(ProductController.acceptsGzip(List.of("*")));
+
+        assertFalse(ProductController.acceptsGzip(null));
+        assertFalse(ProductController.acceptsGzip(List.of("gzip;q=0")));
+        assertFalse(ProductController.acceptsGzip(List.of("gzip; q=0.000, *")));
+        assertFalse(ProductController.acceptsGzip(List.of("identity")));
+        assertFalse(ProductController.acceptsGzip(List.of("*;q=0")));
+    }
+
+    @Test
+    void readsEveryAcceptEncodingHeader() {
+        assertTrue(ProductController.acceptsGzip(List.of("br", "gzip")));
+        assertFalse(ProductController.acceptsGzip(List.of("br", "gzip;q=0")));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.pos.product;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ProductImportReaderTests {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @Test
+    void readsQuotedCsvAndReportsLinesWhereRowsStart() {
+        String csv = "\uFEFFName,Price,Unit_Type\r\n"
+                + "\"Milk, \"\"full\"\"\",1.20,UNIT\r\n"
+                + "\"Two\nlines\",2.00,KG\n"
+                + "Short,1.00\n"
+                + "\n"
+                + "Last,3.00,UNIT";
+
+        List<ProductImportReader.RawRow> rows = read(csv, ProductImportReader.TEXT_CSV);
+
+        assertEquals(4, rows.size());
+        assertEquals(2, rows.get(0).line());
+        assertEquals("Milk, \"full\"", rows.get(0).fields().get("name"));
+        assertEquals("UNIT", rows.get(0).fields().get("unittype"));
+        assertEquals(3, rows.get(1).line());
+        assertEquals("Two\nlines", rows.get(1).fields().get("name"));
+        assertEquals(5, rows.get(2).line());
+        assertEquals("Expected 3 columns, found 2", rows.get(2).error());
+        assertEquals(7, rows.get(3).line());
+        assertEquals("3.00", rows.get(3).fields().get("price"));
+    }
+
+    @Test
+    void readsNdjsonAndReportsBadLines() {
+        String ndjson = "{\"name\":\"Cheese\",\"price\":4.5,\"unitType\":\"KG\",\"stock\":null}\n"
+                + "\n"
+                + "[1,2]\n"
+                + "{oops\n";
+
+        List<ProductImportReader.RawRow> rows = read(ndjson, ProductImportReader.APPLICATION_NDJSON);
+
+        assertEquals(3, rows.size());
+        assertEquals("Cheese", rows.get(0).fields().get("name"));
+        assertEquals("4.5", rows.get(0).fields().get("price"));
+        assertNull(rows.get(0).fields().get("stock"));
+        assertEquals("Expected a JSON object", rows.get(1).error());
+        assertEquals(4, rows.get(2).line());
+    }
+
+    private List<ProductImportReader.RawRow> read(String body, MediaType type) {
+        List<ProductImportReader.RawRow> rows = new ArrayList<>();
+        ProductImportReader.read(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), type, jsonMapper, rows::add);
+        return rows;
+    }
+}
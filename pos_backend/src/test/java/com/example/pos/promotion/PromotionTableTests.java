@@ -0,0 +1,98 @@
+package com.example.pos.promotion;
+
+import com.example.pos.category.Category;
+import com.example.pos.product.Product;
+import com.example.pos.product.UnitType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PromotionTableTests {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2026, 3, 2, 12, 0);
+
+    private final Product cola = Product.builder()
+            .id(1L)
+            .price(new BigDecimal("1.50"))
+            .unitType(UnitType.UNIT)
+            .category(Category.builder().id(10L).build())
+            .build();
+
+    @Test
+    void takesTheLargestDiscountOfProductAndCategoryRules() {
+        PromotionTable table = PromotionTable.compile(List.of(
+                percent(1, null, 10L, "10.00"),
+                multiBuy(2, 1L, 3, 2),
+                percent(3, 2L, null, "50.00")
+        ), NOON);
+
+        // 7 × 1.50 = 10.50: 10 % is 1.05, 3 for 2 frees two colas, 3.00
+        Discount discount = table.best(cola, 150, 700, 1050, NOON);
+        assertEquals(2, discount.promotionId());
+        assertEquals(300, discount.cents());
+
+        // 2 colas free nothing under 3 for 2, so the category rule wins
+        assertEquals(1, table.best(cola, 150, 200, 300, NOON).promotionId());
+    }
+
+    @Test
+    void appliesDailyWindowsAcrossMidnightAndDateRanges() {
+        Promotion lateNight = percent(1, 1L, null, "20.00");
+        lateNight.setStartTime(LocalTime.of(22, 0));
+        lateNight.setEndTime(LocalTime.of(2, 0));
+        Promotion ended = percent(2, 1L, null, "90.00");
+        ended.setValidUntil(NOON.minusDays(1));
+        Promotion upcoming = percent(3, 1L, null, "90.00");
+        upcoming.setValidFrom(NOON.plusDays(1));
+
+        PromotionTable table = PromotionTable.compile(List.of(lateNight, ended, upcoming), NOON);
+
+        assertEquals(2, table.size());
+        assertNull(table.best(cola, 150, 100, 150, NOON));
+        assertEquals(30, table.best(cola, 150, 100, 150, NOON.withHour(23)).cents());
+        assertEquals(30, table.best(cola, 150, 100, 150, NOON.withHour(1)).cents());
+        assertEquals(135, table.best(cola, 150, 100, 150, NOON.plusDays(1)).cents());
+    }
+
+    @Test
+    void multiBuyIgnoresProductsSoldByWeight() {
+        Product apples = Product.builder()
+                .id(1L)
+                .price(new BigDecimal("2.00"))
+                .unitType(UnitType.KG)
+                .build();
+        PromotionTable table = PromotionTable.compile(List.of(multiBuy(1, 1L, 2, 1)), NOON);
+
+        assertNull(table.best(apples, 200, 400, 800, NOON));
+    }
+
+    private static Promotion percent(long id, Long productId, Long categoryId, String percent) {
+        return Promotion.builder()
+                .id(id)
+                .name("Promotion " + id)
+                .type(PromotionType.PERCENT_OFF)
+                .productId(productId)
+                .categoryId(categoryId)
+                .percent(new BigDecimal(percent))
+                .active(true)
+                .build();
+    }
+
+    private static Promotion multiBuy(long id, Long productId, int buy, int pay) {
+        return Promotion.builder()
+                .id(id)
+                .name("Promotion " + id)
+                .type(PromotionType.MULTI_BUY)
+                .productId(productId)
+                .buyQuantity(buy)
+                .payQuantity(pay)
+                .active(true)
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.pos.report;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VelocityTests {
+
+    private static final double ALPHA = Velocity.alpha(7);
+
+    @Test
+    void steadySalesGiveTheirDailyQuantity() {
+        Velocity velocity = Velocity.NONE;
+        for (long day = 100; day < 130; day++) {
+            velocity = velocity.plus(day, 200, ALPHA).plus(day, 100, ALPHA);
+        }
+
+        // Today's open day is not complete yet and does not count
+        assertEquals(300, velocity.ratePerDay(129, ALPHA), 1e-9);
+        assertEquals(300, velocity.ratePerDay(130, ALPHA), 1e-9);
+    }
+
+    @Test
+    void daysWithoutSalesCountAsZero() {
+        Velocity velocity = Velocity.NONE;
+        for (long day = 100; day < 200; day++) {
+            velocity = velocity.plus(day, 1000, ALPHA);
+        }
+
+        // One half-life (7 days) without sales halves the rate
+        double halved = velocity.ratePerDay(207, ALPHA);
+        assertEquals(500, halved, 0.05);
+        // Folding the quiet days in with a later sale gives the same result
+        assertEquals(halved, velocity.plus(207, 50, ALPHA).ratePerDay(207, ALPHA), 1e-9);
+    }
+
+    @Test
+    void hasNoRateBeforeTheFirstCompleteDay() {
+        Velocity velocity = Velocity.NONE.plus(100, 400, ALPHA);
+
+        assertEquals(-1, Velocity.NONE.ratePerDay(100, ALPHA));
+        assertEquals(-1, velocity.ratePerDay(100, ALPHA));
+        // Days before the first sale do not dilute it
+        assertEquals(400, velocity.ratePerDay(101, ALPHA), 1e-9);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.pos.sale;
+
+import com.example.pos.sale.dto.ReceiptItemDTO;
+import com.example.pos.sale.dto.ReceiptResponseDTO;
+import com.example.pos.sale.dto.ShopDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EscPosReceiptRendererTests {
+
+    private final EscPosReceiptRenderer renderer = new EscPosReceiptRenderer(32);
+
+    @Test
+    void plainTextLaysTheReceiptOutInFixedColumns() {
+        String text = new String(renderer.render(receipt(), false), StandardCharsets.ISO_8859_1);
+
+        assertEquals(String.join("\n",
+                "Corner Shop",
+                "1 Main Street",
+                "555-0100",
+                "--------------------------------",
+                "Invoice: INV-42",
+                "Date:    2026-03-14 09:30",
+                "Cashier: cash1",
+                "--------------------------------",
+                "Bread",
+                "  2 x 1.99                  3.98",
+                "Cheese",
+                "  0.50 x 12.45              6.23",
+                "  Cheese week              -0.62",
+                "--------------------------------",
+                "TOTAL                       9.59",
+                "",
+                "Thank you",
+                ""), text);
+    }
+
+    @Test
+    void escPosWrapsTheSameLayoutInPrinterCommands() {
+        byte[] bytes = renderer.render(receipt(), true);
+
+        // Initialise, centre, bold on
+        assertArrayEquals(new byte[] {0x1B, '@', 0x1B, 'a', 1, 0x1B, 'E', 1}, Arrays.copyOf(bytes, 8));
+        // Feed 4 lines, partial cut
+        assertArrayEquals(new byte[] {0x1B, 'd', 4, 0x1D, 'V', 66, 0},
+                Arrays.copyOfRange(bytes, bytes.length - 7, bytes.length));
+
+        String text = new String(bytes, StandardCharsets.ISO_8859_1);
+        assertTrue(text.contains("TOTAL                       9.59\n"));
+    }
+
+    @Test
+    void longNamesAreCutAndNonLatin1BecomesQuestionMarks() {
+        ReceiptResponseDTO receipt = receipt();
+        receipt.setItems(List.of(ReceiptItemDTO.builder()
+                .name("Extra long product name that cannot fit")
+                .qty(BigDecimal.ONE)
+                .unitPrice(new BigDecimal("1.00"))
+                .total(new BigDecimal("1.00"))
+                .build()));
+        receipt.setFooter("Dziękujemy");
+
+        String text = new String(renderer.render(receipt, false), StandardCharsets.ISO_8859_1);
+
+        assertTrue(text.contains("\nExtra long product name that can\n"), text);
+        assertTrue(text.contains("\nDzi?kujemy\n"), text);
+    }
+
+    // ---------------- FIXTURES ----------------
+
+    private static ReceiptResponseDTO receipt() {
+        return ReceiptResponseDTO.builder()
+                .invoiceNumber("INV-42")
+                .shop(ShopDTO.builder().name("Corner Shop").address("1 Main Street").phone("555-0100").build())
+                .dateTime(LocalDateTime.of(2026, 3, 14, 9, 30))
+                .cashier("cash1")
+                .items(List.of(
+                        ReceiptItemDTO.builder()
+                                .name("Bread")
+                                .qty(new BigDecimal("2"))
+                                .unitPrice(new BigDecimal("1.99"))
+                                .total(new BigDecimal("3.98"))
+                                .build(),
+                        ReceiptItemDTO.builder()
+                                .name("Cheese")
+                                .qty(new BigDecimal("0.50"))
+                                .unitPrice(new BigDecimal("12.45"))
+                                .total(new BigDecimal("5.61"))
+                                .discount(new BigDecimal("0.62"))
+                                .promotion("Cheese week")
+                                .build()))
+                .totalAmount(new BigDecimal("9.59"))
+                .footer("Thank you")
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.pos.sale;
+
+import com.example.pos.sale.dto.ReceiptResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReceiptStoreTests {
+
+    private static final LocalDateTime MARCH = LocalDateTime.of(2026, 3, 14, 9, 30);
+    private static final LocalDateTime APRIL = LocalDateTime.of(2026, 4, 2, 18, 5);
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void evictedReceiptsAreServedFromDisk() throws Exception {
+        ReceiptStore store = new ReceiptStore(dir.toString(), 2, jsonMapper);
+
+        store.put(1L, receipt("INV-1", MARCH));
+        store.put(2L, receipt("INV-2", MARCH));
+        store.put(3L, receipt("INV-3", MARCH));   // evicts 1 from memory
+
+        RenderedReceipt first = store.get(1L).orElseThrow();
+        assertEquals("INV-1", first.receipt().getInvoiceNumber());
+        assertEquals(MARCH, first.receipt().getDateTime());
+        assertArrayEquals(escPos("INV-1"), first.escPos());
+    }
+
+    @Test
+    void receiptsSurviveARestart() throws Exception {
+        new ReceiptStore(dir.toString(), 10, jsonMapper).put(7L, receipt("INV-7", MARCH));
+
+        ReceiptStore restarted = new ReceiptStore(dir.toString(), 10, jsonMapper);
+        assertEquals("INV-7", restarted.get(7L).orElseThrow().receipt().getInvoiceNumber());
+        assertTrue(restarted.get(8L).isEmpty());
+    }
+
+    @Test
+    void unreadableFilesAreAMiss() throws Exception {
+        ReceiptStore store = new ReceiptStore(dir.toString(), 10, jsonMapper);
+        Files.writeString(dir.resolve("9.json"), "{not json");
+        Files.write(dir.resolve("9.escpos"), new byte[] {1});
+
+        assertTrue(store.get(9L).isEmpty());
+    }
+
+    @Test
+    void pruningDropsReceiptsOfSalesBeforeTheCutoff() throws Exception {
+        ReceiptStore store = new ReceiptStore(dir.toString(), 10, jsonMapper);
+        store.put(1L, receipt("INV-1", MARCH));
+        store.put(2L, receipt("INV-2", APRIL));
+
+        assertEquals(2, store.pruneBefore(LocalDateTime.of(2026, 4, 1, 0, 0)));
+
+        assertTrue(store.get(1L).isEmpty());
+        assertFalse(Files.exists(dir.resolve("1.json")));
+        assertFalse(Files.exists(dir.resolve("1.escpos")));
+        assertEquals("INV-2", store.get(2L).orElseThrow().receipt().getInvoiceNumber());
+        assertTrue(Files.exists(dir.resolve("2.json")));
+    }
+
+    // ---------------- FIXTURES ----------------
+
+    private static RenderedReceipt receipt(String invoiceNumber, LocalDateTime dateTime) {
+        ReceiptResponseDTO receipt = ReceiptResponseDTO.builder()
+                .invoiceNumber(invoiceNumber)
+                .dateTime(dateTime)
+                .cashier("cashier")
+                .items(List.of())
+                .totalAmount(new BigDecimal("1.99"))
+                .build();
+        return new RenderedReceipt(receipt, escPos(invoiceNumber));
+    }
+
+    private static byte[] escPos(String invoiceNumber) {
+        return ("\u001B@" + invoiceNumber).getBytes();
+    }
+}
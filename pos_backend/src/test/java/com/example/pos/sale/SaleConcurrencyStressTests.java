@@ -0,0 +1,258 @@
+package com.example.pos.sale;
+
+import com.example.pos.category.Category;
+import com.example.pos.category.CategoryService;
+import com.example.pos.product.Product;
+import com.example.pos.product.ProductRequest;
+import com.example.pos.product.ProductService;
+import com.example.pos.product.UnitType;
+import com.example.pos.stock.StockService;
+import com.example.pos.store.Store;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires thousands of overlapping baskets at a handful of hot products and
+ * checks the stock and sale invariants afterwards. Prints throughput and
+ * latency so contention changes can be compared run to run.
+ *
+ * Runs against an embedded PostgreSQL (mvn test -Pstress), or against an
+ * empty scratch database given as POS_STRESS_DB_URL (plus _USER / _PASSWORD).
+ * Size with -Dstress.baskets and -Dstress.threads.
+ */
+@Tag("stress")
+@SpringBootTest(properties = {
+        "jwt.secret=c3RyZXNzLXRlc3Qtc2VjcmV0LXN0cmVzcy10ZXN0LXNlY3JldC0wMTIzNDU2Nzg5",
+        "jwt.expiration=3600000",
+        "shop.name=Stress Shop",
+        "shop.address=Test Street",
+        "shop.phone=000",
+        "cors.allowed-origins=http://localhost",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.baseline-on-migrate=false",
+        "spring.datasource.hikari.maximum-pool-size=20",
+        "receipt.dir=${java.io.tmpdir}/pos-stress/receipts",
+        "archive.dir=${java.io.tmpdir}/pos-stress/archive",
+        // Compact the stock journal while sales are running
+        "stock.compaction.cron=* * * * * *"
+})
+class SaleConcurrencyStressTests {
+
+    private static final int BASKETS = Integer.getInteger("stress.baskets", 4000);
+    private static final int THREADS = Integer.getInteger("stress.threads", 32);
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired private SaleService saleService;
+    @Autowired private ProductService productService;
+    @Autowired private CategoryService categoryService;
+    @Autowired private StockService stockService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        String url = System.getenv("POS_STRESS_DB_URL");
+        if (url != null && !url.isBlank()) {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.username", () -> System.getenv("POS_STRESS_DB_USER"));
+            registry.add("spring.datasource.password", () -> Objects.requireNonNullElse(System.getenv("POS_STRESS_DB_PASSWORD"), ""));
+            return;
+        }
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void overlappingBasketsKeepStockAndSalesConsistent() throws Exception {
+
+        List<String> cashiers = seedCashiers(8);
+        List<Product> products = seedProducts();
+        Map<Long, BigDecimal> initial = new HashMap<>();
+        products.forEach(p -> initial.put(p.getId(), p.getStock()));
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        long[] latencies = new long[BASKETS];
+        Arrays.fill(latencies, -1);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < BASKETS; i++) {
+            int basket = i;
+            futures.add(pool.submit(() -> {
+                Random random = new Random(basket);
+                CreateSaleRequest request = basket(random, products);
+                String cashier = cashiers.get(basket % cashiers.size());
+                try {
+                    start.await();
+                    long t0 = System.nanoTime();
+                    saleService.createSale(request, cashier);
+                    latencies[basket] = System.nanoTime() - t0;
+                } catch (ResponseStatusException ex) {
+                    if (ex.getStatusCode() == HttpStatus.BAD_REQUEST
+                            && String.valueOf(ex.getReason()).startsWith("Insufficient stock")) {
+                        rejected.incrementAndGet();
+                    } else {
+                        failures.add(ex);
+                    }
+                } catch (Throwable ex) {
+                    failures.add(ex);
+                }
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - began;
+        pool.shutdown();
+
+        report(latencies, rejected.get(), elapsed);
+
+        assertTrue(failures.isEmpty(), () -> failures.size() + " unexpected failures, first: " + failures.peek());
+
+        long completed = Arrays.stream(latencies).filter(l -> l >= 0).count();
+        assertTrue(completed > 0, "No basket went through");
+        assertTrue(rejected.get() > 0, "Stock never ran out; raise -Dstress.baskets to exercise the stock check");
+
+        // Invoice numbers unique, one per completed sale
+        assertEquals(completed, count("select count(*) from sale"));
+        assertEquals(completed, count("select count(distinct invoice_number) from sale"));
+
+        // sale.total_amount equals the sum of its line totals
+        assertEquals(0, count("""
+                select count(*) from sale s
+                where s.total_amount <> (select sum(i.price_at_sale) from sale_item i where i.sale_id = s.id)
+                """));
+
+        for (Product product : products) {
+            BigDecimal current = stockService.current(Store.DEFAULT_ID, product.getId());
+            BigDecimal sold = decimal("select coalesce(sum(quantity), 0) from sale_item where product_id = ?", product.getId());
+            BigDecimal journaled = decimal(
+                    "select coalesce(-sum(quantity), 0) from stock_movement where product_id = ? and type = 'SALE'",
+                    product.getId());
+
+            // No negative stock
+            assertTrue(current.signum() >= 0, () -> product.getName() + " went negative: " + current);
+            // Total deducted equals total sold
+            assertEquals(0, initial.get(product.getId()).subtract(current).compareTo(sold),
+                    () -> product.getName() + ": deducted " + initial.get(product.getId()).subtract(current) + ", sold " + sold);
+            assertEquals(0, sold.compareTo(journaled),
+                    () -> product.getName() + ": sold " + sold + ", journaled " + journaled);
+        }
+    }
+
+    // ---------------- FIXTURES ----------------
+
+    private List<String> seedCashiers(int count) {
+        List<String> usernames = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            String username = "stress-cashier-" + i;
+            jdbcTemplate.update("insert into users (username, password, role, store_id) values (?, 'x', 'CASHIER', ?)",
+                    username, Store.DEFAULT_ID);
+            usernames.add(username);
+        }
+        return usernames;
+    }
+
+    private List<Product> seedProducts() {
+        Category category = categoryService.create(new Category(null, "Stress " + UUID.randomUUID()));
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            products.add(product(category, "Hot item " + i, "1.99", "2500", UnitType.UNIT));
+        }
+        // Odd price and fractional quantities exercise rounding of line totals
+        products.add(product(category, "Loose cheese", "12.45", "900.00", UnitType.KG));
+        return products;
+    }
+
+    private Product product(Category category, String name, String price, String stock, UnitType unitType) {
+        ProductRequest request = new ProductRequest();
+        request.setName(name + " " + category.getId());
+        request.setPrice(new BigDecimal(price));
+        request.setStock(new BigDecimal(stock));
+        request.setCategoryId(category.getId());
+        request.setUnitType(unitType);
+        return productService.create(request);
+    }
+
+    // 1-4 lines over the hot products, sometimes the same product twice
+    private static CreateSaleRequest basket(Random random, List<Product> products) {
+        List<CreateSaleItemRequest> items = new ArrayList<>();
+        int lines = 1 + random.nextInt(4);
+        for (int i = 0; i < lines; i++) {
+            Product product = products.get(random.nextInt(products.size()));
+            BigDecimal quantity = product.getUnitType() == UnitType.KG
+                    ? BigDecimal.valueOf(10 + random.nextInt(140), 2)
+                    : BigDecimal.valueOf(1 + random.nextInt(3));
+
+            CreateSaleItemRequest item = new CreateSaleItemRequest();
+            item.setProductId(product.getId());
+            item.setQuantity(quantity);
+            items.add(item);
+        }
+        CreateSaleRequest request = new CreateSaleRequest();
+        request.setItems(items);
+        return request;
+    }
+
+    // ---------------- HELPERS ----------------
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private BigDecimal decimal(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, BigDecimal.class, args);
+    }
+
+    private static void report(long[] latencies, int rejected, long elapsedNanos) {
+        long[] completed = Arrays.stream(latencies).filter(l -> l >= 0).sorted().toArray();
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf(
+                "%n[stress] %d baskets on %d threads in %.2fs: %d sales (%.0f/s), %d rejected for stock%n"
+                        + "[stress] sale latency p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, max %.1f ms%n",
+                latencies.length, THREADS, seconds,
+                completed.length, completed.length / seconds, rejected,
+                percentile(completed, 0.50), percentile(completed, 0.95),
+                percentile(completed, 0.99), percentile(completed, 1.0));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+}
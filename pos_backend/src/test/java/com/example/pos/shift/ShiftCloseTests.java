@@ -0,0 +1,185 @@
+package com.example.pos.shift;
+
+import com.example.pos.category.Category;
+import com.example.pos.category.CategoryService;
+import com.example.pos.product.Product;
+import com.example.pos.product.ProductRequest;
+import com.example.pos.product.ProductService;
+import com.example.pos.product.UnitType;
+import com.example.pos.sale.CreateSaleItemRequest;
+import com.example.pos.sale.CreateSaleRequest;
+import com.example.pos.sale.SaleService;
+import com.example.pos.shift.dto.ShiftReportDTO;
+import com.example.pos.store.Store;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Closing a shift while the cashier's sales are still committing: the
+ * Z-report and the shift row must hold exactly the sales linked to the shift.
+ */
+@SpringBootTest(properties = {
+        "jwt.secret=c2hpZnQtdGVzdC1zZWNyZXQtc2hpZnQtdGVzdC1zZWNyZXQtc2hpZnQtMDEyMzQ1",
+        "jwt.expiration=3600000",
+        "shop.name=Test Shop",
+        "shop.address=Test Street",
+        "shop.phone=000",
+        "cors.allowed-origins=http://localhost",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.baseline-on-migrate=false",
+        "receipt.dir=${java.io.tmpdir}/pos-shift-tests/receipts",
+        "archive.dir=${java.io.tmpdir}/pos-shift-tests/archive",
+        "audit.enabled=false",
+        "outbox.relay.enabled=false"
+})
+class ShiftCloseTests {
+
+    private static final int ROUNDS = 3;
+    private static final int SALES = 60;
+    private static final int THREADS = 6;
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired private ShiftService shiftService;
+    @Autowired private SaleService saleService;
+    @Autowired private ProductService productService;
+    @Autowired private CategoryService categoryService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void closeKeepsEveryIncrementAndLaterSalesStayOut() throws Exception {
+        String cashier = cashier();
+        Product product = product();
+
+        for (int round = 0; round < ROUNDS; round++) {
+            ShiftReportDTO opened = shiftService.open(cashier);
+
+            ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+            CountDownLatch someSold = new CountDownLatch(SALES / 4);
+            ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < SALES; i++) {
+                futures.add(pool.submit(() -> {
+                    try {
+                        saleService.createSale(basket(product), cashier);
+                    } catch (ResponseStatusException ex) {
+                        // Looked the shift up before it closed and incremented after: rolled back
+                        if (ex.getStatusCode() != HttpStatus.CONFLICT) {
+                            failures.add(ex);
+                        }
+                    } catch (Throwable ex) {
+                        failures.add(ex);
+                    } finally {
+                        someSold.countDown();
+                    }
+                }));
+            }
+
+            someSold.await(1, TimeUnit.MINUTES);
+            ShiftReportDTO closed = shiftService.close(cashier);
+
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+            pool.shutdown();
+
+            assertTrue(failures.isEmpty(), () -> failures.size() + " unexpected failures, first: " + failures.peek());
+
+            long linked = count("select count(*) from sale where shift_id = ?", opened.getShiftId());
+            BigDecimal revenue = jdbcTemplate.queryForObject(
+                    "select coalesce(sum(total_amount), 0) from sale where shift_id = ?", BigDecimal.class, opened.getShiftId());
+
+            assertTrue(linked > 0, "No sale landed in the shift before it closed");
+            assertEquals(linked, closed.getSaleCount(), "Z-report sale count");
+            assertEquals(0, revenue.compareTo(closed.getRevenue()), () -> "Z-report revenue " + closed.getRevenue() + ", sold " + revenue);
+            assertEquals(linked, count("select sale_count from shift where id = ?", opened.getShiftId()), "shift row sale count");
+        }
+    }
+
+    @Test
+    void closingTwiceIsRefused() {
+        String cashier = cashier();
+        shiftService.open(cashier);
+        shiftService.close(cashier);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> shiftService.close(cashier));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+
+    // ---------------- FIXTURES ----------------
+
+    private String cashier() {
+        String username = "shift-cashier-" + UUID.randomUUID();
+        jdbcTemplate.update("insert into users (username, password, role, store_id) values (?, 'x', 'CASHIER', ?)",
+                username, Store.DEFAULT_ID);
+        return username;
+    }
+
+    private Product product() {
+        Category category = categoryService.create(new Category(null, "Shift " + UUID.randomUUID()));
+
+        ProductRequest request = new ProductRequest();
+        request.setName("Shift item " + category.getId());
+        request.setPrice(new BigDecimal("1.99"));
+        request.setStock(new BigDecimal("100000"));
+        request.setCategoryId(category.getId());
+        request.setUnitType(UnitType.UNIT);
+        return productService.create(request);
+    }
+
+    private static CreateSaleRequest basket(Product product) {
+        CreateSaleItemRequest item = new CreateSaleItemRequest();
+        item.setProductId(product.getId());
+        item.setQuantity(BigDecimal.ONE);
+
+        CreateSaleRequest request = new CreateSaleRequest();
+        request.setItems(List.of(item));
+        return request;
+    }
+
+    // ---------------- HELPERS ----------------
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
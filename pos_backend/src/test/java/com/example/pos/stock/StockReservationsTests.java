@@ -0,0 +1,37 @@
+package com.example.pos.stock;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockReservationsTests {
+
+    private final StockReservations reservations = new StockReservations();
+
+    @Test
+    void grantsOnlyWhatOthersLeaveAvailable() {
+        assertTrue(reservations.reserve(1, 10, "a", 300, 500));
+        assertFalse(reservations.reserve(1, 10, "b", 300, 500));
+        assertTrue(reservations.reserve(1, 10, "b", 200, 500));
+
+        // A holder's own reservation does not count against raising it
+        assertFalse(reservations.reserve(1, 10, "a", 400, 500));
+        assertTrue(reservations.reserve(1, 10, "a", 250, 500));
+
+        assertEquals(450, reservations.reservedByOthers(1, 10, null));
+        assertEquals(200, reservations.reservedByOthers(1, 10, "a"));
+    }
+
+    @Test
+    void keepsStoresApartAndReleases() {
+        assertTrue(reservations.reserve(1, 10, "a", 500, 500));
+        assertTrue(reservations.reserve(2, 10, "b", 500, 500));
+
+        reservations.release(1, 10, "a");
+
+        assertEquals(0, reservations.reservedByOthers(1, 10, null));
+        assertEquals(500, reservations.reservedByOthers(2, 10, null));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.pos.tracing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestTraceTests {
+
+    @AfterEach
+    void clear() {
+        RequestTrace.end();
+    }
+
+    @Test
+    void serverTimingListsPhasesAndCapsStatements() {
+        RequestTrace trace = RequestTrace.begin("r1", 2);
+        RequestTrace.record("jwt", 400_000);
+        trace.sql("select 1", 1_000_000);
+        trace.sql("select 2", 2_000_000);
+        trace.sql("select 3", 3_000_000);
+
+        assertEquals("jwt;dur=0.4, db;dur=6.0;desc=\"3 queries\"", trace.serverTiming(false));
+        trace.finish();
+        assertTrue(trace.serverTiming(true).endsWith(", total;dur=" + RequestTrace.millis(trace.getTotalNanos())));
+        assertEquals(3, trace.getStatementCount());
+        assertEquals(2, trace.getStatements().size());
+    }
+
+    @Test
+    void recordingWithoutTraceIsIgnored() {
+        RequestTrace.record("jwt", 1);
+        assertNull(RequestTrace.current());
+    }
+}
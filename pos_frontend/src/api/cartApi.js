@@ -0,0 +1,23 @@
+import axiosInstance from './axiosInsatance';
+
+// Open a server-side cart (stock is reserved as items are added)
+export const createCart = () => axiosInstance.post('/carts');
+
+export const getCart = (id) => axiosInstance.get(`/carts/${id}`);
+
+// Abandon the cart and release its reserved stock
+export const deleteCart = (id) => axiosInstance.delete(`/carts/${id}`);
+
+// Add to a product's line (adds up if the product is already in the cart)
+export const addCartItem = (id, productId, quantity) =>
+  axiosInstance.post(`/carts/${id}/items`, { productId, quantity });
+
+// Set a line's quantity
+export const updateCartItem = (id, productId, quantity) =>
+  axiosInstance.put(`/carts/${id}/items/${productId}`, { quantity });
+
+export const removeCartItem = (id, productId) =>
+  axiosInstance.delete(`/carts/${id}/items/${productId}`);
+
+// Complete the sale from the cart's validated lines
+export const checkoutCart = (id) => axiosInstance.post(`/carts/${id}/checkout`);
@@ -6,11 +6,19 @@ export const createSale = (data) => axiosInstance.post('/sales', data);
 // Get all sales (for admin)
 export const getAllSales = () => axiosInstance.get('/sales/get-all');
 
-// Get sales by cashier
-export const getMySales = () => axiosInstance.get('/sales/my-sales');
+// Get sales of the cashier's current shift (paginated)
+export const getMySales = (page = 0, size = 50) =>
+  axiosInstance.get('/sales/my-sales', { params: { page, size } });
 
 // Get sale by ID
 export const getSaleById = (id) => axiosInstance.get(`/sales/${id}`);
 
 // Get receipt
 export const getReceipt = (id) => axiosInstance.get(`/sales/${id}/receipt`);
+
+// Get pre-rendered receipt for printing ('text' or 'escpos')
+export const getReceiptPrint = (id, format = 'text') =>
+  axiosInstance.get(`/sales/${id}/receipt/print`, {
+    params: { format },
+    responseType: format === 'text' ? 'text' : 'arraybuffer',
+  });
@@ -0,0 +1,10 @@
+import axiosInstance from './axiosInsatance';
+
+// Open a shift for the logged-in cashier
+export const openShift = () => axiosInstance.post('/shifts/open');
+
+// Close the current shift and get its Z-report
+export const closeShift = () => axiosInstance.post('/shifts/close');
+
+// Running totals of the current shift
+export const getCurrentShift = () => axiosInstance.get('/shifts/current');
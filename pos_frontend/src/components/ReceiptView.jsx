@@ -2,11 +2,11 @@ import React from 'react';
 import { printReceipt } from '../utils/printReceipt';
 import './ReceiptView.css';
 
-const ReceiptView = ({ receipt }) => {
+const ReceiptView = ({ receipt, saleId }) => {
   if (!receipt) return null;
 
   const handlePrint = () => {
-    printReceipt();
+    printReceipt(saleId);
   };
 
   return (
@@ -70,12 +70,23 @@ const ReceiptView = ({ receipt }) => {
             </thead>
             <tbody>
               {receipt.items.map((item, idx) => (
-                <tr key={idx} className="item-row">
-                  <td className="item-name">{item.name}</td>
-                  <td className="item-qty">{item.qty}</td>
-                  <td className="item-price">{parseFloat(item.unitPrice).toFixed(2)}</td>
-                  <td className="item-total">{parseFloat(item.total).toFixed(2)}</td>
-                </tr>
+                <React.Fragment key={idx}>
+                  <tr className="item-row">
+                    <td className="item-name">{item.name}</td>
+                    <td className="item-qty">{item.qty}</td>
+                    <td className="item-price">{parseFloat(item.unitPrice).toFixed(2)}</td>
+                    {/* Before the discount, which follows on its own row (as on the printed receipt) */}
+                    <td className="item-total">
+                      {(parseFloat(item.total) + parseFloat(item.discount || 0)).toFixed(2)}
+                    </td>
+                  </tr>
+                  {item.discount > 0 && (
+                    <tr className="item-discount-row">
+                      <td colSpan="3" className="item-discount-name">{item.promotion}</td>
+                      <td className="item-total">−{parseFloat(item.discount).toFixed(2)}</td>
+                    </tr>
+                  )}
+                </React.Fragment>
               ))}
             </tbody>
           </table>
@@ -1,17 +1,29 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import Navbar from '../../components/Navbar';
 import Sidebar from '../../components/Sidebar';
 import { getProducts } from '../../api/productApi';
-import { createSale } from '../../api/saleApi';
+import {
+  createCart,
+  addCartItem,
+  updateCartItem,
+  removeCartItem,
+  checkoutCart
+} from '../../api/cartApi';
 import './CreateSale.css';
 
+// The bill is a server-side cart: every change is priced and its stock
+// reserved right away, so "Insufficient stock" shows when the item is added
 const CreateSale = () => {
   const [products, setProducts] = useState([]);
   const [query, setQuery] = useState('');
   const [suggestions, setSuggestions] = useState([]);
-  const [billItems, setBillItems] = useState([]);
+  const [cart, setCart] = useState(null);
   const [error, setError] = useState('');
   const [message, setMessage] = useState('');
+  // Resolves to the open cart's id; shared by every add clicked before it exists
+  const cartIdRequest = useRef(null);
+
+  const billItems = cart?.items || [];
 
   useEffect(() => {
     getProducts()
@@ -33,50 +45,69 @@ const CreateSale = () => {
     );
   }, [query, products]);
 
-  const addToBill = (product) => {
+  const closeCart = () => {
+    cartIdRequest.current = null;
+    setCart(null);
+  };
+
+  const showError = (err, fallback) => {
+    if (err.response?.status === 404) {
+      // Expired after a long idle time: its reservations are gone, start over
+      closeCart();
+      setError('The bill expired, please add the items again');
+      return;
+    }
+    setError(err.response?.data?.message || fallback);
+  };
+
+  // Opens a cart on the first item, once even if several are added meanwhile
+  const currentCartId = () => {
+    if (!cartIdRequest.current) {
+      cartIdRequest.current = createCart()
+        .then(res => {
+          setCart(res.data);
+          return res.data.id;
+        })
+        .catch(err => {
+          cartIdRequest.current = null;
+          throw err;
+        });
+    }
+    return cartIdRequest.current;
+  };
+
+  const addToBill = async (product) => {
     setError('');
     setQuery('');
     setSuggestions([]);
 
-    setBillItems(prev => {
-      const existing = prev.find(i => i.productId === product.id);
-      if (existing) {
-        return prev.map(i =>
-          i.productId === product.id
-            ? { ...i, quantity: i.quantity + (i.unitType === 'KG' ? 0.5 : 1) }
-            : i
-        );
-      }
-
-      return [
-        ...prev,
-        {
-          productId: product.id,
-          name: product.name,
-          price: product.price,
-          unitType: product.unitType,
-          quantity: product.unitType === 'KG' ? 0.5 : 1
-        }
-      ];
-    });
+    try {
+      const id = await currentCartId();
+      const res = await addCartItem(id, product.id, product.unitType === 'KG' ? 0.5 : 1);
+      setCart(res.data);
+    } catch (err) {
+      showError(err, 'Could not add the item');
+    }
   };
 
-  const updateQuantity = (index, value) => {
-    setBillItems(prev =>
-      prev.map((item, i) =>
-        i === index ? { ...item, quantity: value } : item
-      )
-    );
+  const updateQuantity = (item, value) => {
+    setError('');
+    if (!(value > 0)) {
+      return;
+    }
+    updateCartItem(cart.id, item.productId, value)
+      .then(res => setCart(res.data))
+      .catch(err => showError(err, 'Could not change the quantity'));
   };
 
-  const removeItem = (index) => {
-    setBillItems(prev => prev.filter((_, i) => i !== index));
+  const removeItem = (item) => {
+    setError('');
+    removeCartItem(cart.id, item.productId)
+      .then(res => setCart(res.data))
+      .catch(err => showError(err, 'Could not remove the item'));
   };
 
-  const total = billItems.reduce(
-    (sum, i) => sum + i.price * i.quantity,
-    0
-  ).toFixed(2);
+  const total = (cart?.total ?? 0).toFixed(2);
 
   const submitSale = () => {
     setError('');
@@ -87,22 +118,13 @@ const CreateSale = () => {
       return;
     }
 
-    const payload = {
-      items: billItems.map(i => ({
-        productId: i.productId,
-        quantity: i.quantity
-      }))
-    };
-
-    createSale(payload)
+    checkoutCart(cart.id)
       .then(res => {
         setMessage(`Sale completed successfully! Invoice: ${res.data.invoiceNumber}`);
-        setBillItems([]);
+        closeCart();
         setTimeout(() => setMessage(''), 5000);
       })
-      .catch(err => {
-        setError(err.response?.data?.message || 'Sale failed');
-      });
+      .catch(err => showError(err, 'Sale failed'));
   };
 
   return (
@@ -232,17 +254,18 @@ const CreateSale = () => {
                       </tr>
                     </thead>
                     <tbody>
-                      {billItems.map((item, index) => (
-                        <tr key={index}>
-                          <td className="product-name">{item.name}</td>
+                      {billItems.map(item => (
+                        <tr key={item.productId}>
+                          <td className="product-name">{item.productName}</td>
                           <td className="quantity-cell">
                             <input
+                              key={`${item.productId}-${item.quantity}`}
                               type="number"
                               step={item.unitType === 'KG' ? '0.01' : '1'}
                               min={item.unitType === 'KG' ? '0.01' : '1'}
-                              value={item.quantity}
-                              onChange={e =>
-                                updateQuantity(index, parseFloat(e.target.value))
+                              defaultValue={item.quantity}
+                              onBlur={e =>
+                                updateQuantity(item, parseFloat(e.target.value))
                               }
                               className="quantity-input"
                             />
@@ -250,10 +273,17 @@ const CreateSale = () => {
                           <td className="unit-cell">
                             <span className="unit-badge">{item.unitType}</span>
                           </td>
-                          <td className="price-cell">Rs. {item.price.toFixed(2)}</td>
-                          <td className="total-cell">Rs. {(item.price * item.quantity).toFixed(2)}</td>
+                          <td className="price-cell">Rs. {item.unitPrice.toFixed(2)}</td>
+                          <td className="total-cell">
+                            Rs. {item.lineTotal.toFixed(2)}
+                            {item.discount > 0 && (
+                              <div className="promo-note">
+                                {item.promotionName} −{item.discount.toFixed(2)}
+                              </div>
+                            )}
+                          </td>
                           <td className="action-cell">
-                            <button onClick={() => removeItem(index)} className="remove-btn" title="Remove">
+                            <button onClick={() => removeItem(item)} className="remove-btn" title="Remove">
                               <svg viewBox="0 0 24 24" fill="none" stroke="currentColor" strokeWidth="2">
                                 <line x1="18" y1="6" x2="6" y2="18" />
                                 <line x1="6" y1="6" x2="18" y2="18" />
@@ -1,6 +1,7 @@
 import React, { useEffect, useState, useContext } from 'react';
 import { AuthContext } from '../../context/AuthContext';
 import { getMySales } from '../../api/saleApi';
+import { openShift, closeShift, getCurrentShift } from '../../api/shiftApi';
 import Navbar from '../../components/Navbar';
 import Sidebar from '../../components/Sidebar';
 import { useNavigate } from 'react-router-dom';
@@ -10,12 +11,39 @@ const CashierDashboard = () => {
   const { user } = useContext(AuthContext);
   const [sales, setSales] = useState([]);
   const [loading, setLoading] = useState(true);
+  const [shift, setShift] = useState(null);
   const navigate = useNavigate();
 
+  useEffect(() => {
+    getCurrentShift()
+      .then(res => setShift(res.data))
+      .catch(() => setShift(null));
+  }, []);
+
+  const toggleShift = async () => {
+    try {
+      if (shift) {
+        const res = await closeShift();
+        const z = res.data;
+        alert(
+          `Shift closed\n\nSales: ${z.saleCount}\nRevenue: Rs. ${Number(z.revenue).toFixed(2)}\n` +
+          `Units sold: ${z.unitsSold}\nKg sold: ${z.kgSold}`
+        );
+        setShift(null);
+        setSales([]);
+      } else {
+        const res = await openShift();
+        setShift(res.data);
+      }
+    } catch (err) {
+      alert(err.response?.data?.error || 'Shift update failed');
+    }
+  };
+
   useEffect(() => {
     getMySales()
       .then(res => {
-        setSales(res.data);
+        setSales(res.data.content);
         setLoading(false);
       })
       .catch(err => {
@@ -120,6 +148,24 @@ const CashierDashboard = () => {
               </div>
 
               <div className="action-cards">
+                <div className="action-card secondary-action" onClick={toggleShift}>
+                  <div className="action-icon">
+                    <svg viewBox="0 0 24 24" fill="none" stroke="currentColor" strokeWidth="2">
+                      <circle cx="12" cy="12" r="10" />
+                      <polyline points="12 6 12 12 16 14" />
+                    </svg>
+                  </div>
+                  <div className="action-content">
+                    <h3>{shift ? 'Close Shift' : 'Open Shift'}</h3>
+                    <p>
+                      {shift
+                        ? `${shift.saleCount} sales · Rs. ${Number(shift.revenue).toFixed(2)} this shift`
+                        : 'Start your shift to track sales and totals'}
+                    </p>
+                  </div>
+                  <div className="action-arrow">→</div>
+                </div>
+
                 <div className="action-card primary-action" onClick={() => navigate('/cashier/create-sale')}>
                   <div className="action-icon">
                     <svg viewBox="0 0 24 24" fill="none" stroke="currentColor" strokeWidth="2">
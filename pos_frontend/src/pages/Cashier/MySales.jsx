@@ -8,12 +8,13 @@ import './MySales.css';
 const MySales = () => {
   const [sales, setSales] = useState([]);
   const [selectedReceipt, setSelectedReceipt] = useState(null);
+  const [selectedSaleId, setSelectedSaleId] = useState(null);
   const [loading, setLoading] = useState(true);
 
   useEffect(() => {
     getMySales()
       .then(res => {
-        setSales(res.data);
+        setSales(res.data.content);
         setLoading(false);
       })
       .catch(err => {
@@ -24,6 +25,7 @@ const MySales = () => {
 
   const viewReceipt = async (saleId) => {
     const res = await getReceipt(saleId);
+    setSelectedSaleId(saleId);
     setSelectedReceipt(res.data);
   };
 
@@ -152,7 +154,7 @@ const MySales = () => {
                     <line x1="6" y1="6" x2="18" y2="18" />
                   </svg>
                 </button>
-                <ReceiptView receipt={selectedReceipt} />
+                <ReceiptView receipt={selectedReceipt} saleId={selectedSaleId} />
               </div>
             </div>
           )}
@@ -1,6 +1,20 @@
-export const printReceipt = () => {
-  const content = document.querySelector('.receipt-paper');
-  if (!content) return;
+import { getReceiptPrint } from '../api/saleApi';
+
+const escapeHtml = (text) =>
+  text.replace(/&/g, '&amp;').replace(/</g, '&lt;').replace(/>/g, '&gt;');
+
+export const printReceipt = async (saleId) => {
+  let body;
+
+  if (saleId) {
+    // Server renders the receipt once; print its fixed-width text as-is
+    const res = await getReceiptPrint(saleId, 'text');
+    body = `<pre class="receipt-text">${escapeHtml(res.data)}</pre>`;
+  } else {
+    const content = document.querySelector('.receipt-paper');
+    if (!content) return;
+    body = content.outerHTML;
+  }
 
   const printWindow = window.open('', '', 'width=400,height=600');
 
@@ -11,7 +25,7 @@ export const printReceipt = () => {
         <link rel="stylesheet" href="/receiptPrint.css" />
       </head>
       <body>
-        ${content.outerHTML}
+        ${body}
       </body>
     </html>
   `);